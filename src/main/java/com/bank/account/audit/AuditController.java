@@ -18,4 +18,9 @@ public class AuditController {
     public List<AuditLog> getAllAuditLogs() {
         return auditService.getAllLogs();
     }
+
+    @GetMapping("/metrics")
+    public AuditWriterMetrics getWriterMetrics() {
+        return auditService.getWriterMetrics();
+    }
 }
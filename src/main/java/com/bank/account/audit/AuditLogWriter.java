@@ -0,0 +1,225 @@
+package com.bank.account.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer behind {@link AuditService#log}. Callers only enqueue into a bounded ring buffer;
+ * a single daemon thread drains it and inserts the entries in multi-row batches, flushing whenever a
+ * batch fills up or the flush interval elapses.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${audit.writer.capacity:8192}")
+    private int capacity;
+
+    @Value("${audit.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${audit.writer.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+
+    @Value("${audit.writer.overflow-policy:DROP}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${audit.writer.spill-file:audit-spill.ndjson}")
+    private String spillFile;
+
+    private AuditRingBuffer<AuditLog> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    @PostConstruct
+    void start() {
+        buffer = new AuditRingBuffer<>(capacity);
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void publish(AuditLog entry) {
+        published.incrementAndGet();
+        if (buffer.offer(entry)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                while (!buffer.offer(entry)) {
+                    if (!running) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+            }
+            case DROP -> dropped.incrementAndGet();
+            case SPILL -> spill(List.of(entry));
+        }
+    }
+
+    public AuditWriterMetrics getMetrics() {
+        AuditWriterMetrics metrics = new AuditWriterMetrics();
+        metrics.setOverflowPolicy(overflowPolicy);
+        metrics.setQueueCapacity(buffer.capacity());
+        metrics.setQueueDepth(buffer.size());
+        metrics.setPublished(published.get());
+        metrics.setWritten(written.get());
+        metrics.setDropped(dropped.get());
+        metrics.setSpilled(spilled.get());
+        metrics.setFailed(failed.get());
+        long flushCount = flushes.get();
+        metrics.setFlushes(flushCount);
+        metrics.setAverageFlushMillis(flushCount == 0 ? 0 : totalFlushNanos.get() / 1e6 / flushCount);
+        metrics.setLastFlushMillis(lastFlushNanos / 1e6);
+        metrics.setMaxFlushMillis(maxFlushNanos / 1e6);
+        return metrics;
+    }
+
+    private void runWriter() {
+        replaySpillFile();
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        long lastFlush = System.nanoTime();
+        while (running || buffer.size() > 0) {
+            AuditLog entry = buffer.poll();
+            if (entry != null) {
+                batch.add(entry);
+            }
+            boolean intervalElapsed = System.nanoTime() - lastFlush >= flushIntervalNanos;
+            if (batch.size() >= batchSize || (!batch.isEmpty() && (intervalElapsed || !running))) {
+                flush(batch);
+                batch.clear();
+                lastFlush = System.nanoTime();
+            } else if (entry == null) {
+                // Idle: sleep until the pending batch is due, or a full interval when there is nothing pending
+                LockSupport.parkNanos(batch.isEmpty() ? flushIntervalNanos : flushIntervalNanos - (System.nanoTime() - lastFlush));
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditLog> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(batch));
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} audit entries: {}", batch.size(), e.getMessage());
+            // Ids assigned by the failed insert must not be reused when the entries are replayed
+            batch.forEach(entry -> entry.setId(null));
+            if (overflowPolicy == AuditOverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                failed.addAndGet(batch.size());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        flushes.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        lastFlushNanos = elapsed;
+        if (elapsed > maxFlushNanos) {
+            maxFlushNanos = elapsed;
+        }
+    }
+
+    // Overflow path only, so a plain lock around the file is fine
+    private synchronized void spill(List<AuditLog> entries) {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(spillFile), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditLog entry : entries) {
+                out.write(objectMapper.writeValueAsString(entry));
+                out.newLine();
+            }
+            spilled.addAndGet(entries.size());
+        } catch (IOException e) {
+            log.error("Failed to spill {} audit entries to {}: {}", entries.size(), spillFile, e.getMessage());
+            failed.addAndGet(entries.size());
+        }
+    }
+
+    private void replaySpillFile() {
+        Path path = Paths.get(spillFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        Path replaying = path.resolveSibling(path.getFileName() + ".replaying");
+        try {
+            Files.move(path, replaying, StandardCopyOption.REPLACE_EXISTING);
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            try (BufferedReader in = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    AuditLog entry = objectMapper.readValue(line, AuditLog.class);
+                    entry.setId(null);
+                    batch.add(entry);
+                    if (batch.size() >= batchSize) {
+                        flush(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+            Files.delete(replaying);
+            log.info("Replayed spilled audit entries from {}", spillFile);
+        } catch (IOException e) {
+            log.error("Failed to replay spilled audit entries from {}: {}", spillFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.bank.account.audit;
+
+public enum AuditOverflowPolicy {
+    BLOCK, // Caller waits until the writer frees a slot
+    DROP,  // Entry is discarded and counted
+    SPILL  // Entry is appended to the local spill file and replayed on the next start
+}
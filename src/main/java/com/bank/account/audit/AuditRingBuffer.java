@@ -0,0 +1,77 @@
+package com.bank.account.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue over a power-of-two ring. Every slot carries a sequence number that tells
+ * producers and the consumer whose turn it is, so neither side ever takes a lock.
+ */
+class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> entries;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E entry) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries.set(index, entry);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // Full: the slot still holds an entry from the previous lap
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E entry = entries.get(index);
+                    entries.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return entry;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null; // Empty
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long size() {
+        return Math.max(0, tail.get() - head.get());
+    }
+}
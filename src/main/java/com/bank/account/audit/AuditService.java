@@ -12,16 +12,24 @@ public class AuditService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
     public void log(String username, String action, String details) {
         AuditLog log = new AuditLog();
         log.setUsername(username);
         log.setAction(action);
         log.setDetails(details);
         log.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(log);
+        // Written asynchronously in batches; see AuditLogWriter
+        auditLogWriter.publish(log);
     }
 
     public List<AuditLog> getAllLogs() {
         return auditLogRepository.findAll();
     }
+
+    public AuditWriterMetrics getWriterMetrics() {
+        return auditLogWriter.getMetrics();
+    }
 }
@@ -0,0 +1,19 @@
+package com.bank.account.audit;
+
+import lombok.Data;
+
+@Data
+public class AuditWriterMetrics {
+    private AuditOverflowPolicy overflowPolicy;
+    private int queueCapacity;
+    private long queueDepth;
+    private long published;
+    private long written;
+    private long dropped;
+    private long spilled;
+    private long failed;
+    private long flushes;
+    private double averageFlushMillis;
+    private double lastFlushMillis;
+    private double maxFlushMillis;
+}
@@ -0,0 +1,157 @@
+package com.bank.account.config;
+
+import com.bank.account.exception.QueryBudgetExceededException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+/**
+ * Checks the number of SQL statements each request issued, including those fired while the response is
+ * serialized, against the handler's {@link QueryBudget}. The body is held back until the check passes, so
+ * with {@code query-budget.enforce=true} (as in the tests) an over-budget request fails instead of having
+ * already been sent; otherwise it is logged. The interceptor half records the budget once the handler is
+ * known, and marks handlers that stream or complete asynchronously: their bodies are written as they go
+ * and their statements are not checked.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+    private static final String BUDGET_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".budget";
+    private static final String UNCHECKED_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".unchecked";
+    private static final List<Class<?>> DEFERRED_BODY_TYPES = List.of(CompletionStage.class, Future.class, Callable.class,
+            DeferredResult.class, WebAsyncTask.class, StreamingResponseBody.class, ResponseBodyEmitter.class);
+
+    @Value("${query-budget.default:20}")
+    private int defaultBudget;
+
+    @Value("${query-budget.enforce:false}")
+    private boolean enforce;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            if (writesBodyLater(handlerMethod)) {
+                request.setAttribute(UNCHECKED_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (budget == null) {
+                budget = handlerMethod.getBeanType().getAnnotation(QueryBudget.class);
+            }
+            if (budget != null) {
+                request.setAttribute(BUDGET_ATTRIBUTE, budget.value());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        BudgetedResponse budgetedResponse = new BudgetedResponse(request, response);
+        chain.doFilter(request, budgetedResponse);
+        if (!budgetedResponse.buffering()) {
+            return; // Streamed or completed on another thread; already written
+        }
+
+        int statements = SqlStatementCounter.count();
+        Object budgetAttribute = request.getAttribute(BUDGET_ATTRIBUTE);
+        int budget = budgetAttribute != null ? (Integer) budgetAttribute : defaultBudget;
+        if (statements > budget) {
+            String message = request.getMethod() + " " + request.getRequestURI() + " issued " + statements
+                    + " SQL statements, over its budget of " + budget;
+            if (enforce) {
+                budgetedResponse.resetBuffer(); // Nothing was sent, so the request fails cleanly
+                throw new QueryBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+        budgetedResponse.copyBodyToResponse();
+    }
+
+    private static boolean writesBodyLater(HandlerMethod handlerMethod) {
+        ResolvableType returnType = ResolvableType.forMethodParameter(handlerMethod.getReturnType());
+        if (ResponseEntity.class.isAssignableFrom(returnType.toClass())) {
+            returnType = returnType.getGeneric(0);
+        }
+        Class<?> body = returnType.toClass();
+        return DEFERRED_BODY_TYPES.stream().anyMatch(type -> type.isAssignableFrom(body));
+    }
+
+    // Buffers the body unless the handler was marked as writing it later, which preHandle decides before any write
+    private static final class BudgetedResponse extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        BudgetedResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        boolean buffering() {
+            return request.getAttribute(UNCHECKED_ATTRIBUTE) == null && !request.isAsyncStarted();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return buffering() ? super.getOutputStream() : getResponse().getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return buffering() ? super.getWriter() : getResponse().getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (buffering()) {
+                super.flushBuffer();
+            } else {
+                getResponse().flushBuffer();
+            }
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            if (buffering()) {
+                super.setContentLength(len);
+            } else {
+                getResponse().setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (buffering()) {
+                super.setContentLengthLong(len);
+            } else {
+                getResponse().setContentLengthLong(len);
+            }
+        }
+    }
+}
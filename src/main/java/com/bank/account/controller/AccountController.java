@@ -1,16 +1,22 @@
 package com.bank.account.controller;
 
+import com.bank.account.config.QueryBudget;
 import com.bank.account.dto.AccountCreationRequest;
 import com.bank.account.dto.AccountStatus;
+import com.bank.account.dto.AccountView;
+import com.bank.account.dto.CardView;
+import com.bank.account.dto.TransactionPage;
 import com.bank.account.entity.Account;
-import com.bank.account.entity.Transaction;
 import com.bank.account.service.AccountService;
+import com.bank.account.service.CardService;
 import com.bank.account.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -24,31 +30,48 @@ public class AccountController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private CardService cardService;
+
     @PostMapping
-    public Account createAccount(@Valid @RequestBody AccountCreationRequest request) {
-        return accountService.createAccount(request);
+    public AccountView createAccount(@Valid @RequestBody AccountCreationRequest request) {
+        return AccountView.from(accountService.createAccount(request));
     }
 
+    @QueryBudget(1)
     @GetMapping
-    public List<Account> getAllAccounts() {
+    public List<AccountView> getAllAccounts() {
         return accountService.getAllAccounts();
     }
 
+    @QueryBudget(1)
     @GetMapping("/{accountNumber}")
-    public Account getAccountDetails(@PathVariable String accountNumber) {
-        return accountService.getAccountDetails(accountNumber);
+    public AccountView getAccountDetails(@PathVariable String accountNumber) {
+        return accountService.getAccountView(accountNumber);
+    }
+
+    @QueryBudget(1)
+    @GetMapping("/{accountNumber}/cards")
+    public List<CardView> getAccountCards(@PathVariable String accountNumber) {
+        return cardService.getCardsForAccount(accountNumber);
     }
 
     @PutMapping("/{accountNumber}")
-    public Account updateAccount(@PathVariable String accountNumber, @Valid @RequestBody Account accountDetails) {
-        return accountService.updateAccount(accountNumber, accountDetails);
+    public AccountView updateAccount(@PathVariable String accountNumber, @Valid @RequestBody Account accountDetails) {
+        return AccountView.from(accountService.updateAccount(accountNumber, accountDetails));
     }
 
     @PatchMapping("/{accountNumber}/status")
-    public Account updateAccountStatus(@PathVariable String accountNumber, @RequestBody Map<String, String> request) {
+    public AccountView updateAccountStatus(@PathVariable String accountNumber, @RequestBody Map<String, String> request) {
         // Enum validation will happen in service layer
         AccountStatus status = AccountStatus.valueOf(request.get("status").toUpperCase());
-        return accountService.updateAccountStatus(accountNumber, status);
+        return AccountView.from(accountService.updateAccountStatus(accountNumber, status));
+    }
+
+    @PatchMapping("/{accountNumber}/stripes")
+    public AccountView configureBalanceStripes(@PathVariable String accountNumber, @RequestBody Map<String, Integer> request) {
+        // Marks a hot account (merchant / pool / fee) whose credits are spread across N stripe rows; 0 disables striping
+        return AccountView.from(accountService.configureBalanceStripes(accountNumber, request.getOrDefault("stripes", 0)));
     }
 
     @GetMapping("/{accountNumber}/balance")
@@ -56,8 +79,14 @@ public class AccountController {
         return ResponseEntity.ok(accountService.getBalance(accountNumber));
     }
 
+    @QueryBudget(3)
     @GetMapping("/{accountNumber}/transactions")
-    public List<Transaction> getTransactionsForAccount(@PathVariable String accountNumber) {
-        return transactionService.getTransactionsForAccount(accountNumber);
+    public TransactionPage getTransactionsForAccount(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return transactionService.getTransactionsForAccount(accountNumber, from, to, cursor, size);
     }
 }
@@ -1,17 +1,24 @@
 package com.bank.account.controller;
 
+import com.bank.account.config.QueryBudget;
+import com.bank.account.dto.AuthorizationRequest;
+import com.bank.account.dto.AuthorizationResponse;
+import com.bank.account.dto.CardAuthorizationMetrics;
+import com.bank.account.dto.CardView;
 import com.bank.account.dto.IssueCardRequest;
+import com.bank.account.dto.TransactionView;
 import com.bank.account.dto.UpdateCardLimitRequest;
 import com.bank.account.dto.UpdatePinRequest;
-import com.bank.account.entity.Card;
-import com.bank.account.entity.Transaction;
+import com.bank.account.service.CardAuthorizationService;
 import com.bank.account.service.CardService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/cards")
@@ -20,46 +27,51 @@ public class CardController {
     @Autowired
     private CardService cardService;
 
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
     @PostMapping
-    public Card issueCard(@RequestBody IssueCardRequest request) {
-        return cardService.issueCard(request.getCustomerId(), request.getAccountId(), request.getCardType(), request.getLimit());
+    public CompletableFuture<CardView> issueCard(@RequestBody IssueCardRequest request) {
+        return cardService.issueCard(request.getCustomerId(), request.getAccountId(), request.getCardType(), request.getLimit())
+                .thenApply(CardView::from);
     }
 
+    @QueryBudget(1)
     @GetMapping("/{cardNumber}")
-    public Card getCardDetails(@PathVariable String cardNumber) {
+    public CardView getCardDetails(@PathVariable String cardNumber) {
         return cardService.getCardDetails(cardNumber);
     }
 
     @PatchMapping("/{cardNumber}/block")
-    public Card blockCard(@PathVariable String cardNumber) {
-        return cardService.blockCard(cardNumber);
+    public CardView blockCard(@PathVariable String cardNumber) {
+        return CardView.from(cardService.blockCard(cardNumber));
     }
 
     @PatchMapping("/{cardNumber}/unblock")
-    public Card unblockCard(@PathVariable String cardNumber) {
-        return cardService.unblockCard(cardNumber);
+    public CardView unblockCard(@PathVariable String cardNumber) {
+        return CardView.from(cardService.unblockCard(cardNumber));
     }
 
     @PatchMapping("/{cardNumber}/limit/credit")
-    public Card updateCreditLimit(@PathVariable String cardNumber, @RequestBody UpdateCardLimitRequest request) {
-        return cardService.updateCreditLimit(cardNumber, request.getNewLimit());
+    public CardView updateCreditLimit(@PathVariable String cardNumber, @RequestBody UpdateCardLimitRequest request) {
+        return CardView.from(cardService.updateCreditLimit(cardNumber, request.getNewLimit()));
     }
 
     @PatchMapping("/{cardNumber}/limit/withdrawal")
-    public Card updateDailyWithdrawalLimit(@PathVariable String cardNumber, @RequestBody UpdateCardLimitRequest request) {
-        return cardService.updateDailyWithdrawalLimit(cardNumber, request.getNewLimit());
+    public CardView updateDailyWithdrawalLimit(@PathVariable String cardNumber, @RequestBody UpdateCardLimitRequest request) {
+        return CardView.from(cardService.updateDailyWithdrawalLimit(cardNumber, request.getNewLimit()));
     }
 
     @PostMapping("/{cardNumber}/pin/generate")
-    public ResponseEntity<String> generatePin(@PathVariable String cardNumber) {
-        String newPin = cardService.generatePin(cardNumber);
-        return ResponseEntity.ok("New PIN generated: " + newPin + ". Please change it immediately.");
+    public CompletableFuture<ResponseEntity<String>> generatePin(@PathVariable String cardNumber) {
+        return cardService.generatePin(cardNumber)
+                .thenApply(newPin -> ResponseEntity.ok("New PIN generated: " + newPin + ". Please change it immediately."));
     }
 
     @PatchMapping("/{cardNumber}/pin/update")
-    public ResponseEntity<String> updatePin(@PathVariable String cardNumber, @RequestBody UpdatePinRequest request) {
-        String message = cardService.updatePin(cardNumber, request.getOldPin(), request.getNewPin());
-        return ResponseEntity.ok(message);
+    public CompletableFuture<ResponseEntity<String>> updatePin(@PathVariable String cardNumber, @RequestBody UpdatePinRequest request) {
+        return cardService.updatePin(cardNumber, request.getOldPin(), request.getNewPin())
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/{cardNumber}/expired")
@@ -67,16 +79,38 @@ public class CardController {
         return ResponseEntity.ok(cardService.isCardExpired(cardNumber));
     }
 
+    @QueryBudget(2)
     @GetMapping("/{cardNumber}/transactions")
-    public List<Transaction> getCardTransactionHistory(@PathVariable String cardNumber) {
+    public List<TransactionView> getCardTransactionHistory(@PathVariable String cardNumber) {
         return cardService.getCardTransactionHistory(cardNumber);
     }
 
+    @QueryBudget(2)
     @GetMapping("/{cardNumber}/transactions/monthly")
-    public List<Transaction> getMonthlyCardTransactionHistory(
+    public List<TransactionView> getMonthlyCardTransactionHistory(
             @PathVariable String cardNumber,
             @RequestParam int year,
             @RequestParam int month) {
         return cardService.getMonthlyCardTransactionHistory(cardNumber, year, month);
     }
+
+    @PostMapping("/{cardNumber}/authorize")
+    public CompletableFuture<AuthorizationResponse> authorize(@PathVariable String cardNumber, @Valid @RequestBody AuthorizationRequest request) {
+        return cardAuthorizationService.authorize(cardNumber, request);
+    }
+
+    @PostMapping("/authorizations/{authorizationId}/capture")
+    public AuthorizationResponse captureAuthorization(@PathVariable String authorizationId) {
+        return cardAuthorizationService.capture(authorizationId);
+    }
+
+    @PostMapping("/authorizations/{authorizationId}/release")
+    public AuthorizationResponse releaseAuthorization(@PathVariable String authorizationId) {
+        return cardAuthorizationService.release(authorizationId);
+    }
+
+    @GetMapping("/authorizations/metrics")
+    public CardAuthorizationMetrics getAuthorizationMetrics() {
+        return cardAuthorizationService.getMetrics();
+    }
 }
@@ -1,14 +1,26 @@
 package com.bank.account.controller;
 
+import com.bank.account.config.QueryBudget;
+import com.bank.account.dto.AccrualRunStats;
+import com.bank.account.dto.BillAccrualView;
+import com.bank.account.dto.BillLineItemView;
+import com.bank.account.dto.BillStatement;
 import com.bank.account.dto.ChangeBillGenerationDateRequest;
+import com.bank.account.dto.CreditCardBillView;
 import com.bank.account.dto.PayBillRequest;
-import com.bank.account.entity.CreditCardBill;
 import com.bank.account.service.CreditCardBillingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/credit-card-bills")
@@ -18,28 +30,78 @@ public class CreditCardBillingController {
     private CreditCardBillingService creditCardBillingService;
 
     @GetMapping("/{cardNumber}/statement")
-    public CreditCardBill getMonthlyStatement(@PathVariable String cardNumber) {
-        return creditCardBillingService.generateMonthlyStatement(cardNumber);
+    public CreditCardBillView getMonthlyStatement(@PathVariable String cardNumber) {
+        return CreditCardBillView.from(creditCardBillingService.generateMonthlyStatement(cardNumber));
     }
 
     @PostMapping("/{cardNumber}/generate-bill")
-    public CreditCardBill generateBill(@PathVariable String cardNumber) {
-        return creditCardBillingService.generateBill(cardNumber);
+    public CreditCardBillView generateBill(@PathVariable String cardNumber) {
+        return CreditCardBillView.from(creditCardBillingService.generateBill(cardNumber));
     }
 
+    @QueryBudget(1)
     @GetMapping("/bill/{billId}")
-    public CreditCardBill getBillDetails(@PathVariable Long billId) {
+    public CreditCardBillView getBillDetails(@PathVariable Long billId) {
         return creditCardBillingService.getBillDetails(billId);
     }
 
+    // Bill totals change with payments and accruals, so clients revalidate against an ETag built from the bill version.
+    // A bill without line items takes one more statement to tell it from an unknown bill.
+    @QueryBudget(3)
+    @GetMapping("/bill/{billId}/statement")
+    public ResponseEntity<BillStatement> getBillStatement(@PathVariable Long billId, WebRequest request) {
+        CreditCardBillView bill = creditCardBillingService.getBillDetails(billId);
+        String etag = billEtag(List.of(bill));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        BillStatement statement = new BillStatement();
+        statement.setBill(bill);
+        statement.setLineItems(creditCardBillingService.getBillLineItems(billId));
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(statement);
+    }
+
+    // Line items are an immutable snapshot and can be cached indefinitely; an unknown bill is a 404 and is not cached
+    @QueryBudget(2)
+    @GetMapping("/bill/{billId}/line-items")
+    public ResponseEntity<List<BillLineItemView>> getBillLineItems(@PathVariable Long billId) {
+        List<BillLineItemView> lineItems = creditCardBillingService.getBillLineItems(billId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate())
+                .body(lineItems);
+    }
+
+    @QueryBudget(1)
+    @GetMapping("/bill/{billId}/accruals")
+    public List<BillAccrualView> getBillAccruals(@PathVariable Long billId) {
+        return creditCardBillingService.getBillAccruals(billId);
+    }
+
+    // Re-running a date only posts accruals that run has not recorded yet
+    @PostMapping("/accruals")
+    public AccrualRunStats runAccruals(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return creditCardBillingService.runAccruals(date == null ? LocalDate.now() : date);
+    }
+
+    @GetMapping("/accruals/metrics")
+    public AccrualRunStats getAccrualMetrics() {
+        return creditCardBillingService.getLastAccrualRun();
+    }
+
+    @QueryBudget(1)
     @GetMapping("/{cardNumber}/history")
-    public List<CreditCardBill> getBillingHistory(@PathVariable String cardNumber) {
-        return creditCardBillingService.getBillingHistory(cardNumber);
+    public ResponseEntity<List<CreditCardBillView>> getBillingHistory(@PathVariable String cardNumber, WebRequest request) {
+        List<CreditCardBillView> bills = creditCardBillingService.getBillingHistory(cardNumber);
+        String etag = billEtag(bills);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(bills);
     }
 
     @PostMapping("/{cardNumber}/pay")
-    public CreditCardBill payBill(@PathVariable String cardNumber, @RequestBody PayBillRequest request) {
-        return creditCardBillingService.payBill(cardNumber, request.getPaymentOption(), request.getAmount());
+    public CreditCardBillView payBill(@PathVariable String cardNumber, @RequestBody PayBillRequest request) {
+        return CreditCardBillView.from(creditCardBillingService.payBill(cardNumber, request.getPaymentOption(), request.getAmount()));
     }
 
     @PatchMapping("/{cardNumber}/bill-generation-date")
@@ -47,4 +109,13 @@ public class CreditCardBillingController {
         creditCardBillingService.changeBillGenerationDate(cardNumber, request.getDayOfMonth());
         return ResponseEntity.noContent().build();
     }
+
+    // Every change to a bill bumps its version, so the ids and versions identify the response
+    private static String billEtag(List<CreditCardBillView> bills) {
+        StringBuilder versions = new StringBuilder();
+        for (CreditCardBillView bill : bills) {
+            versions.append(bill.getId()).append(':').append(bill.getVersion()).append(';');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
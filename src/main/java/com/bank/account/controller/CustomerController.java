@@ -1,7 +1,11 @@
 package com.bank.account.controller;
 
+import com.bank.account.config.QueryBudget;
+import com.bank.account.dto.AccountView;
+import com.bank.account.dto.CustomerView;
 import com.bank.account.dto.KycUpdateRequest;
 import com.bank.account.entity.Customer;
+import com.bank.account.service.AccountService;
 import com.bank.account.service.CustomerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,25 +21,36 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private AccountService accountService;
+
     @PostMapping
-    public Customer createCustomer(@Valid @RequestBody Customer customer) {
-        return customerService.createCustomer(customer);
+    public CustomerView createCustomer(@Valid @RequestBody Customer customer) {
+        return CustomerView.from(customerService.createCustomer(customer));
     }
 
+    @QueryBudget(1)
     @GetMapping
-    public List<Customer> getAllCustomers() {
+    public List<CustomerView> getAllCustomers() {
         return customerService.getAllCustomers();
     }
 
+    @QueryBudget(1)
     @GetMapping("/{id}")
-    public Customer getCustomerById(@PathVariable Long id) {
+    public CustomerView getCustomerById(@PathVariable Long id) {
         return customerService.getCustomerById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
     }
 
+    @QueryBudget(1)
+    @GetMapping("/{id}/accounts")
+    public List<AccountView> getCustomerAccounts(@PathVariable Long id) {
+        return accountService.getAccountsForCustomer(id);
+    }
+
     @PutMapping("/{id}")
-    public Customer updateCustomer(@PathVariable Long id, @Valid @RequestBody Customer customerDetails) {
-        return customerService.updateCustomer(id, customerDetails);
+    public CustomerView updateCustomer(@PathVariable Long id, @Valid @RequestBody Customer customerDetails) {
+        return CustomerView.from(customerService.updateCustomer(id, customerDetails));
     }
 
     @DeleteMapping("/{id}")
@@ -45,7 +60,7 @@ public class CustomerController {
     }
 
     @PutMapping("/{id}/kyc")
-    public Customer updateKyc(@PathVariable Long id, @Valid @RequestBody KycUpdateRequest request) {
-        return customerService.updateKyc(id, request.isKycCompleted());
+    public CustomerView updateKyc(@PathVariable Long id, @Valid @RequestBody KycUpdateRequest request) {
+        return CustomerView.from(customerService.updateKyc(id, request.isKycCompleted()));
     }
 }
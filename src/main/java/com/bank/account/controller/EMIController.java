@@ -1,10 +1,13 @@
 package com.bank.account.controller;
 
+import com.bank.account.config.QueryBudget;
+import com.bank.account.dto.BulkEmiOfferRequest;
 import com.bank.account.dto.EMIConversionRequest;
 import com.bank.account.dto.EMIOfferResponse;
-import com.bank.account.entity.EMIPlan;
-import com.bank.account.entity.EMISchedule;
+import com.bank.account.dto.EmiPlanView;
+import com.bank.account.dto.EmiScheduleView;
 import com.bank.account.service.EMIService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,23 +20,39 @@ public class EMIController {
     @Autowired
     private EMIService emiService;
 
+    @QueryBudget(1)
     @GetMapping("/offers/{transactionId}")
     public EMIOfferResponse getEmiOffers(@PathVariable Long transactionId) {
         return emiService.getEmiOffers(transactionId);
     }
 
+    @QueryBudget(2)
+    @GetMapping("/offers/card/{cardNumber}")
+    public List<EMIOfferResponse> getEmiOffersForCard(@PathVariable String cardNumber) {
+        return emiService.getEmiOffersForCard(cardNumber);
+    }
+
+    @QueryBudget(1)
+    @PostMapping("/offers")
+    public List<EMIOfferResponse> getEmiOffers(@Valid @RequestBody BulkEmiOfferRequest request) {
+        return emiService.getEmiOffers(request.getTransactionIds());
+    }
+
+    @QueryBudget(6)
     @PostMapping("/convert")
-    public EMIPlan convertToEmi(@RequestBody EMIConversionRequest request) {
-        return emiService.convertToEmi(request);
+    public EmiPlanView convertToEmi(@RequestBody EMIConversionRequest request) {
+        return EmiPlanView.from(emiService.convertToEmi(request));
     }
 
+    @QueryBudget(1)
     @GetMapping("/plan/{emiPlanId}")
-    public EMIPlan getEmiPlanDetails(@PathVariable Long emiPlanId) {
+    public EmiPlanView getEmiPlanDetails(@PathVariable Long emiPlanId) {
         return emiService.getEmiPlanDetails(emiPlanId);
     }
 
+    @QueryBudget(2)
     @GetMapping("/plan/{emiPlanId}/schedule")
-    public List<EMISchedule> getEmiSchedule(@PathVariable Long emiPlanId) {
+    public List<EmiScheduleView> getEmiSchedule(@PathVariable Long emiPlanId) {
         return emiService.getEmiSchedule(emiPlanId);
     }
 }
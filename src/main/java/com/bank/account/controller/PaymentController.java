@@ -1,9 +1,14 @@
 package com.bank.account.controller;
 
 import com.bank.account.dto.FundTransferRequest;
-import com.bank.account.entity.Transaction;
+import com.bank.account.dto.NeftBatchStats;
+import com.bank.account.dto.TransactionView;
+import com.bank.account.entity.NeftInstruction;
+import com.bank.account.service.NeftSettlementService;
 import com.bank.account.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,8 +23,21 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private NeftSettlementService neftSettlementService;
+
     @PostMapping("/transfer")
-    public List<Transaction> initiateTransfer(@RequestBody FundTransferRequest request) {
-        return paymentService.initiateFundTransfer(request);
+    public List<TransactionView> initiateTransfer(@RequestBody FundTransferRequest request) {
+        return paymentService.initiateFundTransfer(request).stream().map(TransactionView::from).toList();
+    }
+
+    @GetMapping("/neft/{referenceNumber}")
+    public NeftInstruction getNeftInstruction(@PathVariable String referenceNumber) {
+        return neftSettlementService.getInstruction(referenceNumber);
+    }
+
+    @GetMapping("/neft/metrics")
+    public NeftBatchStats getNeftBatchStats() {
+        return neftSettlementService.getBatchStats();
     }
 }
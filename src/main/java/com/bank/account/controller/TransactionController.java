@@ -1,16 +1,26 @@
 package com.bank.account.controller;
 
+import com.bank.account.config.QueryBudget;
 import com.bank.account.dto.DepositRequest;
+import com.bank.account.dto.ExportFormat;
 import com.bank.account.dto.FundTransferRequest;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.dto.TransactionView;
 import com.bank.account.dto.WithdrawRequest;
-import com.bank.account.entity.Transaction;
+import com.bank.account.exception.InvalidInputException;
 import com.bank.account.exception.ResourceNotFoundException;
 import com.bank.account.service.TransactionService;
 import com.bank.account.service.PaymentService; // Inject PaymentService for transfer
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -24,27 +34,55 @@ public class TransactionController {
     private PaymentService paymentService; // Inject PaymentService for handling transfers
 
     @PostMapping("/deposit")
-    public Transaction deposit(@Valid @RequestBody DepositRequest request) {
-        return transactionService.deposit(request);
+    public TransactionView deposit(@Valid @RequestBody DepositRequest request) {
+        return TransactionView.from(transactionService.deposit(request));
     }
 
     @PostMapping("/withdraw")
-    public Transaction withdraw(@Valid @RequestBody WithdrawRequest request) {
-        return transactionService.withdraw(request);
+    public TransactionView withdraw(@Valid @RequestBody WithdrawRequest request) {
+        return TransactionView.from(transactionService.withdraw(request));
     }
 
     @PostMapping("/transfer") // As per user's request
-    public List<Transaction> transfer(@Valid @RequestBody FundTransferRequest request) {
-        return paymentService.initiateFundTransfer(request);
+    public List<TransactionView> transfer(@Valid @RequestBody FundTransferRequest request) {
+        return paymentService.initiateFundTransfer(request).stream().map(TransactionView::from).toList();
     }
 
+    // Paged like the account history: never the whole table in one response; bulk reads go through /export
+    @QueryBudget(1)
     @GetMapping
-    public List<Transaction> getAllTransactions() {
-        return transactionService.getAllTransactions();
+    public TransactionPage getTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return transactionService.getTransactions(cursor, size);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String transactionType) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unsupported export format: " + format + ". Use ndjson or csv.");
+        }
+
+        // Rows are written from a database cursor as they are read; nothing is collected in memory
+        StreamingResponseBody body = out -> transactionService.exportTransactions(accountNumber, from, to, transactionType, exportFormat, out);
+        boolean csv = exportFormat == ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? "text/csv" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    @QueryBudget(1)
     @GetMapping("/{id}")
-    public Transaction getTransactionById(@PathVariable Long id) {
+    public TransactionView getTransactionById(@PathVariable Long id) {
         return transactionService.getTransactionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + id));
     }
@@ -0,0 +1,28 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.Account;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountView {
+    private Long id;
+    private String accountNumber;
+    private String accountType;
+    private String ifscCode;
+    private String branch;
+    private double balance;
+    private AccountStatus status;
+    private int balanceStripes;
+    private Long customerId;
+
+    // Reads only the customer's id, so a lazy customer is not loaded
+    public static AccountView from(Account account) {
+        return new AccountView(account.getId(), account.getAccountNumber(), account.getAccountType(), account.getIfscCode(),
+                account.getBranch(), account.getBalance(), account.getStatus(), account.getBalanceStripes(),
+                account.getCustomer() == null ? null : account.getCustomer().getId());
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class AccrualRunStats {
+    private LocalDate accrualDate;
+    private LocalDateTime startedAt;
+    private int partitions;
+    private long billsScanned;
+    private long accrualsPosted;
+    private long skipped; // Already accrued for this date by an earlier run, or settled since the scan
+    private long failedBatches;
+    private double interestPosted;
+    private double lateFeesPosted;
+    private long durationMillis;
+    private double rowsPerSecond; // Bills scanned per second
+}
@@ -0,0 +1,18 @@
+package com.bank.account.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class AuthorizationRequest {
+    @Positive(message = "Amount must be positive")
+    private double amount;
+
+    @NotBlank(message = "PIN cannot be empty")
+    @Size(min = 4, max = 4, message = "PIN must be 4 digits")
+    private String pin;
+
+    private String merchant; // Shown on the posted transaction
+}
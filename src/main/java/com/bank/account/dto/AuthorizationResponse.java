@@ -0,0 +1,17 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuthorizationResponse {
+    private String authorizationId;
+    private String cardNumber;
+    private double amount;
+    private AuthorizationStatus status;
+    private String declineReason;
+    private Double availableLimit; // Credit left for CREDIT cards, daily limit left for DEBIT cards
+    private LocalDateTime holdExpiresAt;
+    private String transactionId; // Set once the hold is captured
+}
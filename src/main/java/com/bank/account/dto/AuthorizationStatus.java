@@ -0,0 +1,9 @@
+package com.bank.account.dto;
+
+public enum AuthorizationStatus {
+    APPROVED,
+    DECLINED,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,7 @@
+package com.bank.account.dto;
+
+// Row returned by AccountRepository.postBalanceDelta: the posted account and its balance after the posting
+public interface BalancePosting {
+    Long getId();
+    double getBalance();
+}
@@ -0,0 +1,6 @@
+package com.bank.account.dto;
+
+public enum BatchJobStatus {
+    RUNNING,
+    COMPLETED
+}
@@ -0,0 +1,17 @@
+package com.bank.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillAccrualView {
+    private LocalDate accrualDate;
+    private double outstandingBefore;
+    private double interestAmount;
+    private double lateFee;
+}
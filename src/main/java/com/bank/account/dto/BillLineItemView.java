@@ -0,0 +1,18 @@
+package com.bank.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillLineItemView {
+    private String transactionId;
+    private LocalDateTime postedAt;
+    private String transactionType;
+    private String description;
+    private double amount;
+}
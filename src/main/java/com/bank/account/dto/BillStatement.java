@@ -0,0 +1,11 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BillStatement {
+    private CreditCardBillView bill;
+    private List<BillLineItemView> lineItems;
+}
@@ -0,0 +1,14 @@
+package com.bank.account.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkEmiOfferRequest {
+    @NotEmpty(message = "Transaction IDs cannot be empty")
+    @Size(max = 1000, message = "At most 1000 transactions per request")
+    private List<Long> transactionIds;
+}
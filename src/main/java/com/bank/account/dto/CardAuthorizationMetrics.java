@@ -0,0 +1,18 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+
+@Data
+public class CardAuthorizationMetrics {
+    private long approved;
+    private long declined;
+    private long captured;
+    private long released;
+    private long expired;
+    private int activeHolds;
+    private long latencySamples;
+    private double p50Micros;
+    private double p90Micros;
+    private double p99Micros;
+    private double maxMicros;
+}
@@ -0,0 +1,13 @@
+package com.bank.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardBillingDay {
+    private Long cardId;
+    private int billGenerationDay;
+}
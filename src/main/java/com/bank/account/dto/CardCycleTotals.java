@@ -0,0 +1,17 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CardCycleTotals {
+    private double charges;
+    private double payments;
+
+    // Used by JPQL constructor expressions, where SUM() yields Double
+    public CardCycleTotals(Double charges, Double payments) {
+        this.charges = charges == null ? 0 : charges;
+        this.payments = payments == null ? 0 : payments;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.Card;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardView {
+    private Long id;
+    private String cardNumber;
+    private CardType cardType;
+    private CardStatus status;
+    private LocalDate issueDate;
+    private LocalDate expiryDate;
+    private double creditLimit;
+    private double currentCreditUsed;
+    private double dailyWithdrawalLimit;
+    private int billGenerationDay;
+    private Long accountId;
+
+    public static CardView from(Card card) {
+        return new CardView(card.getId(), card.getCardNumber(), card.getCardType(), card.getStatus(), card.getIssueDate(),
+                card.getExpiryDate(), card.getCreditLimit(), card.getCurrentCreditUsed(), card.getDailyWithdrawalLimit(),
+                card.getBillGenerationDay(), card.getAccount().getId());
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.CreditCardBill;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditCardBillView {
+    private Long id;
+    private String cardNumber;
+    private LocalDate billingDate;
+    private LocalDate dueDate;
+    private double totalAmountDue;
+    private double minimumAmountDue;
+    private double currentOutstanding;
+    private double accruedInterest;
+    private double lateFeesCharged;
+    private PaymentStatus paymentStatus;
+    @JsonIgnore
+    private long version;
+
+    public static CreditCardBillView from(CreditCardBill bill) {
+        return new CreditCardBillView(bill.getId(), bill.getCard().getCardNumber(), bill.getBillingDate(), bill.getDueDate(),
+                bill.getTotalAmountDue(), bill.getMinimumAmountDue(), bill.getCurrentOutstanding(), bill.getAccruedInterest(),
+                bill.getLateFeesCharged(), bill.getPaymentStatus(), bill.getVersion());
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerView {
+    private Long id;
+    private String name;
+    private LocalDate dob;
+    private String address;
+    private String mobileNumber;
+    private boolean kycCompleted;
+    private boolean active;
+
+    public static CustomerView from(Customer customer) {
+        return new CustomerView(customer.getId(), customer.getName(), customer.getDob(), customer.getAddress(),
+                customer.getMobileNumber(), customer.isKycCompleted(), customer.isActive());
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A purchase that passed the EMI eligibility filter in the query
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiCandidate {
+    private Long transactionId;
+    private double amount;
+}
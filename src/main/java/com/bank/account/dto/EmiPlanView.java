@@ -0,0 +1,35 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.EMIPlan;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiPlanView {
+    private Long id;
+    private Long originalTransactionId;
+    private String cardNumber;
+    private double originalAmount;
+    private int tenureMonths;
+    private double interestRate;
+    private double processingFeePercentage;
+    private double totalPayableAmount;
+    private double monthlyInstallmentAmount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String status;
+    private Integer remainingInstallments;
+    private LocalDate nextDueDate;
+
+    public static EmiPlanView from(EMIPlan plan) {
+        return new EmiPlanView(plan.getId(), plan.getOriginalTransaction().getId(), plan.getCard().getCardNumber(),
+                plan.getOriginalAmount(), plan.getTenureMonths(), plan.getInterestRate(), plan.getProcessingFeePercentage(),
+                plan.getTotalPayableAmount(), plan.getMonthlyInstallmentAmount(), plan.getStartDate(), plan.getEndDate(),
+                plan.getStatus(), plan.getRemainingInstallments(), plan.getNextDueDate());
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiRetryDue {
+    private String accountNumber;
+    private LocalDateTime nextAttemptAt; // Earliest retry pending on the account
+}
@@ -0,0 +1,25 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.EMISchedule;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmiScheduleView {
+    private int installmentNumber;
+    private double principalAmount;
+    private double interestAmount;
+    private double totalInstallmentAmount;
+    private LocalDate dueDate;
+    private String status;
+
+    public static EmiScheduleView from(EMISchedule schedule) {
+        return new EmiScheduleView(schedule.getInstallmentNumber(), schedule.getPrincipalAmount(), schedule.getInterestAmount(),
+                schedule.getTotalInstallmentAmount(), schedule.getDueDate(), schedule.getStatus());
+    }
+}
@@ -0,0 +1,19 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class NeftBatchStats {
+    private String lastBatchId;
+    private LocalDateTime lastBatchStartedAt;
+    private int lastBatchProcessed;
+    private int lastBatchSettled;
+    private int lastBatchReturned;
+    private long lastBatchDurationMillis;
+    private double lastBatchThroughputPerSecond; // Instructions settled or returned per second
+    private long pendingInstructions;
+    private long totalSettled;
+    private long totalReturned;
+}
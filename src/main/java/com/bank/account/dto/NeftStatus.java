@@ -0,0 +1,7 @@
+package com.bank.account.dto;
+
+public enum NeftStatus {
+    PENDING,
+    SETTLED,
+    RETURNED
+}
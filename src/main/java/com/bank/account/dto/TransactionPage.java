@@ -0,0 +1,12 @@
+package com.bank.account.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransactionPage {
+    private List<TransactionView> transactions;
+    private String nextCursor; // Pass back as ?cursor= to fetch the next (older) page; null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,29 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionView {
+    private Long id;
+    private String transactionId;
+    private String accountNumber;
+    private double amount;
+    private String transactionType;
+    private LocalDateTime date;
+    private String description;
+    private boolean emiConverted;
+
+    // The transaction's account must be loaded
+    public static TransactionView from(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getTransactionId(), transaction.getAccount().getAccountNumber(),
+                transaction.getAmount(), transaction.getTransactionType(), transaction.getDate(), transaction.getDescription(),
+                transaction.isEmiConverted());
+    }
+}
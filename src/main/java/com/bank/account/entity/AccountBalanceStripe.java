@@ -0,0 +1,35 @@
+package com.bank.account.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_account_balance_stripe", columnNames = {"account_id", "stripe_index"}))
+public class AccountBalanceStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_stripe_seq")
+    @SequenceGenerator(name = "account_balance_stripe_seq", sequenceName = "account_balance_stripe_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private int stripeIndex;
+
+    @Column(nullable = false)
+    private double balance; // Credits not yet consolidated into Account.balance
+}
@@ -0,0 +1,50 @@
+package com.bank.account.entity;
+
+import com.bank.account.dto.BatchJobStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_batch_job_checkpoint_job_run_date", columnNames = {"job_name", "run_date"}))
+public class BatchJobCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_job_checkpoint_seq")
+    @SequenceGenerator(name = "batch_job_checkpoint_seq", sequenceName = "batch_job_checkpoint_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String jobName; // e.g. EMI_INSTALLMENTS
+
+    @Column(nullable = false)
+    private LocalDate runDate; // Business date the run is processing
+
+    @Column(nullable = false)
+    private long lastProcessedId; // Keyset position: every row with a lower or equal id has been handled
+
+    @Column(nullable = false)
+    private long processedCount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchJobStatus status = BatchJobStatus.RUNNING;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
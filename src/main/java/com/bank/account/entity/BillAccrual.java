@@ -0,0 +1,48 @@
+package com.bank.account.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+// One day's interest (and the one-time late fee) charged on an overdue bill; written by CreditCardAccrualJob
+@Entity
+@Data
+@Immutable
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_bill_accrual_bill_date", columnNames = {"bill_id", "accrual_date"}))
+public class BillAccrual {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_accrual_seq")
+    @SequenceGenerator(name = "bill_accrual_seq", sequenceName = "bill_accrual_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bill_id", nullable = false)
+    private CreditCardBill bill;
+
+    @Column(nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(nullable = false)
+    private double outstandingBefore; // Outstanding the interest was computed on
+
+    @Column(nullable = false)
+    private double interestAmount;
+
+    @Column(nullable = false)
+    private double lateFee;
+}
@@ -0,0 +1,51 @@
+package com.bank.account.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Running charge and payment totals of one card's billing cycle, maintained as card transactions post
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_billing_cycle_accumulator_card_cycle", columnNames = {"card_id", "cycle_end_date"}))
+public class BillingCycleAccumulator {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "billing_cycle_accumulator_seq")
+    @SequenceGenerator(name = "billing_cycle_accumulator_seq", sequenceName = "billing_cycle_accumulator_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "card_id", nullable = false)
+    private Card card;
+
+    @Column(nullable = false)
+    private LocalDate cycleStartDate;
+
+    @Column(nullable = false)
+    private LocalDate cycleEndDate; // The cycle's billing date
+
+    @Column(nullable = false)
+    private double charges;
+
+    @Column(nullable = false)
+    private double payments;
+
+    @Column(nullable = false)
+    private boolean closed; // Set once the cycle's bill has been generated
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -6,23 +6,36 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Data
+@DynamicUpdate
+@EntityListeners(CardStateListener.class)
+@Table(indexes = {
+        @Index(name = "idx_card_bill_generation_day_type_id", columnList = "bill_generation_day, card_type, id"),
+        @Index(name = "idx_card_billing_day_changed_at", columnList = "billing_day_changed_at")
+})
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_seq")
+    @SequenceGenerator(name = "card_seq", sequenceName = "card_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -37,7 +50,8 @@ public class Card {
     private CardStatus status = CardStatus.ACTIVE;
 
     @Column(nullable = false)
-    private String pin; // Hashed PIN
+    @JsonIgnore
+    private String pin; // PBKDF2 hash, see PinHasher
 
     @Column(nullable = false)
     private LocalDate issueDate;
@@ -55,6 +69,8 @@ public class Card {
     @Column(nullable = false)
     private int billGenerationDay = 20; // Default to 20th of every month
 
+    private LocalDateTime billingDayChangedAt; // Set when the card is issued or moved to another bill day; see BillingDayIndex
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     @JsonIgnore
@@ -0,0 +1,35 @@
+package com.bank.account.entity;
+
+import com.bank.account.dto.CardType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.Data;
+
+@Entity
+@Data
+public class CardBinRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_bin_range_seq")
+    @SequenceGenerator(name = "card_bin_range_seq", sequenceName = "card_bin_range_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 6)
+    private String bin; // Issuer identification number, the first 6 digits of every card in the range
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CardType cardType;
+
+    @Column(nullable = false)
+    private long nextSequence; // First account-identifier sequence not yet reserved by any instance
+
+    @Column(nullable = false)
+    private long maxSequence;
+}
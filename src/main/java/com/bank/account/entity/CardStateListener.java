@@ -0,0 +1,25 @@
+package com.bank.account.entity;
+
+import com.bank.account.service.CardStateTable;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Keeps the in-memory authorization table in step with card writes
+@Component
+public class CardStateListener {
+
+    @Autowired
+    @Lazy
+    private CardStateTable cardStateTable;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCardWritten(Card card) {
+        cardStateTable.refreshAfterCommit(card.getId());
+    }
+}
@@ -8,18 +8,26 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 import java.time.LocalDate;
 
 @Entity
 @Data
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_credit_card_bill_card_billing_date", columnNames = {"card_id", "billing_date"}),
+        indexes = @Index(name = "idx_credit_card_bill_status_due_date", columnList = "payment_status, due_date"))
 public class CreditCardBill {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_card_bill_seq")
+    @SequenceGenerator(name = "credit_card_bill_seq", sequenceName = "credit_card_bill_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -41,7 +49,19 @@ public class CreditCardBill {
     @Column(nullable = false)
     private double currentOutstanding;
 
+    // Interest and late fees accrued since the due date, already included in currentOutstanding
+    @Column(nullable = false, columnDefinition = "double precision default 0")
+    private double accruedInterest;
+
+    @Column(nullable = false, columnDefinition = "double precision default 0")
+    private double lateFeesCharged;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PaymentStatus paymentStatus; // PAID, PARTIAL, UNPAID
+
+    // Bumped on every change to the bill, including the accrual job's bulk updates; statement ETags are built from it
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 }
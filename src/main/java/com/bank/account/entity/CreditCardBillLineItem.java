@@ -0,0 +1,62 @@
+package com.bank.account.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Copy of one transaction as it appeared on a bill, written once at bill generation
+@Entity
+@Data
+@NoArgsConstructor
+@Immutable
+@Table(indexes = @Index(name = "idx_credit_card_bill_line_item_bill_id", columnList = "bill_id, posted_at, id"))
+public class CreditCardBillLineItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_card_bill_line_item_seq")
+    @SequenceGenerator(name = "credit_card_bill_line_item_seq", sequenceName = "credit_card_bill_line_item_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bill_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private CreditCardBill bill;
+
+    @Column(nullable = false, updatable = false)
+    private String transactionId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime postedAt;
+
+    @Column(nullable = false, updatable = false)
+    private String transactionType;
+
+    @Column(updatable = false)
+    private String description;
+
+    @Column(nullable = false, updatable = false)
+    private double amount;
+
+    // Used by the JPQL constructor expression that snapshots a cycle's transactions
+    public CreditCardBillLineItem(String transactionId, LocalDateTime postedAt, String transactionType, String description, double amount) {
+        this.transactionId = transactionId;
+        this.postedAt = postedAt;
+        this.transactionType = transactionType;
+        this.description = description;
+        this.amount = amount;
+    }
+}
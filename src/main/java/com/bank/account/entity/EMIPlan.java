@@ -6,10 +6,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -17,10 +20,12 @@ import java.util.List;
 
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_emiplan_status_next_due_date_id", columnList = "status, next_due_date, id"))
 public class EMIPlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emiplan_seq")
+    @SequenceGenerator(name = "emiplan_seq", sequenceName = "emiplan_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -57,6 +62,17 @@ public class EMIPlan {
     @Column(nullable = false)
     private String status; // ACTIVE, COMPLETED, CANCELLED
 
+    private Integer remainingInstallments; // Installments not yet paid; null for plans created before the counter existed
+
+    // Amortization terms the schedule is computed from (see EmiScheduleCalculator); null until a legacy plan is compacted
+    private Double principalAmount; // Original amount plus processing fee
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int installmentCursor; // Installments already fallen due and collected or recorded as exceptions
+
+    private LocalDate nextDueDate; // Due date of installment installmentCursor + 1; null once all have fallen due
+
+    // Only exception rows (OVERDUE) are stored; every other installment is computed
     @OneToMany(mappedBy = "emiPlan", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<EMISchedule> emiSchedule;
 }
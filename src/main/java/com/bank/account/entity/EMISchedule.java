@@ -1,25 +1,32 @@
 package com.bank.account.entity;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.time.LocalDate;
 
+// Exception installments (OVERDUE) of an EMI plan; installments that follow the plan's terms are computed
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_emischedule_status_due_date_id", columnList = "status, due_date, id"))
 public class EMISchedule {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emischedule_seq")
+    @SequenceGenerator(name = "emischedule_seq", sequenceName = "emischedule_seq", allocationSize = 50)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "emi_plan_id", nullable = false)
     private EMIPlan emiPlan;
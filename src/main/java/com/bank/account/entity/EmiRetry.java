@@ -0,0 +1,43 @@
+package com.bank.account.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Pending collection retry of one OVERDUE installment; the row is deleted once the installment is paid
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_emi_retry_account_number", columnList = "account_number"))
+public class EmiRetry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emi_retry_seq")
+    @SequenceGenerator(name = "emi_retry_seq", sequenceName = "emi_retry_seq", allocationSize = 50)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", nullable = false, unique = true)
+    private EMISchedule schedule;
+
+    @Column(nullable = false)
+    private String accountNumber; // Account the installment is debited from; retries are batched per account
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lastAttemptAt;
+}
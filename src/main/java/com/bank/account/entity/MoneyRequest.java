@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 @Entity
@@ -15,7 +16,8 @@ import lombok.Data;
 public class MoneyRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "money_request_seq")
+    @SequenceGenerator(name = "money_request_seq", sequenceName = "money_request_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
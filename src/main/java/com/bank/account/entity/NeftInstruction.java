@@ -0,0 +1,57 @@
+package com.bank.account.entity;
+
+import com.bank.account.dto.NeftStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_neft_instruction_status_id", columnList = "status, id"))
+public class NeftInstruction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "neft_instruction_seq")
+    @SequenceGenerator(name = "neft_instruction_seq", sequenceName = "neft_instruction_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String referenceNumber;
+
+    @Column(nullable = false)
+    private String fromAccountNumber;
+
+    @Column(nullable = false)
+    private String toAccountNumber;
+
+    @Column(nullable = false)
+    private double amount;
+
+    @Column(nullable = false)
+    private double fee; // Charged when queued; kept by the bank if the transfer is returned
+
+    private String remarks;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NeftStatus status = NeftStatus.PENDING;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private String batchId; // Clearing batch that settled or returned this instruction
+
+    private LocalDateTime processedAt;
+
+    private String failureReason;
+}
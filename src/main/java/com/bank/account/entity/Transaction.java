@@ -1,31 +1,53 @@
 package com.bank.account.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@NamedEntityGraph(name = "Transaction.account", attributeNodes = @NamedAttributeNode("account"))
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_date_id", columnList = "account_id, date, id"),
+        @Index(name = "idx_transaction_card_date", columnList = "card_id, date"),
+        @Index(name = "idx_transaction_transaction_id", columnList = "transaction_id", unique = true)
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
-    private String transactionId;
+    private String transactionId; // Time-ordered 13-char id from TransactionIdGenerator (legacy rows hold UUIDs)
 
-    @ManyToOne
+    // Loaded only where needed; queries that return transactions for serialization fetch it via the entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Account account;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "card_id")
+    @JsonIgnore
+    private Card card; // Card the posting was made with; null for plain account transactions
+
     @Column(nullable = false)
     private double amount;
 
@@ -0,0 +1,11 @@
+package com.bank.account.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PinServiceUnavailableException extends RuntimeException {
+    public PinServiceUnavailableException(String message) {
+        super(message);
+    }
+}
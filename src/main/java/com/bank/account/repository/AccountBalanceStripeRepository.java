@@ -0,0 +1,27 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.AccountBalanceStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountBalanceStripeRepository extends JpaRepository<AccountBalanceStripe, Long> {
+
+    // Credits one stripe row; returns 0 if the stripe does not exist or the account is frozen
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccountBalanceStripe s SET s.balance = s.balance + :amount " +
+           "WHERE s.account.id = :accountId AND s.stripeIndex = :stripeIndex " +
+           "AND EXISTS (SELECT a.id FROM Account a WHERE a.id = :accountId AND a.status <> com.bank.account.dto.AccountStatus.FROZEN)")
+    int creditStripe(@Param("accountId") Long accountId, @Param("stripeIndex") int stripeIndex, @Param("amount") double amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceStripe s WHERE s.account.id = :accountId ORDER BY s.stripeIndex")
+    List<AccountBalanceStripe> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+}
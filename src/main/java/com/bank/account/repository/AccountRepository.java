@@ -1,12 +1,54 @@
 package com.bank.account.repository;
 
+import com.bank.account.dto.AccountView;
+import com.bank.account.dto.BalancePosting;
 import com.bank.account.entity.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
+    List<Account> findByBalanceStripesGreaterThan(int balanceStripes);
+
+    @Query("SELECT new com.bank.account.dto.AccountView(a.id, a.accountNumber, a.accountType, a.ifscCode, a.branch, a.balance, a.status, a.balanceStripes, a.customer.id) " +
+           "FROM Account a ORDER BY a.id")
+    List<AccountView> findAllViews();
+
+    @Query("SELECT new com.bank.account.dto.AccountView(a.id, a.accountNumber, a.accountType, a.ifscCode, a.branch, a.balance, a.status, a.balanceStripes, a.customer.id) " +
+           "FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<AccountView> findViewByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT new com.bank.account.dto.AccountView(a.id, a.accountNumber, a.accountType, a.ifscCode, a.branch, a.balance, a.status, a.balanceStripes, a.customer.id) " +
+           "FROM Account a WHERE a.customer.id = :customerId ORDER BY a.id")
+    List<AccountView> findViewsByCustomerId(@Param("customerId") Long customerId);
+
+    // Main row plus striped credits in one statement; the stripe sum is a range scan on uk_account_balance_stripe
+    @Query("SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountBalanceStripe s WHERE s.account = a), 0) " +
+           "FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Double> findTotalBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Applies a balance posting in one guarded statement; returns 0 if the account is missing, frozen or would go negative
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta " +
+           "WHERE a.accountNumber = :accountNumber AND a.status <> com.bank.account.dto.AccountStatus.FROZEN AND a.balance + :delta >= 0")
+    int applyBalanceDelta(@Param("accountNumber") String accountNumber, @Param("delta") double delta);
+
+    // Same guarded posting, returning the new balance in the same round trip; empty if the guard rejected it.
+    // Not @Modifying: RETURNING produces a result set, which executeUpdate rejects. The query space limits the
+    // auto-flush to pending account changes, so queued inserts of other tables stay in one JDBC batch.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "account"))
+    @Query(value = "UPDATE account SET balance = balance + :delta " +
+                   "WHERE account_number = :accountNumber AND status <> 'FROZEN' AND balance + :delta >= 0 " +
+                   "RETURNING id, balance", nativeQuery = true)
+    Optional<BalancePosting> postBalanceDelta(@Param("accountNumber") String accountNumber, @Param("delta") double delta);
 }
@@ -0,0 +1,16 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.BatchJobStatus;
+import com.bank.account.entity.BatchJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, Long> {
+    Optional<BatchJobCheckpoint> findByJobNameAndRunDate(String jobName, LocalDate runDate);
+    List<BatchJobCheckpoint> findByJobNameAndStatusOrderByRunDateAsc(String jobName, BatchJobStatus status);
+}
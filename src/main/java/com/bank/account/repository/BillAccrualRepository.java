@@ -0,0 +1,17 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.BillAccrualView;
+import com.bank.account.entity.BillAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BillAccrualRepository extends JpaRepository<BillAccrual, Long> {
+    @Query("SELECT new com.bank.account.dto.BillAccrualView(a.accrualDate, a.outstandingBefore, a.interestAmount, a.lateFee) " +
+           "FROM BillAccrual a WHERE a.bill.id = :billId ORDER BY a.accrualDate")
+    List<BillAccrualView> findViewsByBillId(@Param("billId") Long billId);
+}
@@ -0,0 +1,50 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.BillingCycleAccumulator;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BillingCycleAccumulatorRepository extends JpaRepository<BillingCycleAccumulator, Long> {
+
+    Optional<BillingCycleAccumulator> findByCard_IdAndCycleEndDate(Long cardId, LocalDate cycleEndDate);
+
+    List<BillingCycleAccumulator> findByCycleEndDateGreaterThanEqualAndClosedFalseAndIdGreaterThanOrderByIdAsc(LocalDate cycleEndDate, Long id, Limit limit);
+
+    // Creates the cycle row on its first posting and adds to it afterwards, in one statement; returns 0 if the cycle is closed
+    @Modifying
+    @Query(value = "INSERT INTO billing_cycle_accumulator (id, card_id, cycle_start_date, cycle_end_date, charges, payments, closed, updated_at) " +
+                   "VALUES (nextval('billing_cycle_accumulator_seq'), :cardId, :cycleStartDate, :cycleEndDate, :charges, :payments, false, now()) " +
+                   "ON CONFLICT (card_id, cycle_end_date) DO UPDATE SET " +
+                   "charges = billing_cycle_accumulator.charges + EXCLUDED.charges, " +
+                   "payments = billing_cycle_accumulator.payments + EXCLUDED.payments, " +
+                   "updated_at = EXCLUDED.updated_at " +
+                   "WHERE NOT billing_cycle_accumulator.closed", nativeQuery = true)
+    int addToCycle(@Param("cardId") Long cardId,
+                   @Param("cycleStartDate") LocalDate cycleStartDate,
+                   @Param("cycleEndDate") LocalDate cycleEndDate,
+                   @Param("charges") double charges,
+                   @Param("payments") double payments);
+
+    @Modifying
+    @Query("UPDATE BillingCycleAccumulator a SET a.closed = true WHERE a.card.id = :cardId AND a.cycleEndDate = :cycleEndDate")
+    int closeCycle(@Param("cardId") Long cardId, @Param("cycleEndDate") LocalDate cycleEndDate);
+
+    // Reconciliation fix-up; skipped if a posting changed the row or its bill was generated after it was checked
+    @Modifying
+    @Query("UPDATE BillingCycleAccumulator a SET a.charges = :charges, a.payments = :payments, a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.id = :id AND a.closed = false AND a.charges = :seenCharges AND a.payments = :seenPayments")
+    int correctTotals(@Param("id") Long id,
+                      @Param("seenCharges") double seenCharges,
+                      @Param("seenPayments") double seenPayments,
+                      @Param("charges") double charges,
+                      @Param("payments") double payments);
+}
@@ -0,0 +1,35 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.CardBinRange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CardBinRangeRepository extends JpaRepository<CardBinRange, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM CardBinRange r WHERE r.bin = :bin")
+    Optional<CardBinRange> findByBinForUpdate(@Param("bin") String bin);
+
+    // Creates the range row unless another instance already has; callers then lock whichever row won
+    @Modifying
+    @Query(value = "INSERT INTO card_bin_range (id, bin, card_type, next_sequence, max_sequence) " +
+                   "VALUES (nextval('card_bin_range_seq'), :bin, :cardType, :nextSequence, :maxSequence) " +
+                   "ON CONFLICT (bin) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("bin") String bin,
+                       @Param("cardType") String cardType,
+                       @Param("nextSequence") long nextSequence,
+                       @Param("maxSequence") long maxSequence);
+
+    // Highest account-identifier already used under the BIN by cards issued before ranges existed
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(card_number, 7, 9) AS BIGINT)), -1) FROM card " +
+                   "WHERE card_number LIKE CONCAT(:bin, '%') AND LENGTH(card_number) = 16", nativeQuery = true)
+    long findMaxLegacySequence(@Param("bin") String bin);
+}
@@ -1,13 +1,77 @@
 package com.bank.account.repository;
 
+import com.bank.account.dto.CardBillingDay;
+import com.bank.account.dto.CardView;
 import com.bank.account.entity.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
     Optional<Card> findByCardNumber(String cardNumber);
-    boolean existsByCardNumber(String cardNumber);
+
+    @Query("SELECT new com.bank.account.dto.CardView(c.id, c.cardNumber, c.cardType, c.status, c.issueDate, c.expiryDate, c.creditLimit, " +
+           "c.currentCreditUsed, c.dailyWithdrawalLimit, c.billGenerationDay, c.account.id) " +
+           "FROM Card c WHERE c.cardNumber = :cardNumber")
+    Optional<CardView> findViewByCardNumber(@Param("cardNumber") String cardNumber);
+
+    @Query("SELECT new com.bank.account.dto.CardView(c.id, c.cardNumber, c.cardType, c.status, c.issueDate, c.expiryDate, c.creditLimit, " +
+           "c.currentCreditUsed, c.dailyWithdrawalLimit, c.billGenerationDay, c.account.id) " +
+           "FROM Card c WHERE c.account.accountNumber = :accountNumber ORDER BY c.id")
+    List<CardView> findViewsByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c FROM Card c")
+    Stream<Card> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT new com.bank.account.dto.CardBillingDay(c.id, c.billGenerationDay) FROM Card c " +
+           "WHERE c.cardType = com.bank.account.dto.CardType.CREDIT")
+    Stream<CardBillingDay> streamCreditCardBillingDays();
+
+    // Cards issued or moved to another bill day after :since, over idx_card_billing_day_changed_at; non-credit cards come back as day 0
+    @Query("SELECT new com.bank.account.dto.CardBillingDay(c.id, " +
+           "CASE WHEN c.cardType = com.bank.account.dto.CardType.CREDIT THEN c.billGenerationDay ELSE 0 END) " +
+           "FROM Card c WHERE c.billingDayChangedAt > :since")
+    List<CardBillingDay> findBillingDayChangesSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT c.id FROM Card c WHERE c.cardType = com.bank.account.dto.CardType.CREDIT " +
+           "AND c.billGenerationDay IN :days AND c.id > :afterId ORDER BY c.id")
+    List<Long> findCreditCardIdsByBillGenerationDay(@Param("days") Collection<Integer> days, @Param("afterId") long afterId, Limit limit);
+
+    // Credit cards on any of the customer's accounts, without loading the accounts or their card collections
+    @Query("SELECT c FROM Card c WHERE c.account.customer.id = :customerId " +
+           "AND c.cardType = com.bank.account.dto.CardType.CREDIT ORDER BY c.id")
+    List<Card> findCreditCardsForCustomer(@Param("customerId") Long customerId, Limit limit);
+
+    List<Card> findByIdGreaterThanAndPinNotLikeOrderByIdAsc(Long id, String pinPattern, Limit limit);
+
+    // Only replaces the PIN if nobody changed it since it was read
+    @Modifying
+    @Query("UPDATE Card c SET c.pin = :newPin WHERE c.id = :cardId AND c.pin = :oldPin")
+    int replacePin(@Param("cardId") Long cardId, @Param("oldPin") String oldPin, @Param("newPin") String newPin);
+
+    // Guarded like the account postings: returns 0 instead of taking the card over its limit
+    @Modifying
+    @Query("UPDATE Card c SET c.currentCreditUsed = c.currentCreditUsed + :amount " +
+           "WHERE c.id = :cardId AND c.currentCreditUsed + :amount <= c.creditLimit")
+    int addCreditUsed(@Param("cardId") Long cardId, @Param("amount") double amount);
+
+    // Payments may take an over-limit card (interest, fees) back under its limit, so they are not guarded
+    @Modifying
+    @Query("UPDATE Card c SET c.currentCreditUsed = c.currentCreditUsed - :amount WHERE c.id = :cardId")
+    int reduceCreditUsed(@Param("cardId") Long cardId, @Param("amount") double amount);
 }
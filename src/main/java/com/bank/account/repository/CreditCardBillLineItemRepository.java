@@ -0,0 +1,17 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.BillLineItemView;
+import com.bank.account.entity.CreditCardBillLineItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CreditCardBillLineItemRepository extends JpaRepository<CreditCardBillLineItem, Long> {
+    @Query("SELECT new com.bank.account.dto.BillLineItemView(i.transactionId, i.postedAt, i.transactionType, i.description, i.amount) " +
+           "FROM CreditCardBillLineItem i WHERE i.bill.id = :billId ORDER BY i.postedAt, i.id")
+    List<BillLineItemView> findViewsByBillId(@Param("billId") Long billId);
+}
@@ -1,17 +1,39 @@
 package com.bank.account.repository;
 
+import com.bank.account.dto.CreditCardBillView;
 import com.bank.account.dto.PaymentStatus;
 import com.bank.account.entity.CreditCardBill;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CreditCardBillRepository extends JpaRepository<CreditCardBill, Long> {
     Optional<CreditCardBill> findByCard_CardNumberAndBillingDate(String cardNumber, LocalDate billingDate);
-    List<CreditCardBill> findByCard_CardNumberOrderByBillingDateDesc(String cardNumber);
-    Optional<CreditCardBill> findTopByCard_CardNumberAndPaymentStatusNotOrderByBillingDateDesc(String cardNumber, PaymentStatus paymentStatus);
+
+    @Query("SELECT new com.bank.account.dto.CreditCardBillView(b.id, c.cardNumber, b.billingDate, b.dueDate, b.totalAmountDue, b.minimumAmountDue, " +
+           "b.currentOutstanding, b.accruedInterest, b.lateFeesCharged, b.paymentStatus, b.version) " +
+           "FROM CreditCardBill b JOIN b.card c WHERE b.id = :id")
+    Optional<CreditCardBillView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new com.bank.account.dto.CreditCardBillView(b.id, c.cardNumber, b.billingDate, b.dueDate, b.totalAmountDue, b.minimumAmountDue, " +
+           "b.currentOutstanding, b.accruedInterest, b.lateFeesCharged, b.paymentStatus, b.version) " +
+           "FROM CreditCardBill b JOIN b.card c WHERE c.cardNumber = :cardNumber ORDER BY b.billingDate DESC")
+    List<CreditCardBillView> findViewsByCardNumber(@Param("cardNumber") String cardNumber);
+
+    // Locks the bill being paid so concurrent payments apply one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CreditCardBill> findFirstByCard_IdAndPaymentStatusNotOrderByBillingDateDesc(Long cardId, PaymentStatus paymentStatus);
+
+    @Query("SELECT b.card.id FROM CreditCardBill b WHERE b.billingDate = :billingDate AND b.card.id IN :cardIds")
+    Set<Long> findBilledCardIds(@Param("billingDate") LocalDate billingDate, @Param("cardIds") Collection<Long> cardIds);
 }
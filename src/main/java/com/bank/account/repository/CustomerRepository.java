@@ -1,12 +1,24 @@
 package com.bank.account.repository;
 
+import com.bank.account.dto.CustomerView;
 import com.bank.account.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByActive(boolean active);
+
+    @Query("SELECT new com.bank.account.dto.CustomerView(c.id, c.name, c.dob, c.address, c.mobileNumber, c.kycCompleted, c.active) " +
+           "FROM Customer c WHERE c.id = :id AND c.active = true")
+    Optional<CustomerView> findActiveViewById(@Param("id") Long id);
+
+    @Query("SELECT new com.bank.account.dto.CustomerView(c.id, c.name, c.dob, c.address, c.mobileNumber, c.kycCompleted, c.active) " +
+           "FROM Customer c WHERE c.active = true ORDER BY c.id")
+    List<CustomerView> findActiveViews();
 }
@@ -1,14 +1,39 @@
 package com.bank.account.repository;
 
+import com.bank.account.dto.EmiPlanView;
 import com.bank.account.entity.EMIPlan;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EMIPlanRepository extends JpaRepository<EMIPlan, Long> {
     Optional<EMIPlan> findByOriginalTransaction_Id(Long transactionId);
+
+    @Query("SELECT new com.bank.account.dto.EmiPlanView(p.id, p.originalTransaction.id, c.cardNumber, p.originalAmount, p.tenureMonths, " +
+           "p.interestRate, p.processingFeePercentage, p.totalPayableAmount, p.monthlyInstallmentAmount, p.startDate, p.endDate, " +
+           "p.status, p.remainingInstallments, p.nextDueDate) FROM EMIPlan p JOIN p.card c WHERE p.id = :id")
+    Optional<EmiPlanView> findViewById(@Param("id") Long id);
+
     List<EMIPlan> findByCard_CardNumber(String cardNumber);
+
+    // Next keyset chunk of plans with an installment due, served from idx_emiplan_status_next_due_date_id
+    @Query("SELECT p.id FROM EMIPlan p WHERE p.status = 'ACTIVE' AND p.nextDueDate <= :date AND p.id > :afterId ORDER BY p.id")
+    List<Long> findDuePlanIds(@Param("date") LocalDate date, @Param("afterId") long afterId, Limit limit);
+
+    // Ordered by debit account: chunks running in parallel then lock shared account rows in the same order
+    @Query("SELECT p FROM EMIPlan p JOIN FETCH p.originalTransaction JOIN FETCH p.card c JOIN FETCH c.account a " +
+           "WHERE p.id IN :ids ORDER BY a.accountNumber, p.id")
+    List<EMIPlan> findWithAccountByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Plans created while every installment was stored as a schedule row
+    @Query("SELECT p.id FROM EMIPlan p WHERE p.principalAmount IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<Long> findUncompactedPlanIds(@Param("afterId") long afterId, Limit limit);
 }
@@ -2,12 +2,22 @@ package com.bank.account.repository;
 
 import com.bank.account.entity.EMISchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EMIScheduleRepository extends JpaRepository<EMISchedule, Long> {
     List<EMISchedule> findByEmiPlan_IdOrderByInstallmentNumberAsc(Long emiPlanId);
     List<EMISchedule> findByEmiPlan_Card_CardNumberAndStatus(String cardNumber, String status);
+    List<EMISchedule> findByEmiPlan_IdIn(Collection<Long> emiPlanIds);
+
+    // Drops the rows a compacted plan can compute; exception rows stay
+    @Modifying
+    @Query("DELETE FROM EMISchedule s WHERE s.emiPlan.id IN :planIds AND s.status <> 'OVERDUE'")
+    int deleteComputedRows(@Param("planIds") Collection<Long> planIds);
 }
@@ -0,0 +1,37 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.EmiRetryDue;
+import com.bank.account.entity.EmiRetry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmiRetryRepository extends JpaRepository<EmiRetry, Long> {
+
+    // Locks the account's retries so two instances never collect the same installment
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM EmiRetry r JOIN FETCH r.schedule s JOIN FETCH s.emiPlan " +
+           "WHERE r.accountNumber = :accountNumber ORDER BY s.dueDate, r.id")
+    List<EmiRetry> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT new com.bank.account.dto.EmiRetryDue(r.accountNumber, MIN(r.nextAttemptAt)) FROM EmiRetry r GROUP BY r.accountNumber")
+    List<EmiRetryDue> findNextAttemptPerAccount();
+
+    // Installments that went OVERDUE before retries existed
+    @Modifying
+    @Query(value = "INSERT INTO emi_retry (id, schedule_id, account_number, attempts, next_attempt_at) " +
+                   "SELECT nextval('emi_retry_seq'), s.id, a.account_number, 0, :nextAttemptAt " +
+                   "FROM emischedule s JOIN emiplan p ON p.id = s.emi_plan_id JOIN card c ON c.id = p.card_id " +
+                   "JOIN account a ON a.id = c.account_id " +
+                   "WHERE s.status = 'OVERDUE' AND NOT EXISTS (SELECT 1 FROM emi_retry r WHERE r.schedule_id = s.id)",
+           nativeQuery = true)
+    int backfillOverdueInstallments(@Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -0,0 +1,33 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.NeftStatus;
+import com.bank.account.entity.NeftInstruction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NeftInstructionRepository extends JpaRepository<NeftInstruction, Long> {
+    Optional<NeftInstruction> findByReferenceNumber(String referenceNumber);
+
+    List<NeftInstruction> findByStatusAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(NeftStatus status, LocalDateTime cutoff, Long afterId, Limit limit);
+
+    long countByStatus(NeftStatus status);
+
+    // Claims a PENDING instruction for a clearing batch; returns 0 if another batch already processed it
+    @Modifying
+    @Query("UPDATE NeftInstruction n SET n.status = :status, n.batchId = :batchId, n.processedAt = :processedAt, n.failureReason = :failureReason " +
+           "WHERE n.id = :id AND n.status = com.bank.account.dto.NeftStatus.PENDING")
+    int markProcessed(@Param("id") Long id,
+                      @Param("status") NeftStatus status,
+                      @Param("batchId") String batchId,
+                      @Param("processedAt") LocalDateTime processedAt,
+                      @Param("failureReason") String failureReason);
+}
@@ -1,12 +1,124 @@
 package com.bank.account.repository;
 
+import com.bank.account.dto.CardCycleTotals;
+import com.bank.account.dto.CardSpendTotal;
+import com.bank.account.dto.EmiCandidate;
+import com.bank.account.dto.TransactionView;
+import com.bank.account.entity.CreditCardBillLineItem;
 import com.bank.account.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccount_AccountNumber(String accountNumber);
+    @EntityGraph("Transaction.account")
+    Optional<Transaction> findWithAccountById(Long id);
+
+    // Read views: only the columns the API returns, with the account number joined in.
+    // Keyset page over the primary key, newest first, strictly below the :beforeId cursor.
+    @Query("SELECT new com.bank.account.dto.TransactionView(t.id, t.transactionId, a.accountNumber, t.amount, t.transactionType, t.date, t.description, t.isEmiConverted) " +
+           "FROM Transaction t JOIN t.account a WHERE t.id < :beforeId ORDER BY t.id DESC")
+    List<TransactionView> findPageBeforeId(@Param("beforeId") long beforeId, Limit limit);
+
+    @Query("SELECT new com.bank.account.dto.TransactionView(t.id, t.transactionId, a.accountNumber, t.amount, t.transactionType, t.date, t.description, t.isEmiConverted) " +
+           "FROM Transaction t JOIN t.account a WHERE t.id = :id")
+    Optional<TransactionView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new com.bank.account.dto.TransactionView(t.id, t.transactionId, a.accountNumber, t.amount, t.transactionType, t.date, t.description, t.isEmiConverted) " +
+           "FROM Transaction t JOIN t.account a WHERE t.card.id = :cardId ORDER BY t.date DESC, t.id DESC")
+    List<TransactionView> findViewsByCardId(@Param("cardId") Long cardId);
+
+    @Query("SELECT new com.bank.account.dto.TransactionView(t.id, t.transactionId, a.accountNumber, t.amount, t.transactionType, t.date, t.description, t.isEmiConverted) " +
+           "FROM Transaction t JOIN t.account a WHERE t.card.id = :cardId AND t.date >= :from AND t.date < :to " +
+           "ORDER BY t.date, t.id")
+    List<TransactionView> findViewsByCardId(@Param("cardId") Long cardId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Charges and payments of one card over [from, to) in a single pass over idx_transaction_card_date
+    // Statement snapshot: a card's cycle transactions projected straight into unsaved line items
+    @Query("SELECT new com.bank.account.entity.CreditCardBillLineItem(t.transactionId, t.date, t.transactionType, t.description, t.amount) " +
+           "FROM Transaction t WHERE t.card.id = :cardId AND t.date >= :from AND t.date < :to AND t.transactionType IN :types " +
+           "ORDER BY t.date, t.id")
+    List<CreditCardBillLineItem> findStatementLines(@Param("cardId") Long cardId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to,
+                                                    @Param("types") Collection<String> types);
+
+    @Query("SELECT new com.bank.account.dto.CardSpendTotal(t.card.id, SUM(t.amount)) FROM Transaction t " +
+           "WHERE t.card IS NOT NULL AND t.transactionType IN :types AND t.date >= :from GROUP BY t.card.id")
+    List<CardSpendTotal> sumCardSpendSince(@Param("from") LocalDateTime from, @Param("types") Collection<String> types);
+
+    @Query("SELECT new com.bank.account.dto.CardCycleTotals(" +
+           "SUM(CASE WHEN t.transactionType IN :chargeTypes THEN t.amount ELSE 0.0 END), " +
+           "SUM(CASE WHEN t.transactionType IN :paymentTypes THEN t.amount ELSE 0.0 END)) " +
+           "FROM Transaction t WHERE t.card.id = :cardId AND t.date >= :from AND t.date < :to")
+    CardCycleTotals sumCardCycle(@Param("cardId") Long cardId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("chargeTypes") Collection<String> chargeTypes,
+                                 @Param("paymentTypes") Collection<String> paymentTypes);
+
+    // EMI eligibility is decided here so ineligible purchases are never loaded
+    @Query("SELECT new com.bank.account.dto.EmiCandidate(t.id, t.amount) FROM Transaction t " +
+           "WHERE t.card.id = :cardId AND t.transactionType IN :types AND t.isEmiConverted = false AND t.amount >= :minAmount " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<EmiCandidate> findEmiCandidatesByCard(@Param("cardId") Long cardId,
+                                               @Param("types") Collection<String> types,
+                                               @Param("minAmount") double minAmount);
+
+    @Query("SELECT new com.bank.account.dto.EmiCandidate(t.id, t.amount) FROM Transaction t " +
+           "WHERE t.id IN :ids AND t.transactionType IN :types AND t.isEmiConverted = false AND t.amount >= :minAmount ORDER BY t.id")
+    List<EmiCandidate> findEmiCandidatesByIdIn(@Param("ids") Collection<Long> ids,
+                                               @Param("types") Collection<String> types,
+                                               @Param("minAmount") double minAmount);
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Transaction t")
+    long findMaxId();
+
+    // Backfills card_id for legacy rows that referenced the card only in their description
+    @Modifying
+    @Query(value = "UPDATE transaction t SET card_id = c.id FROM card c " +
+                   "WHERE t.id > :fromId AND t.id <= :toId AND t.card_id IS NULL " +
+                   "AND c.account_id = t.account_id AND t.description LIKE '%' || c.card_number || '%'",
+           nativeQuery = true)
+    int backfillCardIds(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Keyset page over idx_transaction_account_date_id, newest first, strictly after the (beforeDate, beforeId) cursor.
+    // The OR alone is not sargable; the redundant t.date <= :beforeDate gives the planner the upper index bound.
+    @Query("SELECT new com.bank.account.dto.TransactionView(t.id, t.transactionId, a.accountNumber, t.amount, t.transactionType, t.date, t.description, t.isEmiConverted) " +
+           "FROM Transaction t JOIN t.account a WHERE a.id = :accountId AND t.date >= :from AND t.date <= :beforeDate " +
+           "AND (t.date < :beforeDate OR (t.date = :beforeDate AND t.id < :beforeId)) " +
+           "ORDER BY t.date DESC, t.id DESC")
+    List<TransactionView> findPageByAccountId(@Param("accountId") Long accountId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("beforeDate") LocalDateTime beforeDate,
+                                              @Param("beforeId") Long beforeId,
+                                              Limit limit);
+
+    // Server-side cursor for exports: rows are fetched in fetch-size chunks and projected straight to DTOs,
+    // so nothing accumulates in the persistence context. Must be consumed inside a read-only transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.bank.account.dto.TransactionView(t.id, t.transactionId, a.accountNumber, t.amount, t.transactionType, t.date, t.description, t.isEmiConverted) " +
+           "FROM Transaction t JOIN t.account a " +
+           "WHERE (:accountNumber IS NULL OR a.accountNumber = :accountNumber) " +
+           "AND t.date >= :from AND t.date < :to " +
+           "AND (:transactionType IS NULL OR t.transactionType = :transactionType) " +
+           "ORDER BY t.id")
+    Stream<TransactionView> streamForExport(@Param("accountNumber") String accountNumber,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("transactionType") String transactionType);
 }
@@ -0,0 +1,5 @@
+package com.bank.account.service;
+
+// Published when money lands in an account; delivered to transactional listeners once the credit commits
+public record AccountCreditedEvent(String accountNumber, double amount) {
+}
@@ -2,9 +2,13 @@ package com.bank.account.service;
 
 import com.bank.account.dto.AccountCreationRequest;
 import com.bank.account.dto.AccountStatus;
+import com.bank.account.dto.AccountView;
 import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Transaction;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountService {
 
@@ -12,7 +16,11 @@ public interface AccountService {
 
     Account getAccountDetails(String accountNumber);
 
-    List<Account> getAllAccounts();
+    AccountView getAccountView(String accountNumber); // Read model for the API; loads no associations
+
+    List<AccountView> getAllAccounts();
+
+    List<AccountView> getAccountsForCustomer(Long customerId);
 
     Account updateAccount(String accountNumber, Account accountDetails);
 
@@ -23,4 +31,25 @@ public interface AccountService {
     Account deposit(String accountNumber, double amount);
 
     Account withdraw(String accountNumber, double amount);
+
+    // Credits the account (on a stripe if it is hot) and records a transaction of the given type
+    Transaction credit(String accountNumber, double amount, String transactionType, String description);
+
+    // Debits the account and records a transaction of the given type; throws like withdraw when it cannot
+    Transaction debit(String accountNumber, double amount, String transactionType, String description);
+
+    // Same, for a posting made with a card: the transaction is linked to it in its INSERT
+    Transaction debit(String accountNumber, double amount, String transactionType, String description, Card card);
+
+    /**
+     * Debits the account and records the transaction, or returns empty when the account is missing,
+     * frozen or short of funds. Unlike {@link #withdraw} a declined debit does not mark the caller's
+     * transaction rollback-only, so batch jobs can record the failure in the same transaction.
+     */
+    Optional<Transaction> tryWithdraw(String accountNumber, double amount, String transactionType, String description);
+
+    // Same, for a posting made with a card: the transaction is linked to it in its INSERT
+    Optional<Transaction> tryWithdraw(String accountNumber, double amount, String transactionType, String description, Card card);
+
+    Account configureBalanceStripes(String accountNumber, int stripes);
 }
@@ -2,35 +2,63 @@ package com.bank.account.service;
 
 import com.bank.account.dto.AccountCreationRequest;
 import com.bank.account.dto.AccountStatus;
+import com.bank.account.dto.AccountView;
+import com.bank.account.dto.BalancePosting;
 import com.bank.account.entity.Account;
+import com.bank.account.entity.AccountBalanceStripe;
+import com.bank.account.entity.Card;
 import com.bank.account.entity.Customer;
 import com.bank.account.entity.Transaction;
 import com.bank.account.exception.AccountFrozenException;
 import com.bank.account.exception.InsufficientFundsException;
+import com.bank.account.exception.InvalidInputException;
 import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.AccountBalanceStripeRepository;
 import com.bank.account.repository.AccountRepository;
 import com.bank.account.repository.CustomerRepository;
 import com.bank.account.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
+    private static final int MAX_BALANCE_STRIPES = 64;
+
     @Autowired
     private AccountRepository accountRepository;
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private AccountBalanceStripeRepository accountBalanceStripeRepository;
+
+    @Autowired
+    private HotAccountRegistry hotAccountRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public Account createAccount(AccountCreationRequest request) {
         Customer customer = customerRepository.findById(request.getCustomerId())
@@ -52,8 +80,19 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+    public AccountView getAccountView(String accountNumber) {
+        return accountRepository.findViewByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with number: " + accountNumber));
+    }
+
+    @Override
+    public List<AccountView> getAllAccounts() {
+        return accountRepository.findAllViews();
+    }
+
+    @Override
+    public List<AccountView> getAccountsForCustomer(Long customerId) {
+        return accountRepository.findViewsByCustomerId(customerId);
     }
 
     @Override
@@ -74,48 +113,158 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public double getBalance(String accountNumber) {
-        return getAccountDetails(accountNumber).getBalance();
+        return accountRepository.findTotalBalanceByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with number: " + accountNumber));
     }
 
     @Override
     @Transactional
     public Account deposit(String accountNumber, double amount) {
-        Account account = getAccountDetails(accountNumber);
-        checkIfFrozen(account);
-        account.setBalance(account.getBalance() + amount);
+        return credit(accountNumber, amount, "DEPOSIT", "Deposit of " + amount).getAccount();
+    }
 
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(UUID.randomUUID().toString());
-        transaction.setAccount(account);
-        transaction.setAmount(amount);
-        transaction.setTransactionType("DEPOSIT");
-        transaction.setDate(LocalDateTime.now());
-        transaction.setDescription("Deposit of " + amount);
-        transactionRepository.save(transaction);
+    @Override
+    @Transactional
+    public Account withdraw(String accountNumber, double amount) {
+        return debit(accountNumber, amount, "WITHDRAWAL", "Withdrawal of " + amount).getAccount();
+    }
 
-        return accountRepository.save(account);
+    @Override
+    @Transactional
+    public Transaction credit(String accountNumber, double amount, String transactionType, String description) {
+        Transaction transaction = record(postCredit(accountNumber, amount), amount, transactionType, description, null);
+        eventPublisher.publishEvent(new AccountCreditedEvent(accountNumber, amount));
+        return transaction;
     }
 
     @Override
     @Transactional
-    public Account withdraw(String accountNumber, double amount) {
+    public Transaction debit(String accountNumber, double amount, String transactionType, String description) {
+        return debit(accountNumber, amount, transactionType, description, null);
+    }
+
+    @Override
+    @Transactional
+    public Transaction debit(String accountNumber, double amount, String transactionType, String description, Card card) {
+        return record(postBalanceDelta(accountNumber, -amount), amount, transactionType, description, card);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Transaction> tryWithdraw(String accountNumber, double amount, String transactionType, String description) {
+        return tryWithdraw(accountNumber, amount, transactionType, description, null);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Transaction> tryWithdraw(String accountNumber, double amount, String transactionType, String description, Card card) {
+        try {
+            // Self-call, so the exceptions below never cross a transactional proxy
+            return Optional.of(debit(accountNumber, amount, transactionType, description, card));
+        } catch (ResourceNotFoundException | AccountFrozenException | InsufficientFundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @Transactional
+    public Account configureBalanceStripes(String accountNumber, int stripes) {
+        if (stripes < 0 || stripes > MAX_BALANCE_STRIPES) {
+            throw new InvalidInputException("Balance stripes must be between 0 and " + MAX_BALANCE_STRIPES + ".");
+        }
         Account account = getAccountDetails(accountNumber);
-        checkIfFrozen(account);
-        if (account.getBalance() < amount) {
-            throw new InsufficientFundsException("Insufficient funds in account: " + accountNumber);
+
+        // Fold any striped credits back into the main balance before re-striping
+        List<AccountBalanceStripe> existing = accountBalanceStripeRepository.findByAccountIdForUpdate(account.getId());
+        double swept = existing.stream().mapToDouble(AccountBalanceStripe::getBalance).sum();
+        accountBalanceStripeRepository.deleteAllInBatch(existing);
+        if (swept != 0) {
+            if (accountRepository.applyBalanceDelta(accountNumber, swept) == 0) {
+                throw new AccountFrozenException("Account is frozen: " + accountNumber);
+            }
+            entityManager.refresh(account);
         }
-        account.setBalance(account.getBalance() - amount);
 
+        List<AccountBalanceStripe> created = new ArrayList<>();
+        for (int i = 0; i < stripes; i++) {
+            AccountBalanceStripe stripe = new AccountBalanceStripe();
+            stripe.setAccount(account);
+            stripe.setStripeIndex(i);
+            stripe.setBalance(0);
+            created.add(stripe);
+        }
+        accountBalanceStripeRepository.saveAll(created);
+
+        account.setBalanceStripes(stripes);
+        Account saved = accountRepository.save(account);
+        hotAccountRegistry.register(saved);
+        return saved;
+    }
+
+    private Transaction record(Account account, double amount, String transactionType, String description, Card card) {
         Transaction transaction = new Transaction();
-        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setTransactionId(transactionIdGenerator.nextId());
         transaction.setAccount(account);
+        transaction.setCard(card);
         transaction.setAmount(amount);
-        transaction.setTransactionType("WITHDRAWAL");
+        transaction.setTransactionType(transactionType);
         transaction.setDate(LocalDateTime.now());
-        transaction.setDescription("Withdrawal of " + amount);
-        transactionRepository.save(transaction);
+        transaction.setDescription(description);
+        return transactionRepository.save(transaction);
+    }
 
-        return accountRepository.save(account);
+    // Hot accounts take credits on a random stripe row so concurrent credits do not queue on one row lock
+    private Account postCredit(String accountNumber, double amount) {
+        HotAccountRegistry.HotAccount hot = hotAccountRegistry.get(accountNumber);
+        if (hot != null) {
+            int stripe = ThreadLocalRandom.current().nextInt(hot.stripes());
+            if (accountBalanceStripeRepository.creditStripe(hot.accountId(), stripe, amount) == 1) {
+                return getAccountDetails(accountNumber);
+            }
+            // Stripe missing (account re-configured) or account frozen: fall through to the main row
+        }
+        return postBalanceDelta(accountNumber, amount);
+    }
+
+    // Posts the delta with a single guarded UPDATE so concurrent postings cannot overwrite each other
+    private Account postBalanceDelta(String accountNumber, double delta) {
+        Optional<BalancePosting> posted = accountRepository.postBalanceDelta(accountNumber, delta);
+        if (posted.isEmpty()) {
+            Account account = getAccountDetails(accountNumber);
+            checkIfFrozen(account);
+            // Debits against a hot account may need the striped credits swept into the main row first
+            if (delta < 0 && account.getBalanceStripes() > 0 && consolidateStripes(account) > 0) {
+                posted = accountRepository.postBalanceDelta(accountNumber, delta);
+            }
+            if (posted.isEmpty()) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + accountNumber);
+            }
+        }
+        return postedAccount(posted.get());
+    }
+
+    // The UPDATE already returned the new balance: load the row only if this persistence context lacks it,
+    // and re-read it only if the context holds it with a pre-posting balance
+    private Account postedAccount(BalancePosting posting) {
+        Account account = entityManager.find(Account.class, posting.getId());
+        if (account.getBalance() != posting.getBalance()) {
+            entityManager.refresh(account);
+        }
+        return account;
+    }
+
+    private double consolidateStripes(Account account) {
+        List<AccountBalanceStripe> stripes = accountBalanceStripeRepository.findByAccountIdForUpdate(account.getId());
+        double swept = 0;
+        for (AccountBalanceStripe stripe : stripes) {
+            swept += stripe.getBalance();
+            stripe.setBalance(0);
+        }
+        if (swept > 0) {
+            accountBalanceStripeRepository.saveAll(stripes);
+            accountRepository.applyBalanceDelta(account.getAccountNumber(), swept);
+        }
+        return swept;
     }
 
     private void checkIfFrozen(Account account) {
@@ -0,0 +1,56 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.BatchJobStatus;
+import com.bank.account.entity.BatchJobCheckpoint;
+import com.bank.account.repository.BatchJobCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Durable progress markers for the batch jobs, so a run interrupted by a crash or redeploy resumes
+ * after the last committed chunk instead of starting over.
+ */
+@Service
+public class BatchJobCheckpointService {
+
+    @Autowired
+    private BatchJobCheckpointRepository batchJobCheckpointRepository;
+
+    @Transactional
+    public BatchJobCheckpoint begin(String jobName, LocalDate runDate) {
+        return batchJobCheckpointRepository.findByJobNameAndRunDate(jobName, runDate)
+                .orElseGet(() -> {
+                    BatchJobCheckpoint checkpoint = new BatchJobCheckpoint();
+                    checkpoint.setJobName(jobName);
+                    checkpoint.setRunDate(runDate);
+                    checkpoint.setStatus(BatchJobStatus.RUNNING);
+                    checkpoint.setUpdatedAt(LocalDateTime.now());
+                    return batchJobCheckpointRepository.save(checkpoint);
+                });
+    }
+
+    @Transactional
+    public void advance(Long checkpointId, long lastProcessedId, long processed, long failed) {
+        BatchJobCheckpoint checkpoint = batchJobCheckpointRepository.getReferenceById(checkpointId);
+        checkpoint.setLastProcessedId(Math.max(checkpoint.getLastProcessedId(), lastProcessedId));
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + processed);
+        checkpoint.setFailedCount(checkpoint.getFailedCount() + failed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Transactional
+    public void complete(Long checkpointId) {
+        BatchJobCheckpoint checkpoint = batchJobCheckpointRepository.getReferenceById(checkpointId);
+        checkpoint.setStatus(BatchJobStatus.COMPLETED);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+    }
+
+    public List<BatchJobCheckpoint> findUnfinishedRuns(String jobName) {
+        return batchJobCheckpointRepository.findByJobNameAndStatusOrderByRunDateAsc(jobName, BatchJobStatus.RUNNING);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.account.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One credit card statement period. Bill generation days past the end of a short month are clamped to
+ * its last day, so a card billed on the 31st is billed on 30 April and 28/29 February.
+ */
+public record BillingCycle(LocalDate billingDate, LocalDate statementStartDate) {
+
+    // Latest cycle that has closed on or before the given date
+    public static BillingCycle closedOn(int billGenerationDay, LocalDate date) {
+        LocalDate billingDate = billingDateIn(YearMonth.from(date), billGenerationDay);
+        if (billingDate.isAfter(date)) {
+            billingDate = billingDateIn(YearMonth.from(date).minusMonths(1), billGenerationDay);
+        }
+        LocalDate previousBillingDate = billingDateIn(YearMonth.from(billingDate).minusMonths(1), billGenerationDay);
+        return new BillingCycle(billingDate, previousBillingDate.plusDays(1));
+    }
+
+    // Cycle a posting made on the given date belongs to
+    public static BillingCycle openOn(int billGenerationDay, LocalDate date) {
+        LocalDate billingDate = billingDateIn(YearMonth.from(date), billGenerationDay);
+        if (billingDate.isBefore(date)) {
+            billingDate = billingDateIn(YearMonth.from(date).plusMonths(1), billGenerationDay);
+        }
+        LocalDate previousBillingDate = billingDateIn(YearMonth.from(billingDate).minusMonths(1), billGenerationDay);
+        return new BillingCycle(billingDate, previousBillingDate.plusDays(1));
+    }
+
+    public static LocalDate billingDateIn(YearMonth month, int billGenerationDay) {
+        return month.atDay(Math.min(billGenerationDay, month.lengthOfMonth()));
+    }
+
+    // Bill generation days that fall on the given date: on the last day of a month that includes every later day
+    public static List<Integer> billGenerationDaysOn(LocalDate date) {
+        List<Integer> days = new ArrayList<>();
+        days.add(date.getDayOfMonth());
+        if (date.getDayOfMonth() == date.lengthOfMonth()) {
+            for (int day = date.getDayOfMonth() + 1; day <= 31; day++) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    public LocalDate statementEndDate() {
+        return billingDate;
+    }
+}
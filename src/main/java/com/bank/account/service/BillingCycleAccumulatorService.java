@@ -0,0 +1,46 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardCycleTotals;
+import com.bank.account.entity.Card;
+import com.bank.account.repository.BillingCycleAccumulatorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Keeps per-card, per-cycle charge and payment totals current. Postings must call this in the same
+ * transaction that records the card transaction, so the totals commit or roll back with it.
+ */
+@Service
+public class BillingCycleAccumulatorService {
+
+    @Autowired
+    private BillingCycleAccumulatorRepository billingCycleAccumulatorRepository;
+
+    public void recordCharge(Card card, double amount, LocalDate postedOn) {
+        addToOpenCycle(card, postedOn, amount, 0);
+    }
+
+    public void recordPayment(Card card, double amount, LocalDate postedOn) {
+        addToOpenCycle(card, postedOn, 0, amount);
+    }
+
+    // A posting whose cycle has already been billed is carried into the next cycle rather than lost
+    private void addToOpenCycle(Card card, LocalDate postedOn, double charges, double payments) {
+        BillingCycle cycle = BillingCycle.openOn(card.getBillGenerationDay(), postedOn);
+        while (billingCycleAccumulatorRepository.addToCycle(card.getId(), cycle.statementStartDate(), cycle.billingDate(), charges, payments) == 0) {
+            cycle = BillingCycle.openOn(card.getBillGenerationDay(), cycle.billingDate().plusDays(1));
+        }
+    }
+
+    public Optional<CardCycleTotals> getTotals(Long cardId, BillingCycle cycle) {
+        return billingCycleAccumulatorRepository.findByCard_IdAndCycleEndDate(cardId, cycle.billingDate())
+                .map(accumulator -> new CardCycleTotals(accumulator.getCharges(), accumulator.getPayments()));
+    }
+
+    public void closeCycle(Long cardId, BillingCycle cycle) {
+        billingCycleAccumulatorRepository.closeCycle(cardId, cycle.billingDate());
+    }
+}
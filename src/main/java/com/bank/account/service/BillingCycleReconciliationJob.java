@@ -0,0 +1,87 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardCycleTotals;
+import com.bank.account.entity.BillingCycleAccumulator;
+import com.bank.account.repository.BillingCycleAccumulatorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Check of the open billing-cycle accumulators against the raw card transactions, run by the billing job
+ * before it bills so bills never start from a drifted total. Mismatches are logged and corrected; the
+ * accumulator is read before the aggregate and the correction is guarded on the values read, so a posting
+ * that lands mid-check is never overwritten. Closed cycles are already billed and are left alone.
+ */
+@Component
+public class BillingCycleReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingCycleReconciliationJob.class);
+    private static final double TOLERANCE = 0.005;
+
+    @Autowired
+    private BillingCycleAccumulatorRepository billingCycleAccumulatorRepository;
+
+    @Autowired
+    private CreditCardStatementCalculator creditCardStatementCalculator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${billing.reconciliation.lookback-days:45}")
+    private int lookbackDays;
+
+    @Value("${billing.reconciliation.chunk-size:500}")
+    private int chunkSize;
+
+    public int reconcile() {
+        LocalDate since = LocalDate.now().minusDays(lookbackDays);
+        long lastId = 0;
+        int checked = 0;
+        int corrected = 0;
+        List<BillingCycleAccumulator> chunk;
+        do {
+            chunk = billingCycleAccumulatorRepository.findByCycleEndDateGreaterThanEqualAndClosedFalseAndIdGreaterThanOrderByIdAsc(since, lastId, Limit.of(chunkSize));
+            for (BillingCycleAccumulator accumulator : chunk) {
+                lastId = accumulator.getId();
+                checked++;
+                if (reconcile(accumulator)) {
+                    corrected++;
+                }
+            }
+        } while (chunk.size() == chunkSize);
+
+        if (corrected > 0) {
+            log.warn("Billing-cycle reconciliation corrected {} of {} accumulators", corrected, checked);
+        } else {
+            log.info("Billing-cycle reconciliation checked {} accumulators, all consistent", checked);
+        }
+        return corrected;
+    }
+
+    private boolean reconcile(BillingCycleAccumulator accumulator) {
+        Long cardId = accumulator.getCard().getId();
+        CardCycleTotals actual = creditCardStatementCalculator.aggregate(cardId,
+                new BillingCycle(accumulator.getCycleEndDate(), accumulator.getCycleStartDate()));
+        if (Math.abs(actual.getCharges() - accumulator.getCharges()) < TOLERANCE
+                && Math.abs(actual.getPayments() - accumulator.getPayments()) < TOLERANCE) {
+            return false;
+        }
+        Integer updated = transactionTemplate.execute(status -> billingCycleAccumulatorRepository.correctTotals(accumulator.getId(),
+                accumulator.getCharges(), accumulator.getPayments(), actual.getCharges(), actual.getPayments()));
+        if (updated != null && updated == 1) {
+            log.warn("Accumulator for card {} cycle ending {} was charges {} / payments {}, transactions say {} / {}",
+                    cardId, accumulator.getCycleEndDate(), accumulator.getCharges(), accumulator.getPayments(),
+                    actual.getCharges(), actual.getPayments());
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,246 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardBillingDay;
+import com.bank.account.repository.CardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Credit card ids bucketed by bill generation day, one bitmap per day of the month. The billing job reads
+ * a day's cohort from here in id order instead of querying the card table; until the buckets are loaded
+ * (or if ids outgrow a bitmap) lookups go to the indexed (bill_generation_day, card_type, id) query.
+ * The buckets are loaded from the card table once at startup and kept current by the changes made through
+ * this JVM. Cards issued or moved on other instances are stamped with {@code billing_day_changed_at}; the
+ * billing job calls {@link #sync()} before every run to apply just those rows, so a run costs the number of
+ * changes rather than a scan of every card. Between runs an instance may lag changes made elsewhere.
+ */
+@Component
+public class BillingDayIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingDayIndex.class);
+    // Re-read changes stamped this long before the last sync: covers clock skew between instances and
+    // transactions that stamped a card before the last sync but committed after it. Re-applying is harmless.
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(5);
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BitSet[] buckets; // Indexed by day 1-31; null until loaded
+    private Map<Long, Integer> pendingMoves; // Moves committed while the buckets were being loaded
+    private LocalDateTime syncedAt; // When the last successful load or sync started reading; null until loaded
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            pendingMoves = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        BitSet[] loaded = newBuckets();
+        boolean fits = false;
+        boolean read = false;
+        try {
+            fits = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                try (var stream = cardRepository.streamCreditCardBillingDays()) {
+                    return stream.allMatch(card -> set(loaded, card.getCardId(), card.getBillGenerationDay()));
+                }
+            }));
+            read = true;
+            if (!fits) {
+                log.warn("Card ids exceed the billing-day bitmap range; billing cohorts will be read from the database");
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to load the billing-day index; billing cohorts will be read from the database: {}", e.getMessage());
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (fits) {
+                pendingMoves.forEach((cardId, day) -> move(loaded, cardId, day));
+                buckets = loaded;
+            } else {
+                buckets = null; // A failed reload must not leave stale buckets in use
+            }
+            if (read) {
+                syncedAt = startedAt; // Also when ids outgrew the bitmaps: the database fallback needs no reload
+            }
+            pendingMoves = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fits) {
+            long cards = 0;
+            for (int day = 1; day <= 31; day++) {
+                cards += loaded[day].cardinality();
+            }
+            log.info("Indexed {} credit cards by bill generation day", cards);
+        }
+    }
+
+    /**
+     * Applies the cards issued or moved on any instance since the last load or sync. Falls back to a full
+     * load only if the startup load failed.
+     */
+    public void sync() {
+        LocalDateTime since;
+        boolean indexed;
+        lock.readLock().lock();
+        try {
+            since = syncedAt;
+            indexed = buckets != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (since == null) {
+            load();
+            return;
+        }
+        if (!indexed) {
+            return; // Ids outgrew the bitmaps; cohorts are read from the database
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<CardBillingDay> changes;
+        try {
+            changes = cardRepository.findBillingDayChangesSince(since.minus(SYNC_OVERLAP));
+        } catch (RuntimeException e) {
+            // Buckets stay as they are; the next sync reads from the same point
+            log.error("Failed to sync the billing-day index: {}", e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (buckets == null) {
+                return; // Dropped while reading; the next sync reloads
+            }
+            for (CardBillingDay change : changes) {
+                if (!move(buckets, change.getCardId(), change.getBillGenerationDay())) {
+                    buckets = null;
+                    log.warn("Card id {} exceeds the billing-day bitmap range; billing cohorts will be read from the database", change.getCardId());
+                    return;
+                }
+            }
+            syncedAt = startedAt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Applied {} billing-day changes since {}", changes.size(), since);
+    }
+
+    // Call inside the transaction that issues or moves the card; the bucket changes once it commits
+    public void assignAfterCommit(Long cardId, int billGenerationDay) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    assign(cardId, billGenerationDay);
+                }
+            });
+        } else {
+            assign(cardId, billGenerationDay);
+        }
+    }
+
+    public void assign(Long cardId, int billGenerationDay) {
+        lock.writeLock().lock();
+        try {
+            if (pendingMoves != null) {
+                pendingMoves.put(cardId, billGenerationDay);
+            } else if (buckets != null && !move(buckets, cardId, billGenerationDay)) {
+                buckets = null;
+                log.warn("Card id {} exceeds the billing-day bitmap range; billing cohorts will be read from the database", cardId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} ids of the credit cards billed on any of {@code days}, in ascending id order after
+     * {@code afterId}. Walks only the set bits of the requested buckets.
+     */
+    public List<Long> findCardIds(Collection<Integer> days, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (buckets == null) {
+                return cardRepository.findCreditCardIdsByBillGenerationDay(days, afterId, Limit.of(limit));
+            }
+            List<BitSet> cohort = new ArrayList<>(days.size());
+            for (int day : days) {
+                cohort.add(buckets[day]);
+            }
+            int from = (int) Math.min(afterId + 1, Integer.MAX_VALUE);
+            List<Long> ids = new ArrayList<>(limit);
+            while (ids.size() < limit) {
+                // Days never share a card, so the smallest next bit across the cohort's buckets is the next id
+                int next = -1;
+                for (BitSet bucket : cohort) {
+                    int candidate = bucket.nextSetBit(from);
+                    if (candidate >= 0 && (next < 0 || candidate < next)) {
+                        next = candidate;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                ids.add((long) next);
+                from = next + 1;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Day 0 removes the card from every bucket (no longer a credit card)
+    private static boolean move(BitSet[] buckets, Long cardId, int day) {
+        if (cardId <= Integer.MAX_VALUE) {
+            for (int d = 1; d <= 31; d++) {
+                buckets[d].clear(cardId.intValue());
+            }
+        }
+        return day == 0 || set(buckets, cardId, day);
+    }
+
+    private static boolean set(BitSet[] buckets, Long cardId, int day) {
+        if (cardId > Integer.MAX_VALUE) {
+            return false;
+        }
+        buckets[day].set(cardId.intValue());
+        return true;
+    }
+
+    private static BitSet[] newBuckets() {
+        BitSet[] buckets = new BitSet[32];
+        for (int day = 1; day <= 31; day++) {
+            buckets[day] = new BitSet();
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.AuthorizationRequest;
+import com.bank.account.dto.AuthorizationResponse;
+import com.bank.account.dto.CardAuthorizationMetrics;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface CardAuthorizationService {
+
+    CompletableFuture<AuthorizationResponse> authorize(String cardNumber, AuthorizationRequest request); // Completes once the PIN is verified
+
+    AuthorizationResponse capture(String authorizationId); // Clears the hold and posts the transaction
+
+    AuthorizationResponse release(String authorizationId);
+
+    int expireHolds();
+
+    CardAuthorizationMetrics getMetrics();
+}
@@ -0,0 +1,278 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.AuthorizationRequest;
+import com.bank.account.dto.AuthorizationResponse;
+import com.bank.account.dto.AuthorizationStatus;
+import com.bank.account.dto.CardAuthorizationMetrics;
+import com.bank.account.dto.CardStatus;
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Transaction;
+import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.bank.account.service.CardStateTable.fromMinor;
+import static com.bank.account.service.CardStateTable.toMinor;
+
+/**
+ * Card authorizations are decided entirely against {@link CardStateTable} and only place an in-memory
+ * hold; the database is touched when a hold is captured and its transaction posted. Holds live in this
+ * instance only and lapse on restart the same way they would on expiry.
+ */
+@Service
+public class CardAuthorizationServiceImpl implements CardAuthorizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CardAuthorizationServiceImpl.class);
+
+    @Autowired
+    private CardStateTable cardStateTable;
+
+    @Autowired
+    private DailySpendTracker dailySpendTracker;
+
+    @Autowired
+    private PinVerifier pinVerifier;
+
+    @Autowired
+    private BillingCycleAccumulatorService billingCycleAccumulatorService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${card.authorization.hold-expiry-minutes:10080}")
+    private long holdExpiryMinutes;
+
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong approved = new AtomicLong();
+    private final AtomicLong declined = new AtomicLong();
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    // spendDate is the day a DEBIT card hold was counted against the daily limit; null for CREDIT cards
+    private record Hold(String authorizationId, String cardNumber, Long cardId, long amountMinor, String merchant,
+                        LocalDateTime expiresAt, LocalDate spendDate) {
+    }
+
+    @Override
+    public CompletableFuture<AuthorizationResponse> authorize(String cardNumber, AuthorizationRequest request) {
+        // End to end, so PIN verification on the PIN pool is included; only the checks and hold around it are in-memory
+        long start = System.nanoTime();
+        return decide(cardNumber, request).whenComplete((response, error) -> latency.record(System.nanoTime() - start));
+    }
+
+    // Cheap in-memory checks first; only a card that passes them costs a PIN hash on the PIN pool
+    private CompletableFuture<AuthorizationResponse> decide(String cardNumber, AuthorizationRequest request) {
+        CardStateTable.CardState state = cardStateTable.get(cardNumber);
+        if (state == null) {
+            return CompletableFuture.completedFuture(decline(cardNumber, request.getAmount(), "Card not found"));
+        }
+        CardStateTable.Snapshot card = state.snapshot();
+        if (card.status() != CardStatus.ACTIVE) {
+            return CompletableFuture.completedFuture(decline(cardNumber, request.getAmount(), "Card is " + card.status()));
+        }
+        if (LocalDate.now().isAfter(card.expiryDate())) {
+            return CompletableFuture.completedFuture(decline(cardNumber, request.getAmount(), "Card is expired"));
+        }
+        return pinVerifier.verify(cardNumber, card.pin(), request.getPin())
+                .thenApply(valid -> valid
+                        ? placeHold(state, card, request)
+                        : decline(cardNumber, request.getAmount(), "Invalid PIN"));
+    }
+
+    private AuthorizationResponse placeHold(CardStateTable.CardState state, CardStateTable.Snapshot card, AuthorizationRequest request) {
+        String cardNumber = card.cardNumber();
+        long amountMinor = toMinor(request.getAmount());
+        boolean debitCard = card.cardType() == CardType.DEBIT;
+        if (debitCard && !dailySpendTracker.tryAdd(card.cardId(), amountMinor, card.dailyLimitMinor())) {
+            return decline(cardNumber, request.getAmount(), "Daily withdrawal limit exceeded");
+        }
+        if (!cardStateTable.tryHold(state, amountMinor)) {
+            return decline(cardNumber, request.getAmount(), "Insufficient credit limit");
+        }
+
+        Hold hold = new Hold(transactionIdGenerator.nextId(), cardNumber, card.cardId(), amountMinor, request.getMerchant(),
+                LocalDateTime.now().plusMinutes(holdExpiryMinutes), debitCard ? LocalDate.now() : null);
+        holds.put(hold.authorizationId(), hold);
+        approved.incrementAndGet();
+
+        AuthorizationResponse response = response(hold, AuthorizationStatus.APPROVED);
+        response.setHoldExpiresAt(hold.expiresAt());
+        if (!debitCard) {
+            response.setAvailableLimit(fromMinor(state.availableMinor()));
+        } else if (card.dailyLimitMinor() > 0) {
+            response.setAvailableLimit(fromMinor(card.dailyLimitMinor()) - dailySpendTracker.getSpentToday(card.cardId()));
+        }
+        return response;
+    }
+
+    @Override
+    public AuthorizationResponse capture(String authorizationId) {
+        Hold hold = takeHold(authorizationId);
+        CardStateTable.CardState state = cardStateTable.get(hold.cardNumber());
+        if (state == null) {
+            releaseHold(hold); // The card is gone; its hold and daily spend must not linger
+            throw new ResourceNotFoundException("Card not found with number: " + hold.cardNumber());
+        }
+
+        Transaction posted;
+        try {
+            posted = transactionTemplate.execute(status -> post(hold, state.snapshot()));
+        } catch (RuntimeException e) {
+            holds.put(authorizationId, hold); // Leave the hold in place so clearing can be retried
+            throw e;
+        }
+
+        if (posted == null) {
+            // Funds or limit were no longer there at clearing time, e.g. used by another instance
+            releaseHold(hold);
+            declined.incrementAndGet();
+            AuthorizationResponse response = response(hold, AuthorizationStatus.DECLINED);
+            response.setDeclineReason(state.snapshot().cardType() == CardType.CREDIT
+                    ? "Credit limit exceeded at clearing" : "Linked account could not be debited");
+            return response;
+        }
+        cardStateTable.captureHold(state, hold.amountMinor());
+        captured.incrementAndGet();
+        AuthorizationResponse response = response(hold, AuthorizationStatus.CAPTURED);
+        response.setTransactionId(posted.getTransactionId());
+        return response;
+    }
+
+    @Override
+    public AuthorizationResponse release(String authorizationId) {
+        Hold hold = takeHold(authorizationId);
+        releaseHold(hold);
+        released.incrementAndGet();
+        return response(hold, AuthorizationStatus.RELEASED);
+    }
+
+    @Scheduled(fixedDelayString = "${card.authorization.expiry-sweep-ms:60000}")
+    public void sweepExpiredHolds() {
+        int count = expireHolds();
+        if (count > 0) {
+            log.info("Released {} expired card authorization holds", count);
+        }
+    }
+
+    @Override
+    public int expireHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        int count = 0;
+        for (Hold hold : holds.values()) {
+            if (hold.expiresAt().isBefore(now) && holds.remove(hold.authorizationId(), hold)) {
+                releaseHold(hold);
+                count++;
+            }
+        }
+        expired.addAndGet(count);
+        return count;
+    }
+
+    @Override
+    public CardAuthorizationMetrics getMetrics() {
+        CardAuthorizationMetrics metrics = new CardAuthorizationMetrics();
+        metrics.setApproved(approved.get());
+        metrics.setDeclined(declined.get());
+        metrics.setCaptured(captured.get());
+        metrics.setReleased(released.get());
+        metrics.setExpired(expired.get());
+        metrics.setActiveHolds(holds.size());
+        metrics.setLatencySamples(latency.count());
+        metrics.setP50Micros(latency.percentileNanos(50) / 1000.0);
+        metrics.setP90Micros(latency.percentileNanos(90) / 1000.0);
+        metrics.setP99Micros(latency.percentileNanos(99) / 1000.0);
+        metrics.setMaxMicros(latency.maxNanos() / 1000.0);
+        return metrics;
+    }
+
+    private Transaction post(Hold hold, CardStateTable.Snapshot snapshot) {
+        Card card = cardRepository.findById(snapshot.cardId())
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with number: " + hold.cardNumber()));
+        double amount = fromMinor(hold.amountMinor());
+        String description = "Card purchase at " + (hold.merchant() == null ? "merchant" : hold.merchant())
+                + " ref " + hold.authorizationId();
+
+        if (snapshot.cardType() == CardType.CREDIT) {
+            if (cardRepository.addCreditUsed(card.getId(), amount) == 0) {
+                return null;
+            }
+            billingCycleAccumulatorService.recordCharge(card, amount, LocalDate.now());
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(transactionIdGenerator.nextId());
+            transaction.setAccount(card.getAccount());
+            transaction.setCard(card);
+            transaction.setAmount(amount);
+            transaction.setTransactionType("DEBIT");
+            transaction.setDate(LocalDateTime.now());
+            transaction.setDescription(description);
+            return transactionRepository.save(transaction);
+        }
+        return accountService.tryWithdraw(card.getAccount().getAccountNumber(), amount, "CARD_PURCHASE", description, card)
+                .orElse(null);
+    }
+
+    private Hold takeHold(String authorizationId) {
+        Hold hold = holds.remove(authorizationId);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Open authorization not found with ID: " + authorizationId);
+        }
+        return hold;
+    }
+
+    private void releaseHold(Hold hold) {
+        if (hold.spendDate() != null) {
+            dailySpendTracker.subtract(hold.cardId(), hold.spendDate(), hold.amountMinor());
+        }
+        CardStateTable.CardState state = cardStateTable.get(hold.cardNumber());
+        if (state != null) {
+            cardStateTable.releaseHold(state, hold.amountMinor());
+        }
+    }
+
+    private AuthorizationResponse decline(String cardNumber, double amount, String reason) {
+        declined.incrementAndGet();
+        AuthorizationResponse response = new AuthorizationResponse();
+        response.setCardNumber(cardNumber);
+        response.setAmount(amount);
+        response.setStatus(AuthorizationStatus.DECLINED);
+        response.setDeclineReason(reason);
+        return response;
+    }
+
+    private AuthorizationResponse response(Hold hold, AuthorizationStatus status) {
+        AuthorizationResponse response = new AuthorizationResponse();
+        response.setAuthorizationId(hold.authorizationId());
+        response.setCardNumber(hold.cardNumber());
+        response.setAmount(fromMinor(hold.amountMinor()));
+        response.setStatus(status);
+        return response;
+    }
+}
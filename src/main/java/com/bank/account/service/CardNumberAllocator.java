@@ -0,0 +1,128 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.CardBinRange;
+import com.bank.account.repository.CardBinRangeRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out card numbers as BIN + 9-digit sequence + Luhn check digit. Each instance reserves a block
+ * of sequences per BIN from {@link CardBinRange} and serves it from memory, so numbers are unique by
+ * construction and issuing a card needs no lookup. Numbers of a block that is never used are skipped.
+ */
+@Component
+public class CardNumberAllocator {
+
+    private static final int BIN_LENGTH = 6;
+    private static final long MAX_SEQUENCE = 999_999_999L;
+
+    @Autowired
+    private CardBinRangeRepository cardBinRangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${card.bin.debit:421234}")
+    private String debitBin;
+
+    @Value("${card.bin.credit:531234}")
+    private String creditBin;
+
+    @Value("${card.number.block-size:1000}")
+    private int blockSize;
+
+    private final Map<CardType, AtomicReference<Block>> blocks = new EnumMap<>(CardType.class);
+    private TransactionTemplate reservationTemplate;
+
+    private record Block(AtomicLong next, long end) {
+    }
+
+    @PostConstruct
+    void init() {
+        // BIN + 9-digit sequence + check digit must make the 16 digits the card number format expects
+        for (String bin : new String[]{debitBin, creditBin}) {
+            if (bin == null || !bin.matches("[0-9]{" + BIN_LENGTH + "}")) {
+                throw new IllegalArgumentException("Card BIN must be " + BIN_LENGTH + " digits: " + bin);
+            }
+        }
+        for (CardType cardType : CardType.values()) {
+            blocks.put(cardType, new AtomicReference<>(new Block(new AtomicLong(), 0)));
+        }
+        // Reservations commit on their own so a rolled-back issuance never hands a block out twice
+        reservationTemplate = new TransactionTemplate(transactionManager);
+        reservationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String nextCardNumber(CardType cardType) {
+        AtomicReference<Block> current = blocks.get(cardType);
+        while (true) {
+            Block block = current.get();
+            long sequence = block.next().getAndIncrement();
+            if (sequence < block.end()) {
+                return format(binFor(cardType), sequence);
+            }
+            refill(cardType, current, block);
+        }
+    }
+
+    private synchronized void refill(CardType cardType, AtomicReference<Block> current, Block exhausted) {
+        if (current.get() != exhausted) {
+            return; // Another thread already refilled
+        }
+        String bin = binFor(cardType);
+        current.set(reservationTemplate.execute(status -> reserve(bin, cardType)));
+    }
+
+    private Block reserve(String bin, CardType cardType) {
+        CardBinRange range = cardBinRangeRepository.findByBinForUpdate(bin).orElseGet(() -> {
+            // Instances starting together may all find no row; only one insert lands, the rest lock that row
+            cardBinRangeRepository.insertIfAbsent(bin, cardType.name(), cardBinRangeRepository.findMaxLegacySequence(bin) + 1, MAX_SEQUENCE);
+            return cardBinRangeRepository.findByBinForUpdate(bin).orElseThrow();
+        });
+        long start = range.getNextSequence();
+        if (start > range.getMaxSequence()) {
+            throw new IllegalStateException("Card number range exhausted for BIN " + bin);
+        }
+        long end = Math.min(start + blockSize, range.getMaxSequence() + 1);
+        range.setNextSequence(end);
+        cardBinRangeRepository.save(range);
+        return new Block(new AtomicLong(start), end);
+    }
+
+    private String binFor(CardType cardType) {
+        return cardType == CardType.CREDIT ? creditBin : debitBin;
+    }
+
+    static String format(String bin, long sequence) {
+        String body = bin + String.format("%09d", sequence);
+        return body + luhnCheckDigit(body);
+    }
+
+    static int luhnCheckDigit(String body) {
+        int sum = 0;
+        boolean doubleDigit = true; // The digit left of the check digit is doubled
+        for (int i = body.length() - 1; i >= 0; i--) {
+            int digit = body.charAt(i) - '0';
+            if (doubleDigit) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleDigit = !doubleDigit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -2,24 +2,29 @@ package com.bank.account.service;
 
 import com.bank.account.dto.CardStatus;
 import com.bank.account.dto.CardType;
+import com.bank.account.dto.CardView;
+import com.bank.account.dto.TransactionView;
 import com.bank.account.entity.Card;
-import com.bank.account.entity.Transaction;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface CardService {
 
-    Card issueCard(Long customerId, Long accountId, CardType cardType, double limit);
-    Card getCardDetails(String cardNumber);
+    CompletableFuture<Card> issueCard(Long customerId, Long accountId, CardType cardType, double limit); // Completes once the PIN is hashed and the card saved
+    CardView getCardDetails(String cardNumber);
+
+    List<CardView> getCardsForAccount(String accountNumber);
     Card blockCard(String cardNumber);
     Card unblockCard(String cardNumber);
     Card updateCreditLimit(String cardNumber, double newLimit);
     Card updateDailyWithdrawalLimit(String cardNumber, double newLimit);
-    String generatePin(String cardNumber); // Returns the generated PIN
-    String updatePin(String cardNumber, String oldPin, String newPin);
-    boolean validatePin(String cardNumber, String pin);
+    // PIN operations hash on PinVerifier's pool and complete asynchronously
+    CompletableFuture<String> generatePin(String cardNumber); // Returns the generated PIN
+    CompletableFuture<String> updatePin(String cardNumber, String oldPin, String newPin);
+    CompletableFuture<Boolean> validatePin(String cardNumber, String pin);
     boolean isCardExpired(String cardNumber);
-    List<Transaction> getCardTransactionHistory(String cardNumber);
-    List<Transaction> getMonthlyCardTransactionHistory(String cardNumber, int year, int month);
+    List<TransactionView> getCardTransactionHistory(String cardNumber);
+    List<TransactionView> getMonthlyCardTransactionHistory(String cardNumber, int year, int month);
 }
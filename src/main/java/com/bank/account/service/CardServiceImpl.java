@@ -2,10 +2,11 @@ package com.bank.account.service;
 
 import com.bank.account.dto.CardStatus;
 import com.bank.account.dto.CardType;
+import com.bank.account.dto.CardView;
+import com.bank.account.dto.TransactionView;
 import com.bank.account.entity.Account;
 import com.bank.account.entity.Card;
 import com.bank.account.entity.Customer;
-import com.bank.account.entity.Transaction;
 import com.bank.account.exception.InvalidInputException;
 import com.bank.account.exception.InvalidPinException;
 import com.bank.account.exception.ResourceNotFoundException;
@@ -16,12 +17,14 @@ import com.bank.account.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class CardServiceImpl implements CardService {
@@ -38,21 +41,39 @@ public class CardServiceImpl implements CardService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private CardNumberAllocator cardNumberAllocator;
+
+    @Autowired
+    private PinVerifier pinVerifier;
+
+    @Autowired
+    private BillingDayIndex billingDayIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private static final Random random = new Random();
 
+    // The initial PIN is hashed on the PIN pool first; the transaction only opens once the hash is ready,
+    // so no connection is held for the length of a hash and a full PIN queue fails the future with a 503
     @Override
-    @Transactional
-    public Card issueCard(Long customerId, Long accountId, CardType cardType, double limit) {
+    public CompletableFuture<Card> issueCard(Long customerId, Long accountId, CardType cardType, double limit) {
+        return pinVerifier.hash(generateRandomPin()) // Initial PIN is never disclosed; customers set theirs via generatePin
+                .thenApply(pinHash -> transactionTemplate.execute(status -> createCard(customerId, accountId, cardType, limit, pinHash)));
+    }
+
+    private Card createCard(Long customerId, Long accountId, CardType cardType, double limit, String pinHash) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + customerId));
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + accountId));
 
         Card card = new Card();
-        card.setCardNumber(generateUniqueCardNumber());
+        card.setCardNumber(cardNumberAllocator.nextCardNumber(cardType));
         card.setCardType(cardType);
         card.setStatus(CardStatus.ACTIVE);
-        card.setPin(generateRandomPin()); // PIN is generated and stored (in a real app, this would be hashed)
+        card.setPin(pinHash);
         card.setIssueDate(LocalDate.now());
         card.setExpiryDate(LocalDate.now().plusYears(5));
         card.setCvv(generateRandomCvv());
@@ -62,23 +83,33 @@ public class CardServiceImpl implements CardService {
         if (cardType == CardType.CREDIT) {
             card.setCreditLimit(limit);
             card.setCurrentCreditUsed(0.0);
+            card.setBillingDayChangedAt(LocalDateTime.now());
         } else {
             card.setDailyWithdrawalLimit(limit);
         }
 
-        return cardRepository.save(card);
+        Card saved = cardRepository.save(card);
+        if (cardType == CardType.CREDIT) {
+            billingDayIndex.assignAfterCommit(saved.getId(), saved.getBillGenerationDay());
+        }
+        return saved;
     }
 
     @Override
-    public Card getCardDetails(String cardNumber) {
-        return cardRepository.findByCardNumber(cardNumber)
+    public CardView getCardDetails(String cardNumber) {
+        return cardRepository.findViewByCardNumber(cardNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found with number: " + cardNumber));
     }
 
+    @Override
+    public List<CardView> getCardsForAccount(String accountNumber) {
+        return cardRepository.findViewsByAccountNumber(accountNumber);
+    }
+
     @Override
     @Transactional
     public Card blockCard(String cardNumber) {
-        Card card = getCardDetails(cardNumber);
+        Card card = getCard(cardNumber);
         card.setStatus(CardStatus.BLOCKED);
         return cardRepository.save(card);
     }
@@ -86,15 +117,16 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional
     public Card unblockCard(String cardNumber) {
-        Card card = getCardDetails(cardNumber);
+        Card card = getCard(cardNumber);
         card.setStatus(CardStatus.ACTIVE);
+        pinVerifier.resetFailures(cardNumber);
         return cardRepository.save(card);
     }
 
     @Override
     @Transactional
     public Card updateCreditLimit(String cardNumber, double newLimit) {
-        Card card = getCardDetails(cardNumber);
+        Card card = getCard(cardNumber);
         if (card.getCardType() != CardType.CREDIT) {
             throw new InvalidInputException("Cannot update credit limit for a non-credit card: " + cardNumber);
         }
@@ -105,7 +137,7 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional
     public Card updateDailyWithdrawalLimit(String cardNumber, double newLimit) {
-        Card card = getCardDetails(cardNumber);
+        Card card = getCard(cardNumber);
         if (card.getCardType() != CardType.DEBIT) {
             throw new InvalidInputException("Cannot update daily withdrawal limit for a non-debit card: " + cardNumber);
         }
@@ -114,76 +146,72 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
-    @Transactional
-    public String generatePin(String cardNumber) {
-        Card card = getCardDetails(cardNumber);
+    public CompletableFuture<String> generatePin(String cardNumber) {
+        Card card = getCard(cardNumber);
         String newPin = generateRandomPin();
-        card.setPin(newPin); // In a real app, hash this PIN
-        cardRepository.save(card);
-        return newPin;
+        return pinVerifier.hash(newPin).thenApply(pinHash -> {
+            storePinHash(card.getId(), pinHash);
+            return newPin;
+        });
     }
 
     @Override
-    @Transactional
-    public String updatePin(String cardNumber, String oldPin, String newPin) {
-        Card card = getCardDetails(cardNumber);
-        if (!card.getPin().equals(oldPin)) { // In a real app, compare hashed PINs
-            throw new InvalidPinException("Invalid old PIN for card: " + cardNumber);
-        }
-        card.setPin(newPin); // In a real app, hash this PIN
-        cardRepository.save(card);
-        return "PIN updated successfully";
+    public CompletableFuture<String> updatePin(String cardNumber, String oldPin, String newPin) {
+        Card card = getCard(cardNumber);
+        return pinVerifier.verify(cardNumber, card.getPin(), oldPin)
+                .thenCompose(valid -> {
+                    if (!valid) {
+                        throw new InvalidPinException("Invalid old PIN for card: " + cardNumber);
+                    }
+                    return pinVerifier.hash(newPin);
+                })
+                .thenApply(pinHash -> {
+                    storePinHash(card.getId(), pinHash);
+                    return "PIN updated successfully";
+                });
     }
 
     @Override
-    public boolean validatePin(String cardNumber, String pin) {
-        Card card = getCardDetails(cardNumber);
-        // In a real app, compare hashed PINs
-        return card.getPin().equals(pin);
+    public CompletableFuture<Boolean> validatePin(String cardNumber, String pin) {
+        Card card = getCard(cardNumber);
+        return pinVerifier.verify(cardNumber, card.getPin(), pin);
     }
 
     @Override
     public boolean isCardExpired(String cardNumber) {
-        Card card = getCardDetails(cardNumber);
+        Card card = getCard(cardNumber);
         return LocalDate.now().isAfter(card.getExpiryDate());
     }
 
     @Override
-    public List<Transaction> getCardTransactionHistory(String cardNumber) {
-        Card card = getCardDetails(cardNumber);
-        // Assuming transactions are linked to accounts, and cards are linked to accounts
-        // This might need refinement based on how card transactions are specifically recorded
-        return transactionRepository.findByAccount_AccountNumber(card.getAccount().getAccountNumber())
-                .stream()
-                .filter(t -> t.getDescription() != null && t.getDescription().contains(cardNumber)) // Simple filter, needs robust implementation
-                .collect(Collectors.toList());
+    public List<TransactionView> getCardTransactionHistory(String cardNumber) {
+        Card card = getCard(cardNumber);
+        return transactionRepository.findViewsByCardId(card.getId());
     }
 
     @Override
-    public List<Transaction> getMonthlyCardTransactionHistory(String cardNumber, int year, int month) {
-        Card card = getCardDetails(cardNumber);
+    public List<TransactionView> getMonthlyCardTransactionHistory(String cardNumber, int year, int month) {
+        Card card = getCard(cardNumber);
         YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDate startOfMonth = yearMonth.atDay(1);
-        LocalDate endOfMonth = yearMonth.atEndOfMonth();
-
-        return transactionRepository.findByAccount_AccountNumber(card.getAccount().getAccountNumber())
-                .stream()
-                .filter(t -> t.getDate().toLocalDate().isAfter(startOfMonth.minusDays(1)) &&
-                             t.getDate().toLocalDate().isBefore(endOfMonth.plusDays(1)))
-                .filter(t -> t.getDescription() != null && t.getDescription().contains(cardNumber))
-                .collect(Collectors.toList());
-    }
-
-    private String generateUniqueCardNumber() {
-        String cardNumber;
-        do {
-            cardNumber = String.format("%04d%04d%04d%04d",
-                    random.nextInt(10000),
-                    random.nextInt(10000),
-                    random.nextInt(10000),
-                    random.nextInt(10000));
-        } while (cardRepository.existsByCardNumber(cardNumber));
-        return cardNumber;
+        LocalDateTime startOfMonth = yearMonth.atDay(1).atStartOfDay();
+        LocalDateTime startOfNextMonth = yearMonth.plusMonths(1).atDay(1).atStartOfDay();
+
+        return transactionRepository.findViewsByCardId(card.getId(), startOfMonth, startOfNextMonth);
+    }
+
+    private Card getCard(String cardNumber) {
+        return cardRepository.findByCardNumber(cardNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with number: " + cardNumber));
+    }
+
+    // Runs on the PIN pool once hashing is done; saved through the entity so the card state table refreshes
+    private void storePinHash(Long cardId, String pinHash) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Card card = cardRepository.findById(cardId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found with ID: " + cardId));
+            card.setPin(pinHash);
+            cardRepository.save(card);
+        });
     }
 
     private String generateRandomPin() {
@@ -0,0 +1,179 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardStatus;
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.Card;
+import com.bank.account.repository.CardRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of every card used by the authorization path. Loaded at startup, filled lazily on a
+ * miss, and refreshed from the database after any committed write to a card. Amounts are held in minor
+ * units so holds can be reserved with a CAS instead of a lock.
+ */
+@Component
+public class CardStateTable {
+
+    private static final Logger log = LoggerFactory.getLogger(CardStateTable.class);
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ConcurrentHashMap<String, CardState> cards = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> cardNumbersById = new ConcurrentHashMap<>();
+
+    public record Snapshot(Long cardId, String cardNumber, CardType cardType, CardStatus status,
+                           LocalDate expiryDate, String pin, long creditLimitMinor, long dailyLimitMinor) {
+    }
+
+    public static final class CardState {
+        private volatile Snapshot snapshot;
+        private final AtomicLong usedMinor = new AtomicLong(); // Credit already posted (CREDIT cards)
+        private final AtomicLong heldMinor = new AtomicLong(); // Open authorization holds
+
+        public Snapshot snapshot() {
+            return snapshot;
+        }
+
+        public long availableMinor() {
+            return snapshot.creditLimitMinor() - usedMinor.get() - heldMinor.get();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var stream = cardRepository.streamAll()) {
+                stream.forEach(card -> {
+                    apply(card);
+                    entityManager.detach(card);
+                });
+            }
+        });
+        log.info("Loaded {} cards into the authorization table", cards.size());
+    }
+
+    public CardState get(String cardNumber) {
+        CardState state = cards.get(cardNumber);
+        if (state != null) {
+            return state;
+        }
+        return cardRepository.findByCardNumber(cardNumber).map(this::apply).orElse(null);
+    }
+
+    // Called for every card insert or update; the table only changes once the write has committed
+    public void refreshAfterCommit(Long cardId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(cardId);
+                }
+            });
+        } else {
+            refresh(cardId);
+        }
+    }
+
+    public void refresh(Long cardId) {
+        cardRepository.findById(cardId).ifPresentOrElse(this::apply, () -> {
+            String cardNumber = cardNumbersById.remove(cardId);
+            if (cardNumber != null) {
+                cards.remove(cardNumber);
+            }
+        });
+    }
+
+    public boolean tryHold(CardState state, long amountMinor) {
+        if (state.snapshot.cardType() != CardType.CREDIT) {
+            state.heldMinor.addAndGet(amountMinor);
+            return true;
+        }
+        while (true) {
+            long held = state.heldMinor.get();
+            if (state.snapshot.creditLimitMinor() - state.usedMinor.get() - held < amountMinor) {
+                return false;
+            }
+            if (state.heldMinor.compareAndSet(held, held + amountMinor)) {
+                return true;
+            }
+        }
+    }
+
+    public void releaseHold(CardState state, long amountMinor) {
+        state.heldMinor.addAndGet(-amountMinor);
+    }
+
+    // Used goes up before the hold comes off so the available limit never overshoots in between
+    public void captureHold(CardState state, long amountMinor) {
+        if (state.snapshot.cardType() == CardType.CREDIT) {
+            state.usedMinor.addAndGet(amountMinor);
+        }
+        state.heldMinor.addAndGet(-amountMinor);
+    }
+
+    // For card rows changed by set-based SQL, which bypasses the entity listener; applied once committed
+    public void addCreditUsed(Long cardId, long amountMinor) {
+        String cardNumber = cardNumbersById.get(cardId);
+        CardState state = cardNumber == null ? null : cards.get(cardNumber);
+        if (state != null) {
+            state.usedMinor.addAndGet(amountMinor);
+        }
+    }
+
+    // A re-read inside the writing transaction would see its stale managed Card, so bulk writers pass the delta
+    public void addCreditUsedAfterCommit(Long cardId, long amountMinor) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addCreditUsed(cardId, amountMinor);
+                }
+            });
+        } else {
+            addCreditUsed(cardId, amountMinor);
+        }
+    }
+
+    public int size() {
+        return cards.size();
+    }
+
+    private CardState apply(Card card) {
+        Snapshot snapshot = new Snapshot(card.getId(), card.getCardNumber(), card.getCardType(), card.getStatus(),
+                card.getExpiryDate(), card.getPin(), toMinor(card.getCreditLimit()), toMinor(card.getDailyWithdrawalLimit()));
+        CardState state = cards.computeIfAbsent(card.getCardNumber(), number -> new CardState());
+        state.snapshot = snapshot;
+        state.usedMinor.set(toMinor(card.getCurrentCreditUsed()));
+        cardNumbersById.put(card.getId(), card.getCardNumber());
+        return state;
+    }
+
+    public static long toMinor(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static double fromMinor(long minor) {
+        return minor / 100.0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.BatchJobStatus;
+import com.bank.account.entity.BatchJobCheckpoint;
+import com.bank.account.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * One-off migration that links legacy transactions to their card. Older postings only carried the
+ * card number inside the description; this fills {@code transaction.card_id} in id-range chunks,
+ * each in its own transaction, so it can run against a live table and be re-run safely. Progress is
+ * kept in a {@link BatchJobCheckpoint}: an interrupted run resumes at the last chunk and a finished one
+ * is skipped on later starts.
+ */
+@Component
+public class CardTransactionBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CardTransactionBackfillJob.class);
+
+    static final String JOB_NAME = "CARD_TRANSACTION_BACKFILL";
+    static final LocalDate RUN_DATE = LocalDate.EPOCH; // One-off migration: a single checkpoint row
+
+    @Autowired
+    private BatchJobCheckpointService batchJobCheckpointService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${card.transaction-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.transaction-backfill.chunk-size:10000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            taskExecutor.execute(this::backfill);
+        }
+    }
+
+    public int backfill() {
+        BatchJobCheckpoint checkpoint = batchJobCheckpointService.begin(JOB_NAME, RUN_DATE);
+        if (checkpoint.getStatus() == BatchJobStatus.COMPLETED) {
+            return 0;
+        }
+        // Rows above maxId were posted with card_id already set
+        long maxId = transactionRepository.findMaxId();
+        int linked = 0;
+        for (long fromId = checkpoint.getLastProcessedId(); fromId < maxId; fromId += chunkSize) {
+            long lower = fromId;
+            long upper = fromId + chunkSize;
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = transactionRepository.backfillCardIds(lower, upper);
+                batchJobCheckpointService.advance(checkpoint.getId(), upper, rows, 0);
+                return rows;
+            });
+            linked += updated == null ? 0 : updated;
+        }
+        batchJobCheckpointService.complete(checkpoint.getId());
+        if (linked > 0) {
+            log.info("Linked {} legacy transactions to their cards", linked);
+        }
+        return linked;
+    }
+}
@@ -0,0 +1,295 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.AccrualRunStats;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.bank.account.service.CardStateTable.toMinor;
+
+/**
+ * Daily interest and late-fee accrual on credit card bills left UNPAID or PARTIAL past their due date.
+ * Bills are split into id-mod-N partitions, each streamed through a server-side cursor on its own worker,
+ * and accruals are written back in batches by one set-based statement that inserts the day's accrual
+ * rows and adds only the newly inserted ones to the bill and card. An accrual already recorded for the
+ * date is skipped by the unique key, so a run can be repeated or resumed for the same date.
+ */
+@Component
+public class CreditCardAccrualJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditCardAccrualJob.class);
+
+    private static final String OVERDUE_BILLS_SQL = """
+            SELECT id, current_outstanding, late_fees_charged
+            FROM credit_card_bill
+            WHERE payment_status IN ('UNPAID', 'PARTIAL') AND due_date < ? AND current_outstanding > 0
+              AND mod(id, ?) = ?
+            """;
+
+    // Bill and card are only charged for accrual rows this statement actually inserted
+    private static final String POST_ACCRUALS_SQL = """
+            WITH input AS (
+                SELECT * FROM unnest(?::bigint[], ?::float8[], ?::float8[], ?::float8[])
+                    AS t(bill_id, outstanding_before, interest_amount, late_fee)
+            ), inserted AS (
+                INSERT INTO bill_accrual (id, bill_id, accrual_date, outstanding_before, interest_amount, late_fee)
+                SELECT nextval('bill_accrual_seq'), i.bill_id, ?, i.outstanding_before, i.interest_amount, i.late_fee
+                FROM input i JOIN credit_card_bill b ON b.id = i.bill_id
+                WHERE b.payment_status IN ('UNPAID', 'PARTIAL')
+                ON CONFLICT (bill_id, accrual_date) DO NOTHING
+                RETURNING bill_id, interest_amount, late_fee
+            ), bills AS (
+                UPDATE credit_card_bill b
+                SET current_outstanding = b.current_outstanding + n.interest_amount + n.late_fee,
+                    accrued_interest = b.accrued_interest + n.interest_amount,
+                    late_fees_charged = b.late_fees_charged + n.late_fee,
+                    version = b.version + 1
+                FROM inserted n
+                WHERE b.id = n.bill_id
+                RETURNING b.card_id, n.interest_amount, n.late_fee
+            ), cards AS (
+                UPDATE card c
+                SET current_credit_used = c.current_credit_used + t.interest + t.fees
+                FROM (SELECT card_id, SUM(interest_amount) AS interest, SUM(late_fee) AS fees, COUNT(*) AS accruals
+                      FROM bills GROUP BY card_id) t
+                WHERE c.id = t.card_id
+                RETURNING c.id, t.interest, t.fees, t.accruals
+            )
+            SELECT id, interest, fees, accruals FROM cards
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardStateTable cardStateTable;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${billing.accrual.annual-interest-rate:0.42}")
+    private double annualInterestRate;
+
+    @Value("${billing.accrual.late-fee:500}")
+    private double lateFee;
+
+    @Value("${billing.accrual.partitions:4}")
+    private int partitions;
+
+    @Value("${billing.accrual.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${billing.accrual.batch-size:1000}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile AccrualRunStats lastRun = new AccrualRunStats();
+    private ExecutorService workerPool;
+    private TransactionTemplate cursorTemplate;
+    private TransactionTemplate batchTemplate;
+
+    // Per-partition totals; only touched by the partition's own worker
+    private static final class PartitionResult {
+        long scanned;
+        long posted;
+        long failedRows;
+        long failedBatches;
+        double interest;
+        double fees;
+    }
+
+    private record CardAccrual(long cardId, double interest, double fees, long accruals) {
+    }
+
+    @PostConstruct
+    void init() throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            checkPoolSize(partitions, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        workerPool = Executors.newFixedThreadPool(partitions);
+        // The cursor needs an open transaction to fetch in pages; batches commit on their own connection
+        cursorTemplate = new TransactionTemplate(transactionManager);
+        cursorTemplate.setReadOnly(true);
+        batchTemplate = new TransactionTemplate(transactionManager);
+        batchTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Each partition holds its cursor connection while a batch commits on a second one; leave at least one for requests
+    static void checkPoolSize(int partitions, int maximumPoolSize) {
+        if (2 * partitions >= maximumPoolSize) {
+            throw new IllegalStateException("billing.accrual.partitions=" + partitions + " needs " + 2 * partitions
+                    + " connections, more than the pool of " + maximumPoolSize + " can spare; raise "
+                    + "spring.datasource.hikari.maximum-pool-size or lower the partitions");
+        }
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workerPool.shutdown();
+    }
+
+    @Scheduled(cron = "${billing.accrual.cron:0 0 3 * * *}")
+    public void runDaily() {
+        accrue(LocalDate.now());
+    }
+
+    public AccrualRunStats accrue(LocalDate accrualDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Accrual run for {} skipped: another run is in progress", accrualDate);
+            return lastRun;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            double dailyRate = annualInterestRate / 365;
+
+            List<Future<PartitionResult>> futures = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                int p = partition;
+                futures.add(workerPool.submit(() -> accruePartition(p, accrualDate, dailyRate)));
+            }
+            AccrualRunStats stats = new AccrualRunStats();
+            stats.setAccrualDate(accrualDate);
+            stats.setStartedAt(startedAt);
+            stats.setPartitions(partitions);
+            long failedRows = 0;
+            for (Future<PartitionResult> future : futures) {
+                try {
+                    PartitionResult result = future.get();
+                    stats.setBillsScanned(stats.getBillsScanned() + result.scanned);
+                    stats.setAccrualsPosted(stats.getAccrualsPosted() + result.posted);
+                    stats.setFailedBatches(stats.getFailedBatches() + result.failedBatches);
+                    stats.setInterestPosted(stats.getInterestPosted() + result.interest);
+                    stats.setLateFeesPosted(stats.getLateFeesPosted() + result.fees);
+                    failedRows += result.failedRows;
+                } catch (ExecutionException e) {
+                    // The partition's cursor failed; batches it committed stay, a re-run picks up the rest
+                    stats.setFailedBatches(stats.getFailedBatches() + 1);
+                    log.error("Accrual partition failed for {}: {}", accrualDate, e.getCause().getMessage());
+                }
+            }
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            stats.setSkipped(stats.getBillsScanned() - stats.getAccrualsPosted() - failedRows);
+            stats.setDurationMillis(durationMillis);
+            stats.setRowsPerSecond(durationMillis == 0 ? stats.getBillsScanned() : stats.getBillsScanned() * 1000.0 / durationMillis);
+            lastRun = stats;
+
+            log.info("Accrual run for {} scanned {} overdue bills and posted {} accruals in {} ms ({} rows/s), {} failed batches",
+                    accrualDate, stats.getBillsScanned(), stats.getAccrualsPosted(), durationMillis,
+                    Math.round(stats.getRowsPerSecond()), stats.getFailedBatches());
+            return stats;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public AccrualRunStats getLastRun() {
+        return lastRun;
+    }
+
+    private PartitionResult accruePartition(int partition, LocalDate accrualDate, double dailyRate) {
+        PartitionResult result = new PartitionResult();
+        long[] billIds = new long[batchSize];
+        double[] outstanding = new double[batchSize];
+        double[] interest = new double[batchSize];
+        double[] fees = new double[batchSize];
+        int[] size = new int[1];
+
+        cursorTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(OVERDUE_BILLS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, accrualDate);
+            statement.setInt(2, partitions);
+            statement.setInt(3, partition);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            int i = size[0]++;
+            double balance = rs.getDouble(2);
+            billIds[i] = rs.getLong(1);
+            outstanding[i] = balance;
+            interest[i] = Math.round(balance * dailyRate * 100) / 100.0;
+            fees[i] = rs.getDouble(3) == 0 ? lateFee : 0; // Late fee is charged once per bill
+            result.scanned++;
+            if (size[0] == batchSize) {
+                postBatch(accrualDate, billIds, outstanding, interest, fees, size[0], result);
+                size[0] = 0;
+            }
+        }));
+        if (size[0] > 0) {
+            postBatch(accrualDate, billIds, outstanding, interest, fees, size[0], result);
+        }
+        return result;
+    }
+
+    private void postBatch(LocalDate accrualDate, long[] billIds, double[] outstanding, double[] interest, double[] fees,
+                           int count, PartitionResult result) {
+        Long[] ids = new Long[count];
+        Double[] balances = new Double[count];
+        Double[] interestAmounts = new Double[count];
+        Double[] lateFees = new Double[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = billIds[i];
+            balances[i] = outstanding[i];
+            interestAmounts[i] = interest[i];
+            lateFees[i] = fees[i];
+        }
+
+        List<CardAccrual> posted = new ArrayList<>();
+        try {
+            batchTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(POST_ACCRUALS_SQL);
+                statement.setArray(1, connection.createArrayOf("bigint", ids));
+                statement.setArray(2, connection.createArrayOf("float8", balances));
+                statement.setArray(3, connection.createArrayOf("float8", interestAmounts));
+                statement.setArray(4, connection.createArrayOf("float8", lateFees));
+                statement.setObject(5, accrualDate);
+                return statement;
+            }, (RowCallbackHandler) rs -> posted.add(new CardAccrual(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getLong(4)))));
+        } catch (RuntimeException e) {
+            // Nothing from this batch committed; its bills accrue when the date is re-run
+            result.failedRows += count;
+            result.failedBatches++;
+            log.error("Accrual batch of {} bills failed for {}: {}", count, accrualDate, e.getMessage());
+            return;
+        }
+        // Committed: keep the authorization table's used credit in step with the card rows
+        for (CardAccrual accrual : posted) {
+            cardStateTable.addCreditUsed(accrual.cardId(), toMinor(accrual.interest() + accrual.fees()));
+            result.posted += accrual.accruals();
+            result.interest += accrual.interest();
+            result.fees += accrual.fees();
+        }
+    }
+}
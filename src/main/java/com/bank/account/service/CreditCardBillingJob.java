@@ -0,0 +1,193 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.BatchJobCheckpoint;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.CreditCardBill;
+import com.bank.account.entity.CreditCardBillLineItem;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CreditCardBillLineItemRepository;
+import com.bank.account.repository.CreditCardBillRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates the bills of every credit card whose cycle closes today. The day's card ids come from
+ * {@link BillingDayIndex} in keyset order and are partitioned into chunks billed in parallel, one transaction and one batched insert per chunk.
+ * Cards that already have a bill for the date are skipped, so re-runs and resumed runs are harmless. The checkpoint
+ * never moves past a failed chunk, and a run with failures stays RUNNING so the next scheduled run retries it.
+ */
+@Component
+public class CreditCardBillingJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditCardBillingJob.class);
+    static final String JOB_NAME = "CREDIT_CARD_BILLING";
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CreditCardBillRepository creditCardBillRepository;
+
+    @Autowired
+    private CreditCardBillLineItemRepository creditCardBillLineItemRepository;
+
+    @Autowired
+    private CreditCardStatementCalculator creditCardStatementCalculator;
+
+    @Autowired
+    private BillingDayIndex billingDayIndex;
+
+    @Autowired
+    private BatchJobCheckpointService batchJobCheckpointService;
+
+    @Autowired
+    private BillingCycleReconciliationJob billingCycleReconciliationJob;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${billing.job.workers:4}")
+    private int workers;
+
+    @Value("${billing.job.chunk-size:500}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService workerPool;
+
+    @PostConstruct
+    void startWorkers() {
+        workerPool = Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workerPool.shutdown();
+    }
+
+    // Bills the cycles that closed yesterday, so postings made on the billing day itself are included
+    @Scheduled(cron = "${billing.job.cron:0 0 1 * * *}")
+    public void runDaily() {
+        billingCycleReconciliationJob.reconcile(); // Bills start from the accumulators, so correct any drift first
+        billingDayIndex.sync(); // Pick up cards issued or moved on other instances since the last run
+        LocalDate billingDate = LocalDate.now().minusDays(1);
+        batchJobCheckpointService.findUnfinishedRuns(JOB_NAME).stream()
+                .map(BatchJobCheckpoint::getRunDate)
+                .filter(runDate -> runDate.isBefore(billingDate))
+                .forEach(this::generateBills);
+        generateBills(billingDate);
+    }
+
+    // Pick up runs that were interrupted by a shutdown
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(() -> batchJobCheckpointService.findUnfinishedRuns(JOB_NAME)
+                .forEach(checkpoint -> generateBills(checkpoint.getRunDate())));
+    }
+
+    public void generateBills(LocalDate billingDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Billing run for {} skipped: another run is in progress", billingDate);
+            return;
+        }
+        try {
+            BatchJobCheckpoint checkpoint = batchJobCheckpointService.begin(JOB_NAME, billingDate);
+            List<Integer> billDays = BillingCycle.billGenerationDaysOn(billingDate);
+            long lastId = checkpoint.getLastProcessedId();
+            long resumeFrom = lastId; // End of the unbroken run of committed chunks; only this is checkpointed
+            boolean gap = false;
+            long billed = 0;
+            long failed = 0;
+            List<Long> wave;
+            do {
+                wave = billingDayIndex.findCardIds(billDays, lastId, workers * chunkSize);
+                if (wave.isEmpty()) {
+                    break;
+                }
+                List<Future<Integer>> results = new ArrayList<>();
+                List<List<Long>> chunks = new ArrayList<>();
+                for (int from = 0; from < wave.size(); from += chunkSize) {
+                    List<Long> chunk = wave.subList(from, Math.min(from + chunkSize, wave.size()));
+                    results.add(workerPool.submit(() -> transactionTemplate.execute(status -> billChunk(chunk, billDays, billingDate))));
+                    chunks.add(chunk);
+                }
+                long waveBilled = 0;
+                long waveFailed = 0;
+                for (int i = 0; i < results.size(); i++) {
+                    List<Long> chunk = chunks.get(i);
+                    try {
+                        waveBilled += results.get(i).get();
+                        if (!gap) {
+                            resumeFrom = chunk.get(chunk.size() - 1);
+                        }
+                    } catch (ExecutionException e) {
+                        // The chunk rolled back; later chunks still run but the resume point stays before it
+                        gap = true;
+                        waveFailed += chunk.size();
+                        log.error("Billing chunk of cards {}-{} failed for {}: {}", chunk.get(0), chunk.get(chunk.size() - 1),
+                                billingDate, e.getCause().getMessage());
+                    }
+                }
+                lastId = wave.get(wave.size() - 1);
+                batchJobCheckpointService.advance(checkpoint.getId(), resumeFrom, waveBilled, waveFailed);
+                billed += waveBilled;
+                failed += waveFailed;
+            } while (wave.size() == workers * chunkSize);
+
+            if (failed == 0) {
+                batchJobCheckpointService.complete(checkpoint.getId());
+                log.info("Billing run for {} generated {} bills", billingDate, billed);
+            } else {
+                log.warn("Billing run for {} generated {} bills, {} cards failed; the run stays open and is retried from card {}",
+                        billingDate, billed, failed, resumeFrom);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int billChunk(List<Long> cardIds, List<Integer> billDays, LocalDate billingDate) {
+        Set<Long> alreadyBilled = creditCardBillRepository.findBilledCardIds(billingDate, cardIds);
+        List<CreditCardBill> bills = new ArrayList<>();
+        List<CreditCardBillLineItem> lineItems = new ArrayList<>();
+        for (Card card : cardRepository.findAllById(cardIds)) {
+            // The index can lag a bill day change made on another instance; the card row is authoritative
+            if (!alreadyBilled.contains(card.getId()) && billDays.contains(card.getBillGenerationDay())) {
+                BillingCycle cycle = BillingCycle.closedOn(card.getBillGenerationDay(), billingDate);
+                CreditCardBill bill = creditCardStatementCalculator.calculate(card, cycle);
+                bills.add(bill);
+                lineItems.addAll(creditCardStatementCalculator.snapshotLineItems(bill, cycle));
+            }
+        }
+        creditCardBillRepository.saveAll(bills);
+        creditCardBillLineItemRepository.saveAll(lineItems);
+        return bills.size();
+    }
+}
@@ -1,5 +1,9 @@
 package com.bank.account.service;
 
+import com.bank.account.dto.AccrualRunStats;
+import com.bank.account.dto.BillAccrualView;
+import com.bank.account.dto.BillLineItemView;
+import com.bank.account.dto.CreditCardBillView;
 import com.bank.account.dto.PaymentOption;
 import com.bank.account.entity.CreditCardBill;
 
@@ -10,8 +14,12 @@ public interface CreditCardBillingService {
 
     CreditCardBill generateMonthlyStatement(String cardNumber);
     CreditCardBill generateBill(String cardNumber);
-    CreditCardBill getBillDetails(Long billId);
-    List<CreditCardBill> getBillingHistory(String cardNumber);
+    CreditCardBillView getBillDetails(Long billId);
+    List<BillLineItemView> getBillLineItems(Long billId); // Snapshot taken when the bill was generated
+    List<CreditCardBillView> getBillingHistory(String cardNumber);
     CreditCardBill payBill(String cardNumber, PaymentOption paymentOption, double amount);
     void changeBillGenerationDate(String cardNumber, int dayOfMonth);
+    List<BillAccrualView> getBillAccruals(Long billId);
+    AccrualRunStats runAccruals(LocalDate accrualDate); // Safe to repeat for the same date
+    AccrualRunStats getLastAccrualRun();
 }
@@ -1,6 +1,10 @@
 package com.bank.account.service;
 
+import com.bank.account.dto.AccrualRunStats;
+import com.bank.account.dto.BillAccrualView;
+import com.bank.account.dto.BillLineItemView;
 import com.bank.account.dto.CardType;
+import com.bank.account.dto.CreditCardBillView;
 import com.bank.account.dto.PaymentOption;
 import com.bank.account.dto.PaymentStatus;
 import com.bank.account.entity.Card;
@@ -9,17 +13,19 @@ import com.bank.account.entity.Transaction;
 import com.bank.account.exception.InsufficientFundsException;
 import com.bank.account.exception.InvalidInputException;
 import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.BillAccrualRepository;
 import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CreditCardBillLineItemRepository;
 import com.bank.account.repository.CreditCardBillRepository;
-import com.bank.account.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static com.bank.account.service.CardStateTable.toMinor;
 
 @Service
 public class CreditCardBillingServiceImpl implements CreditCardBillingService {
@@ -31,26 +37,36 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
     private CreditCardBillRepository creditCardBillRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private CreditCardStatementCalculator creditCardStatementCalculator;
 
     @Autowired
-    private AccountService accountService; // To interact with account for payments
+    private CreditCardBillLineItemRepository creditCardBillLineItemRepository;
+
+    @Autowired
+    private BillingCycleAccumulatorService billingCycleAccumulatorService;
+
+    @Autowired
+    private CardStateTable cardStateTable;
+
+    @Autowired
+    private BillingDayIndex billingDayIndex;
 
-    private static final int PAYMENT_DUE_DAYS = 15; // Pay before 15 days from bill generation date
+    @Autowired
+    private BillAccrualRepository billAccrualRepository;
+
+    @Autowired
+    private CreditCardAccrualJob creditCardAccrualJob;
+
+    @Autowired
+    private AccountService accountService; // To interact with account for payments
 
     @Override
     public CreditCardBill generateMonthlyStatement(String cardNumber) {
         Card card = getCreditCard(cardNumber);
-        LocalDate today = LocalDate.now();
-        LocalDate billingDate = today.withDayOfMonth(card.getBillGenerationDay());
-
-        // If today is before the billing day, generate for previous month
-        if (today.getDayOfMonth() < card.getBillGenerationDay()) {
-            billingDate = billingDate.minusMonths(1);
-        }
+        BillingCycle cycle = lastClosedCycle(card);
 
         // Check if a bill for this billing cycle already exists
-        return creditCardBillRepository.findByCard_CardNumberAndBillingDate(cardNumber, billingDate)
+        return creditCardBillRepository.findByCard_CardNumberAndBillingDate(cardNumber, cycle.billingDate())
                 .orElseGet(() -> generateBill(cardNumber)); // Generate if not exists
     }
 
@@ -58,66 +74,54 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
     @Transactional
     public CreditCardBill generateBill(String cardNumber) {
         Card card = getCreditCard(cardNumber);
-        LocalDate today = LocalDate.now();
-        LocalDate billingDate = today.withDayOfMonth(card.getBillGenerationDay());
+        BillingCycle cycle = lastClosedCycle(card);
+        // One bill per (card, billing date); the billing job may already have produced it
+        return creditCardBillRepository.findByCard_CardNumberAndBillingDate(cardNumber, cycle.billingDate())
+                .orElseGet(() -> {
+                    CreditCardBill bill = creditCardBillRepository.save(creditCardStatementCalculator.calculate(card, cycle));
+                    creditCardBillLineItemRepository.saveAll(creditCardStatementCalculator.snapshotLineItems(bill, cycle));
+                    return bill;
+                });
+    }
 
-        // If today is before the billing day, generate for previous month
-        if (today.getDayOfMonth() < card.getBillGenerationDay()) {
-            billingDate = billingDate.minusMonths(1);
-        }
+    @Override
+    public List<BillAccrualView> getBillAccruals(Long billId) {
+        return billAccrualRepository.findViewsByBillId(billId);
+    }
 
-        // Define the statement period (e.g., from previous billing date + 1 day to current billing date)
-        LocalDate previousBillingDate = billingDate.minusMonths(1).withDayOfMonth(card.getBillGenerationDay());
-        LocalDate statementStartDate = previousBillingDate.plusDays(1);
-        LocalDate statementEndDate = billingDate;
-
-        List<Transaction> cardTransactions = transactionRepository.findByAccount_AccountNumber(card.getAccount().getAccountNumber())
-                .stream()
-                .filter(t -> t.getDate().toLocalDate().isAfter(statementStartDate.minusDays(1)) &&
-                             t.getDate().toLocalDate().isBefore(statementEndDate.plusDays(1)))
-                .filter(t -> t.getDescription().contains(cardNumber)) // Assuming card transactions are marked
-                .collect(Collectors.toList());
-
-        double totalAmountDue = cardTransactions.stream()
-                .filter(t -> t.getTransactionType().equals("DEBIT") || t.getTransactionType().equals("TRANSFER")) // Assuming these are charges
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        // Payments made during the cycle reduce the outstanding
-        double paymentsMade = cardTransactions.stream()
-                .filter(t -> t.getTransactionType().equals("CREDIT")) // Assuming these are payments
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        totalAmountDue -= paymentsMade;
-        double minimumAmountDue = calculateMinimumAmountDue(totalAmountDue); // Implement your logic for min amount
-        double currentOutstanding = totalAmountDue; // At bill generation, outstanding is total due
-
-        CreditCardBill bill = new CreditCardBill();
-        bill.setCard(card);
-        bill.setBillingDate(billingDate);
-        bill.setDueDate(billingDate.plusDays(PAYMENT_DUE_DAYS));
-        bill.setTotalAmountDue(totalAmountDue);
-        bill.setMinimumAmountDue(minimumAmountDue);
-        bill.setCurrentOutstanding(currentOutstanding);
-        bill.setPaymentStatus(PaymentStatus.UNPAID);
-
-        // Update card's currentCreditUsed
-        card.setCurrentCreditUsed(currentOutstanding);
-        cardRepository.save(card);
+    @Override
+    public AccrualRunStats runAccruals(LocalDate accrualDate) {
+        // A future date would charge interest for days that have not happened yet
+        if (accrualDate.isAfter(LocalDate.now())) {
+            throw new InvalidInputException("Accrual date cannot be in the future: " + accrualDate);
+        }
+        return creditCardAccrualJob.accrue(accrualDate);
+    }
 
-        return creditCardBillRepository.save(bill);
+    @Override
+    public AccrualRunStats getLastAccrualRun() {
+        return creditCardAccrualJob.getLastRun();
     }
 
     @Override
-    public CreditCardBill getBillDetails(Long billId) {
-        return creditCardBillRepository.findById(billId)
+    public CreditCardBillView getBillDetails(Long billId) {
+        return creditCardBillRepository.findViewById(billId)
                 .orElseThrow(() -> new ResourceNotFoundException("Credit Card Bill not found with ID: " + billId));
     }
 
     @Override
-    public List<CreditCardBill> getBillingHistory(String cardNumber) {
-        return creditCardBillRepository.findByCard_CardNumberOrderByBillingDateDesc(cardNumber);
+    public List<BillLineItemView> getBillLineItems(Long billId) {
+        List<BillLineItemView> lineItems = creditCardBillLineItemRepository.findViewsByBillId(billId);
+        // An empty snapshot is a bill with no activity only if the bill exists
+        if (lineItems.isEmpty() && !creditCardBillRepository.existsById(billId)) {
+            throw new ResourceNotFoundException("Credit Card Bill not found with ID: " + billId);
+        }
+        return lineItems;
+    }
+
+    @Override
+    public List<CreditCardBillView> getBillingHistory(String cardNumber) {
+        return creditCardBillRepository.findViewsByCardNumber(cardNumber);
     }
 
     @Override
@@ -126,7 +130,7 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
         Card card = getCreditCard(cardNumber);
 
         // Find the latest unpaid or partially paid bill
-        CreditCardBill latestBill = creditCardBillRepository.findTopByCard_CardNumberAndPaymentStatusNotOrderByBillingDateDesc(cardNumber, PaymentStatus.PAID)
+        CreditCardBill latestBill = creditCardBillRepository.findFirstByCard_IdAndPaymentStatusNotOrderByBillingDateDesc(card.getId(), PaymentStatus.PAID)
                 .orElseThrow(() -> new ResourceNotFoundException("No outstanding bill found for card: " + cardNumber));
 
         double amountToPay = 0;
@@ -149,14 +153,14 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
             throw new InvalidInputException("Payment amount must be positive.");
         }
 
-        // Perform the payment from the linked account
+        // One debit on the funding account, linked to the card so it counts as a payment on the statement.
         // This will throw InsufficientFundsException if balance is low
-        accountService.withdraw(card.getAccount().getAccountNumber(), amountToPay);
+        Transaction payment = accountService.debit(card.getAccount().getAccountNumber(), amountToPay, "CARD_PAYMENT",
+                "Payment to credit card " + cardNumber, card);
 
-        // Record the payment as a transaction
-        // This is a payment to the card, so it's a credit to the card's balance
-        // The description should reflect this is a bill payment
-        accountService.deposit(card.getAccount().getAccountNumber(), amountToPay);
+        cardRepository.reduceCreditUsed(card.getId(), amountToPay);
+        billingCycleAccumulatorService.recordPayment(card, amountToPay, payment.getDate().toLocalDate());
+        cardStateTable.addCreditUsedAfterCommit(card.getId(), -toMinor(amountToPay));
 
         // Update the bill status
         latestBill.setCurrentOutstanding(latestBill.getCurrentOutstanding() - amountToPay);
@@ -167,11 +171,7 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
             latestBill.setPaymentStatus(PaymentStatus.PARTIAL);
         }
 
-        // Update card's currentCreditUsed
-        card.setCurrentCreditUsed(card.getCurrentCreditUsed() - amountToPay);
-        cardRepository.save(card);
-
-        return creditCardBillRepository.save(latestBill);
+        return latestBill; // Flushed together with the posting at commit
     }
 
     @Override
@@ -182,7 +182,9 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
         }
         Card card = getCreditCard(cardNumber);
         card.setBillGenerationDay(dayOfMonth);
+        card.setBillingDayChangedAt(LocalDateTime.now()); // Other instances' indexes pick the move up from this
         cardRepository.save(card);
+        billingDayIndex.assignAfterCommit(card.getId(), dayOfMonth);
     }
 
     private Card getCreditCard(String cardNumber) {
@@ -194,8 +196,8 @@ public class CreditCardBillingServiceImpl implements CreditCardBillingService {
         return card;
     }
 
-    private double calculateMinimumAmountDue(double totalAmountDue) {
-        // Example: 5% of total amount due, or a flat fee, whichever is higher
-        return Math.max(totalAmountDue * 0.05, 50.00); // Minimum $50 or 5%
+    // Same cycle the billing job bills: one that closed before today, so no posting can still land in it
+    private BillingCycle lastClosedCycle(Card card) {
+        return BillingCycle.closedOn(card.getBillGenerationDay(), LocalDate.now().minusDays(1));
     }
 }
@@ -0,0 +1,70 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardCycleTotals;
+import com.bank.account.dto.PaymentStatus;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.CreditCardBill;
+import com.bank.account.entity.CreditCardBillLineItem;
+import com.bank.account.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Builds an unsaved bill for one card and cycle from the cycle's accumulator row
+@Component
+public class CreditCardStatementCalculator {
+
+    static final int PAYMENT_DUE_DAYS = 15; // Pay before 15 days from bill generation date
+    static final List<String> CHARGE_TRANSACTION_TYPES = List.of("DEBIT", "TRANSFER");
+    static final List<String> PAYMENT_TRANSACTION_TYPES = List.of("CREDIT", "CARD_PAYMENT");
+    static final List<String> STATEMENT_TRANSACTION_TYPES = Stream.concat(
+            CHARGE_TRANSACTION_TYPES.stream(), PAYMENT_TRANSACTION_TYPES.stream()).toList();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BillingCycleAccumulatorService billingCycleAccumulatorService;
+
+    // Must run inside the transaction that saves the bill, which also closes the cycle's accumulator
+    public CreditCardBill calculate(Card card, BillingCycle cycle) {
+        CardCycleTotals totals = billingCycleAccumulatorService.getTotals(card.getId(), cycle)
+                .orElseGet(() -> aggregate(card.getId(), cycle)); // No postings yet, or a cycle older than the accumulators
+        billingCycleAccumulatorService.closeCycle(card.getId(), cycle);
+
+        // Payments made during the cycle reduce the outstanding
+        double totalAmountDue = totals.getCharges() - totals.getPayments();
+
+        CreditCardBill bill = new CreditCardBill();
+        bill.setCard(card);
+        bill.setBillingDate(cycle.billingDate());
+        bill.setDueDate(cycle.billingDate().plusDays(PAYMENT_DUE_DAYS));
+        bill.setTotalAmountDue(totalAmountDue);
+        bill.setMinimumAmountDue(calculateMinimumAmountDue(totalAmountDue));
+        bill.setCurrentOutstanding(totalAmountDue); // At bill generation, outstanding is total due
+        bill.setPaymentStatus(PaymentStatus.UNPAID);
+        return bill;
+    }
+
+    // Line items are saved after the bill itself and never change afterwards
+    public List<CreditCardBillLineItem> snapshotLineItems(CreditCardBill bill, BillingCycle cycle) {
+        List<CreditCardBillLineItem> lineItems = transactionRepository.findStatementLines(bill.getCard().getId(),
+                cycle.statementStartDate().atStartOfDay(), cycle.statementEndDate().plusDays(1).atStartOfDay(),
+                STATEMENT_TRANSACTION_TYPES);
+        lineItems.forEach(lineItem -> lineItem.setBill(bill));
+        return lineItems;
+    }
+
+    public CardCycleTotals aggregate(Long cardId, BillingCycle cycle) {
+        return transactionRepository.sumCardCycle(cardId,
+                cycle.statementStartDate().atStartOfDay(), cycle.statementEndDate().plusDays(1).atStartOfDay(),
+                CHARGE_TRANSACTION_TYPES, PAYMENT_TRANSACTION_TYPES);
+    }
+
+    private double calculateMinimumAmountDue(double totalAmountDue) {
+        // Example: 5% of total amount due, or a flat fee, whichever is higher
+        return Math.max(totalAmountDue * 0.05, 50.00); // Minimum $50 or 5%
+    }
+}
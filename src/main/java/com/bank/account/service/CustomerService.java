@@ -1,5 +1,6 @@
 package com.bank.account.service;
 
+import com.bank.account.dto.CustomerView;
 import com.bank.account.entity.Customer;
 
 import java.util.List;
@@ -9,9 +10,9 @@ public interface CustomerService {
 
     Customer createCustomer(Customer customer);
 
-    Optional<Customer> getCustomerById(Long id);
+    Optional<CustomerView> getCustomerById(Long id);
 
-    List<Customer> getAllCustomers();
+    List<CustomerView> getAllCustomers();
 
     Customer updateCustomer(Long id, Customer customerDetails);
 
@@ -1,5 +1,6 @@
 package com.bank.account.service;
 
+import com.bank.account.dto.CustomerView;
 import com.bank.account.entity.Customer;
 import com.bank.account.exception.ResourceNotFoundException;
 import com.bank.account.repository.CustomerRepository;
@@ -21,19 +22,18 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public Optional<Customer> getCustomerById(Long id) {
-        return customerRepository.findById(id).filter(Customer::isActive);
+    public Optional<CustomerView> getCustomerById(Long id) {
+        return customerRepository.findActiveViewById(id);
     }
 
     @Override
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findByActive(true);
+    public List<CustomerView> getAllCustomers() {
+        return customerRepository.findActiveViews();
     }
 
     @Override
     public Customer updateCustomer(Long id, Customer customerDetails) {
-        Customer customer = getCustomerById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + id));
+        Customer customer = getActiveCustomer(id);
 
         customer.setName(customerDetails.getName());
         customer.setDob(customerDetails.getDob());
@@ -45,17 +45,20 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public void deleteCustomer(Long id) {
-        Customer customer = getCustomerById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + id));
+        Customer customer = getActiveCustomer(id);
         customer.setActive(false);
         customerRepository.save(customer);
     }
 
     @Override
     public Customer updateKyc(Long id, boolean kycCompleted) {
-        Customer customer = getCustomerById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + id));
+        Customer customer = getActiveCustomer(id);
         customer.setKycCompleted(kycCompleted);
         return customerRepository.save(customer);
     }
+
+    private Customer getActiveCustomer(Long id) {
+        return customerRepository.findById(id).filter(Customer::isActive)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + id));
+    }
 }
@@ -0,0 +1,111 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardSpendTotal;
+import com.bank.account.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Today's debit-card spend per card, in minor units. Seeded once from posted transactions at startup
+ * and then maintained in memory, so enforcing {@code dailyWithdrawalLimit} never runs an aggregate query.
+ * A counter from a previous day is replaced on first use after midnight.
+ */
+@Component
+public class DailySpendTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(DailySpendTracker.class);
+    static final List<String> CARD_DEBIT_TRANSACTION_TYPES = List.of("CARD_PURCHASE");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final ConcurrentHashMap<Long, DailyCounter> counters = new ConcurrentHashMap<>();
+
+    private record DailyCounter(LocalDate day, AtomicLong spentMinor) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        seed(LocalDate.now());
+    }
+
+    void seed(LocalDate today) {
+        List<CardSpendTotal> totals = transactionRepository.sumCardSpendSince(today.atStartOfDay(), CARD_DEBIT_TRANSACTION_TYPES);
+        // Added rather than set so authorizations that raced the seed are kept
+        totals.forEach(total -> counterFor(total.getCardId(), today).spentMinor().addAndGet(CardStateTable.toMinor(total.getAmount())));
+        log.info("Seeded daily card spend for {} cards", totals.size());
+    }
+
+    // A limit of zero means none is configured for the card
+    public boolean tryAdd(Long cardId, long amountMinor, long limitMinor) {
+        return tryAdd(cardId, amountMinor, limitMinor, LocalDate.now());
+    }
+
+    boolean tryAdd(Long cardId, long amountMinor, long limitMinor, LocalDate today) {
+        AtomicLong spent = counterFor(cardId, today).spentMinor();
+        if (limitMinor <= 0) {
+            spent.addAndGet(amountMinor);
+            return true;
+        }
+        while (true) {
+            long current = spent.get();
+            if (current + amountMinor > limitMinor) {
+                return false;
+            }
+            if (spent.compareAndSet(current, current + amountMinor)) {
+                return true;
+            }
+        }
+    }
+
+    // Gives back spend from a released or declined hold, if it still counts towards today
+    public void subtract(Long cardId, LocalDate day, long amountMinor) {
+        DailyCounter counter = counters.get(cardId);
+        if (counter != null && counter.day().equals(day)) {
+            counter.spentMinor().addAndGet(-amountMinor);
+        }
+    }
+
+    public double getSpentToday(Long cardId) {
+        return getSpentOn(cardId, LocalDate.now());
+    }
+
+    double getSpentOn(Long cardId, LocalDate day) {
+        DailyCounter counter = counters.get(cardId);
+        return counter == null || !counter.day().equals(day) ? 0 : CardStateTable.fromMinor(counter.spentMinor().get());
+    }
+
+    @Scheduled(cron = "${card.daily-spend.cleanup-cron:0 5 0 * * *}")
+    public void evictPreviousDays() {
+        evictPreviousDays(LocalDate.now());
+    }
+
+    void evictPreviousDays(LocalDate today) {
+        counters.values().removeIf(counter -> counter.day().isBefore(today));
+    }
+
+    private DailyCounter counterFor(Long cardId, LocalDate day) {
+        DailyCounter counter = counters.get(cardId);
+        while (counter == null || !counter.day().equals(day)) {
+            if (counter != null && counter.day().isAfter(day)) {
+                return counter; // Caller read the clock just before midnight
+            }
+            DailyCounter fresh = new DailyCounter(day, new AtomicLong());
+            if (counter == null ? counters.putIfAbsent(cardId, fresh) == null : counters.replace(cardId, counter, fresh)) {
+                return fresh;
+            }
+            counter = counters.get(cardId);
+        }
+        return counter;
+    }
+}
@@ -2,8 +2,9 @@ package com.bank.account.service;
 
 import com.bank.account.dto.EMIConversionRequest;
 import com.bank.account.dto.EMIOfferResponse;
+import com.bank.account.dto.EmiPlanView;
+import com.bank.account.dto.EmiScheduleView;
 import com.bank.account.entity.EMIPlan;
-import com.bank.account.entity.EMISchedule;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,8 +12,10 @@ import java.util.List;
 public interface EMIService {
 
     EMIOfferResponse getEmiOffers(Long transactionId);
+    List<EMIOfferResponse> getEmiOffersForCard(String cardNumber); // Every eligible purchase on the card
+    List<EMIOfferResponse> getEmiOffers(List<Long> transactionIds);
     EMIPlan convertToEmi(EMIConversionRequest request);
-    EMIPlan getEmiPlanDetails(Long emiPlanId);
-    List<EMISchedule> getEmiSchedule(Long emiPlanId);
+    EmiPlanView getEmiPlanDetails(Long emiPlanId);
+    List<EmiScheduleView> getEmiSchedule(Long emiPlanId);
     void processMonthlyEmiInstallments(LocalDate date); // Scheduled task
 }
@@ -3,23 +3,27 @@ package com.bank.account.service;
 import com.bank.account.dto.CardType;
 import com.bank.account.dto.EMIConversionRequest;
 import com.bank.account.dto.EMIOfferResponse;
+import com.bank.account.dto.EmiCandidate;
+import com.bank.account.dto.EmiPlanView;
+import com.bank.account.dto.EmiScheduleView;
 import com.bank.account.entity.*;
 import com.bank.account.exception.EmiConversionException;
 import com.bank.account.exception.InvalidInputException;
 import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.CardRepository;
 import com.bank.account.repository.EMIPlanRepository;
 import com.bank.account.repository.EMIScheduleRepository;
 import com.bank.account.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class EMIServiceImpl implements EMIService {
@@ -28,6 +32,7 @@ public class EMIServiceImpl implements EMIService {
     private static final double PROCESSING_FEE_PERCENTAGE = 0.025; // 2.5% processing fee
     private static final double MIN_TRANSACTION_AMOUNT_FOR_EMI = 1500.00;
     private static final int[] ALLOWED_TENURES = {3, 6, 9, 12, 18, 24}; // Example tenures
+    private static final List<String> EMI_ELIGIBLE_TRANSACTION_TYPES = List.of("DEBIT"); // Credit card purchases
 
     @Autowired
     private TransactionRepository transactionRepository;
@@ -39,7 +44,23 @@ public class EMIServiceImpl implements EMIService {
     private EMIScheduleRepository emiScheduleRepository;
 
     @Autowired
-    private AccountService accountService; // To process EMI payments
+    private EmiScheduleCalculator emiScheduleCalculator;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private EmiInstallmentJob emiInstallmentJob; // To process EMI payments
+
+    private double[] tenureFactors; // Monthly installment per unit of principal, aligned with ALLOWED_TENURES
+
+    @PostConstruct
+    void precomputeTenureFactors() {
+        tenureFactors = new double[ALLOWED_TENURES.length];
+        for (int t = 0; t < ALLOWED_TENURES.length; t++) {
+            tenureFactors[t] = emiScheduleCalculator.amortization(INTEREST_RATE, ALLOWED_TENURES[t]).installmentFactor();
+        }
+    }
 
     @Override
     public EMIOfferResponse getEmiOffers(Long transactionId) {
@@ -53,37 +74,72 @@ public class EMIServiceImpl implements EMIService {
             throw new EmiConversionException("Transaction already converted to EMI.");
         }
 
-        EMIOfferResponse response = new EMIOfferResponse();
-        response.setTransactionId(transactionId);
-        response.setOriginalAmount(transaction.getAmount());
+        return buildOffers(List.of(new EmiCandidate(transactionId, transaction.getAmount()))).get(0);
+    }
 
-        double processingFee = transaction.getAmount() * PROCESSING_FEE_PERCENTAGE;
-        response.setProcessingFee(processingFee);
+    @Override
+    public List<EMIOfferResponse> getEmiOffersForCard(String cardNumber) {
+        Card card = cardRepository.findByCardNumber(cardNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found with number: " + cardNumber));
+        if (card.getCardType() != CardType.CREDIT) {
+            throw new InvalidInputException("EMI offers are only available on credit cards: " + cardNumber);
+        }
+        return buildOffers(transactionRepository.findEmiCandidatesByCard(card.getId(), EMI_ELIGIBLE_TRANSACTION_TYPES,
+                MIN_TRANSACTION_AMOUNT_FOR_EMI));
+    }
 
-        List<EMIOfferResponse.EMIOption> emiOptions = new ArrayList<>();
+    @Override
+    public List<EMIOfferResponse> getEmiOffers(List<Long> transactionIds) {
+        // Ineligible or unknown ids are simply left out of the result
+        return buildOffers(transactionRepository.findEmiCandidatesByIdIn(transactionIds, EMI_ELIGIBLE_TRANSACTION_TYPES,
+                MIN_TRANSACTION_AMOUNT_FOR_EMI));
+    }
 
-        for (int tenure : ALLOWED_TENURES) {
-            double principal = transaction.getAmount() + processingFee;
-            double monthlyInterestRate = INTEREST_RATE / 12;
-            double monthlyInstallment = (principal * monthlyInterestRate) /
-                                        (1 - Math.pow(1 + monthlyInterestRate, -tenure));
-            double totalPayable = monthlyInstallment * tenure;
+    // Offers for all candidates at once: one pass per tenure over flat arrays, no per-offer pow()
+    private List<EMIOfferResponse> buildOffers(List<EmiCandidate> candidates) {
+        int count = candidates.size();
+        int tenures = ALLOWED_TENURES.length;
+        double[] principals = new double[count];
+        for (int i = 0; i < count; i++) {
+            double amount = candidates.get(i).getAmount();
+            principals[i] = amount + amount * PROCESSING_FEE_PERCENTAGE;
+        }
+        double[] installments = new double[tenures * count];
+        for (int t = 0; t < tenures; t++) {
+            double factor = tenureFactors[t];
+            int offset = t * count;
+            for (int i = 0; i < count; i++) {
+                installments[offset + i] = principals[i] * factor;
+            }
+        }
 
-            EMIOfferResponse.EMIOption option = new EMIOfferResponse.EMIOption();
-            option.setTenureMonths(tenure);
-            option.setInterestRate(INTEREST_RATE * 100); // Display as percentage
-            option.setMonthlyInstallment(monthlyInstallment);
-            option.setTotalPayable(totalPayable);
-            emiOptions.add(option);
+        List<EMIOfferResponse> offers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            EmiCandidate candidate = candidates.get(i);
+            EMIOfferResponse response = new EMIOfferResponse();
+            response.setTransactionId(candidate.getTransactionId());
+            response.setOriginalAmount(candidate.getAmount());
+            response.setProcessingFee(candidate.getAmount() * PROCESSING_FEE_PERCENTAGE);
+            List<EMIOfferResponse.EMIOption> emiOptions = new ArrayList<>(tenures);
+            for (int t = 0; t < tenures; t++) {
+                double monthlyInstallment = installments[t * count + i];
+                EMIOfferResponse.EMIOption option = new EMIOfferResponse.EMIOption();
+                option.setTenureMonths(ALLOWED_TENURES[t]);
+                option.setInterestRate(INTEREST_RATE * 100); // Display as percentage
+                option.setMonthlyInstallment(monthlyInstallment);
+                option.setTotalPayable(monthlyInstallment * ALLOWED_TENURES[t]);
+                emiOptions.add(option);
+            }
+            response.setEmiOptions(emiOptions);
+            offers.add(response);
         }
-        response.setEmiOptions(emiOptions);
-        return response;
+        return offers;
     }
 
     @Override
     @Transactional
     public EMIPlan convertToEmi(EMIConversionRequest request) {
-        Transaction originalTransaction = transactionRepository.findById(request.getTransactionId())
+        Transaction originalTransaction = transactionRepository.findWithAccountById(request.getTransactionId())
                 .orElseThrow(() -> new ResourceNotFoundException("Original transaction not found with ID: " + request.getTransactionId()));
 
         if (originalTransaction.getAmount() < MIN_TRANSACTION_AMOUNT_FOR_EMI) {
@@ -96,18 +152,15 @@ public class EMIServiceImpl implements EMIService {
             throw new InvalidInputException("Invalid EMI tenure. Allowed tenures are: " + Arrays.toString(ALLOWED_TENURES));
         }
 
-        Card card = originalTransaction.getAccount().getCustomer().getAccounts().stream()
-                .flatMap(account -> account.getCards().stream())
-                .filter(c -> c.getCardType() == CardType.CREDIT)
+        // One query for the card instead of walking customer -> accounts -> cards through lazy collections
+        Long customerId = originalTransaction.getAccount().getCustomer().getId();
+        Card card = cardRepository.findCreditCardsForCustomer(customerId, Limit.of(1)).stream()
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Credit card not found for the account linked to transaction ID: " + request.getTransactionId()));
 
         double processingFee = originalTransaction.getAmount() * PROCESSING_FEE_PERCENTAGE;
         double principalAmountForEmi = originalTransaction.getAmount() + processingFee;
-        double monthlyInterestRate = INTEREST_RATE / 12;
-
-        double monthlyInstallment = (principalAmountForEmi * monthlyInterestRate) /
-                                    (1 - Math.pow(1 + monthlyInterestRate, -request.getTenureMonths()));
+        double monthlyInstallment = emiScheduleCalculator.monthlyInstallment(principalAmountForEmi, INTEREST_RATE, request.getTenureMonths());
         double totalPayableAmount = monthlyInstallment * request.getTenureMonths();
 
         // Create EMI Plan
@@ -123,27 +176,13 @@ public class EMIServiceImpl implements EMIService {
         emiPlan.setStartDate(LocalDate.now());
         emiPlan.setEndDate(LocalDate.now().plusMonths(request.getTenureMonths()));
         emiPlan.setStatus("ACTIVE");
+        emiPlan.setRemainingInstallments(request.getTenureMonths());
 
-        // Generate EMI Schedule
-        List<EMISchedule> emiSchedules = new ArrayList<>();
-        double remainingPrincipal = principalAmountForEmi;
-        for (int i = 1; i <= request.getTenureMonths(); i++) {
-            double interestComponent = remainingPrincipal * monthlyInterestRate;
-            double principalComponent = monthlyInstallment - interestComponent;
-
-            EMISchedule schedule = new EMISchedule();
-            schedule.setEmiPlan(emiPlan);
-            schedule.setInstallmentNumber(i);
-            schedule.setPrincipalAmount(principalComponent);
-            schedule.setInterestAmount(interestComponent);
-            schedule.setTotalInstallmentAmount(monthlyInstallment);
-            schedule.setDueDate(LocalDate.now().plusMonths(i));
-            schedule.setStatus("PENDING");
-            emiSchedules.add(schedule);
-
-            remainingPrincipal -= principalComponent;
-        }
-        emiPlan.setEmiSchedule(emiSchedules);
+        // The schedule is computed from these terms; rows are only stored for exceptions
+        emiPlan.setPrincipalAmount(principalAmountForEmi);
+        emiPlan.setInstallmentCursor(0);
+        emiPlan.setNextDueDate(emiPlan.getStartDate().plusMonths(1));
+        emiPlan.setEmiSchedule(new ArrayList<>());
 
         // Mark original transaction as EMI converted
         originalTransaction.setEmiConverted(true);
@@ -153,58 +192,23 @@ public class EMIServiceImpl implements EMIService {
     }
 
     @Override
-    public EMIPlan getEmiPlanDetails(Long emiPlanId) {
-        return emiPlanRepository.findById(emiPlanId)
+    public EmiPlanView getEmiPlanDetails(Long emiPlanId) {
+        return emiPlanRepository.findViewById(emiPlanId)
                 .orElseThrow(() -> new ResourceNotFoundException("EMI Plan not found with ID: " + emiPlanId));
     }
 
     @Override
-    public List<EMISchedule> getEmiSchedule(Long emiPlanId) {
-        return emiScheduleRepository.findByEmiPlan_IdOrderByInstallmentNumberAsc(emiPlanId);
+    public List<EmiScheduleView> getEmiSchedule(Long emiPlanId) {
+        EMIPlan emiPlan = emiPlanRepository.findById(emiPlanId)
+                .orElseThrow(() -> new ResourceNotFoundException("EMI Plan not found with ID: " + emiPlanId));
+        List<EMISchedule> storedRows = emiScheduleRepository.findByEmiPlan_IdOrderByInstallmentNumberAsc(emiPlanId);
+        // Rows of a plan not compacted yet are all stored; otherwise they are only the exceptions
+        List<EMISchedule> schedule = emiPlan.getPrincipalAmount() == null ? storedRows : emiScheduleCalculator.schedule(emiPlan, storedRows);
+        return schedule.stream().map(EmiScheduleView::from).toList();
     }
 
     @Override
-    @Transactional
     public void processMonthlyEmiInstallments(LocalDate date) {
-        List<EMISchedule> pendingInstallments = emiScheduleRepository.findAll().stream()
-                .filter(schedule -> schedule.getStatus().equals("PENDING") && schedule.getDueDate().isEqual(date))
-                .collect(Collectors.toList());
-
-        for (EMISchedule schedule : pendingInstallments) {
-            try {
-                // Deduct EMI amount from the linked account
-                accountService.withdraw(schedule.getEmiPlan().getCard().getAccount().getAccountNumber(), schedule.getTotalInstallmentAmount());
-
-                // Record as a transaction
-                Transaction emiPaymentTransaction = new Transaction();
-                emiPaymentTransaction.setAccount(schedule.getEmiPlan().getCard().getAccount());
-                emiPaymentTransaction.setAmount(schedule.getTotalInstallmentAmount());
-                emiPaymentTransaction.setTransactionType("EMI_PAYMENT");
-                emiPaymentTransaction.setDate(LocalDateTime.now());
-                emiPaymentTransaction.setDescription("EMI Payment for plan " + schedule.getEmiPlan().getId() + ", Installment " + schedule.getInstallmentNumber());
-                transactionRepository.save(emiPaymentTransaction);
-
-                schedule.setStatus("PAID");
-                emiScheduleRepository.save(schedule);
-
-                // Check if EMI plan is completed
-                long remainingPending = emiScheduleRepository.findByEmiPlan_IdOrderByInstallmentNumberAsc(schedule.getEmiPlan().getId())
-                        .stream()
-                        .filter(s -> s.getStatus().equals("PENDING"))
-                        .count();
-
-                if (remainingPending == 0) {
-                    EMIPlan emiPlan = schedule.getEmiPlan();
-                    emiPlan.setStatus("COMPLETED");
-                    emiPlanRepository.save(emiPlan);
-                }
-            } catch (Exception e) {
-                // Handle cases where payment fails (e.g., insufficient funds)
-                // Mark as OVERDUE, send notification, etc.
-                schedule.setStatus("OVERDUE");
-                emiScheduleRepository.save(schedule);
-                System.err.println("Failed to process EMI installment " + schedule.getId() + ": " + e.getMessage());
-            }
-        }
+        emiInstallmentJob.process(date);
     }
 }
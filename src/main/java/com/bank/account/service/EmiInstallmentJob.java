@@ -0,0 +1,184 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.BatchJobCheckpoint;
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import com.bank.account.repository.EMIPlanRepository;
+import com.bank.account.repository.EMIScheduleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects due EMI installments. Ids of plans with an installment due are read in keyset order and split
+ * into chunks that are debited in parallel, each chunk in its own transaction; progress is checkpointed
+ * after every wave so a restarted run continues where it stopped. A collected installment only moves the
+ * plan's cursor; a declined one is stored as an OVERDUE exception row and handed to {@link EmiRetryScheduler}.
+ */
+@Component
+public class EmiInstallmentJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EmiInstallmentJob.class);
+    static final String JOB_NAME = "EMI_PLAN_INSTALLMENTS"; // Checkpoints hold plan ids; earlier runs keyed on schedule row ids
+
+    @Autowired
+    private EMIPlanRepository emiPlanRepository;
+
+    @Autowired
+    private EMIScheduleRepository emiScheduleRepository;
+
+    @Autowired
+    private EmiScheduleCalculator emiScheduleCalculator;
+
+    @Autowired
+    private EmiScheduleCompactionJob emiScheduleCompactionJob;
+
+    @Autowired
+    private EmiRetryScheduler emiRetryScheduler;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BatchJobCheckpointService batchJobCheckpointService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${emi.processing.workers:4}")
+    private int workers;
+
+    @Value("${emi.processing.chunk-size:200}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService workerPool;
+
+    @PostConstruct
+    void startWorkers() {
+        workerPool = Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workerPool.shutdown();
+    }
+
+    @Scheduled(cron = "${emi.processing.cron:0 30 0 * * *}")
+    public void runDaily() {
+        process(LocalDate.now());
+    }
+
+    // Pick up runs that were interrupted by a shutdown
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(() -> batchJobCheckpointService.findUnfinishedRuns(JOB_NAME)
+                .forEach(checkpoint -> process(checkpoint.getRunDate())));
+    }
+
+    public void process(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("EMI installment run for {} skipped: another run is in progress", date);
+            return;
+        }
+        try {
+            emiScheduleCompactionJob.compact(); // Legacy plans have no cursor until compacted
+            BatchJobCheckpoint checkpoint = batchJobCheckpointService.begin(JOB_NAME, date);
+            long lastId = checkpoint.getLastProcessedId();
+            long paid = 0;
+            long overdue = 0;
+            List<Long> wave;
+            do {
+                wave = emiPlanRepository.findDuePlanIds(date, lastId, Limit.of(workers * chunkSize));
+                if (wave.isEmpty()) {
+                    break;
+                }
+                List<Future<int[]>> results = new ArrayList<>();
+                for (int from = 0; from < wave.size(); from += chunkSize) {
+                    List<Long> chunk = wave.subList(from, Math.min(from + chunkSize, wave.size()));
+                    results.add(workerPool.submit(() -> transactionTemplate.execute(status -> processChunk(chunk, date))));
+                }
+                long wavePaid = 0;
+                long waveOverdue = 0;
+                for (Future<int[]> result : results) {
+                    try {
+                        int[] counts = result.get();
+                        wavePaid += counts[0];
+                        waveOverdue += counts[1];
+                    } catch (ExecutionException e) {
+                        // The chunk rolled back; its plans keep their cursor and are retried on the next run
+                        log.error("EMI installment chunk failed for {}: {}", date, e.getCause().getMessage());
+                    }
+                }
+                lastId = wave.get(wave.size() - 1);
+                batchJobCheckpointService.advance(checkpoint.getId(), lastId, wavePaid, waveOverdue);
+                paid += wavePaid;
+                overdue += waveOverdue;
+            } while (wave.size() == workers * chunkSize);
+
+            batchJobCheckpointService.complete(checkpoint.getId());
+            log.info("EMI installment run for {} collected {} and marked {} overdue", date, paid, overdue);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int[] processChunk(List<Long> planIds, LocalDate date) {
+        int paid = 0;
+        int overdue = 0;
+        for (EMIPlan emiPlan : emiPlanRepository.findWithAccountByIdIn(planIds)) {
+            String accountNumber = emiPlan.getCard().getAccount().getAccountNumber();
+            // A plan missed by earlier runs catches up on every installment that has fallen due since
+            while ("ACTIVE".equals(emiPlan.getStatus()) && emiPlan.getNextDueDate() != null
+                    && !emiPlan.getNextDueDate().isAfter(date)) {
+                int installmentNumber = emiPlan.getInstallmentCursor() + 1;
+                boolean debited = accountService.tryWithdraw(accountNumber, emiPlan.getMonthlyInstallmentAmount(), "EMI_PAYMENT",
+                        "EMI Payment for plan " + emiPlan.getId() + ", Installment " + installmentNumber).isPresent();
+                if (debited) {
+                    emiPlan.setRemainingInstallments(emiPlan.getRemainingInstallments() - 1);
+                    if (emiPlan.getRemainingInstallments() == 0) {
+                        emiPlan.setStatus("COMPLETED");
+                    }
+                    paid++;
+                } else {
+                    EMISchedule exception = emiScheduleCalculator.installment(emiPlan, installmentNumber);
+                    exception.setStatus("OVERDUE");
+                    emiRetryScheduler.scheduleRetry(emiScheduleRepository.save(exception), accountNumber);
+                    log.warn("EMI installment {} of plan {} is overdue: debit declined on account {}",
+                            installmentNumber, emiPlan.getId(), accountNumber);
+                    overdue++;
+                }
+                emiPlan.setInstallmentCursor(installmentNumber);
+                emiPlan.setNextDueDate(installmentNumber < emiPlan.getTenureMonths()
+                        ? emiPlan.getStartDate().plusMonths(installmentNumber + 1) : null);
+            }
+        }
+        return new int[]{paid, overdue};
+    }
+}
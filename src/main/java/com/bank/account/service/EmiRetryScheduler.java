@@ -0,0 +1,191 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.EmiRetryDue;
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import com.bank.account.entity.EmiRetry;
+import com.bank.account.repository.EmiRetryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retries OVERDUE EMI installments. Pending retries are persisted as {@link EmiRetry} rows and, in memory,
+ * as one entry per debit account on a {@link TimingWheel} holding the account's earliest retry. When an
+ * account comes due all of its overdue installments are retried together, oldest first; the ones that
+ * still cannot be collected back off exponentially. A credit to an account with pending retries brings
+ * it forward to the next tick, so collection does not wait for the backoff or for a table scan.
+ */
+@Component
+public class EmiRetryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EmiRetryScheduler.class);
+
+    @Autowired
+    private EmiRetryRepository emiRetryRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${emi.retry.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${emi.retry.wheel-slots:512}")
+    private int wheelSlots;
+
+    @Value("${emi.retry.initial-delay-seconds:900}")
+    private long initialDelaySeconds;
+
+    @Value("${emi.retry.max-delay-seconds:86400}")
+    private long maxDelaySeconds;
+
+    private TimingWheel<String> wheel;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel<>(wheelSlots, tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int backfilled = transactionTemplate.execute(status ->
+                emiRetryRepository.backfillOverdueInstallments(LocalDateTime.now().plusSeconds(initialDelaySeconds)));
+        for (EmiRetryDue due : emiRetryRepository.findNextAttemptPerAccount()) {
+            wheel.schedule(due.getAccountNumber(), toMillis(due.getNextAttemptAt()));
+        }
+        log.info("Scheduled EMI retries for {} accounts ({} overdue installments backfilled)", wheel.size(), backfilled);
+    }
+
+    // Call in the transaction that records the installment as OVERDUE; the wheel picks it up once that commits
+    public void scheduleRetry(EMISchedule overdue, String accountNumber) {
+        EmiRetry retry = new EmiRetry();
+        retry.setSchedule(overdue);
+        retry.setAccountNumber(accountNumber);
+        retry.setAttempts(0);
+        retry.setNextAttemptAt(LocalDateTime.now().plusSeconds(initialDelaySeconds));
+        emiRetryRepository.save(retry);
+
+        long deadline = toMillis(retry.getNextAttemptAt());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wheel.schedule(accountNumber, deadline);
+                }
+            });
+        } else {
+            wheel.schedule(accountNumber, deadline);
+        }
+    }
+
+    // Credits to accounts without pending retries cost one map lookup
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountCredited(AccountCreditedEvent event) {
+        wheel.expedite(event.accountNumber(), System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${emi.retry.tick-ms:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (String accountNumber : wheel.advance(now)) {
+            if (!inFlight.add(accountNumber)) {
+                wheel.schedule(accountNumber, now + tickMillis); // Still retrying from the previous due time
+                continue;
+            }
+            taskExecutor.execute(() -> {
+                try {
+                    retryAccount(accountNumber);
+                } catch (RuntimeException e) {
+                    // Rolled back: attempts were not counted, so try again after the initial delay
+                    log.error("EMI retry for account {} failed: {}", accountNumber, e.getMessage());
+                    wheel.schedule(accountNumber, System.currentTimeMillis() + initialDelaySeconds * 1000);
+                } finally {
+                    inFlight.remove(accountNumber);
+                }
+            });
+        }
+    }
+
+    // Returns the number of installments collected
+    public int retryAccount(String accountNumber) {
+        int[] collected = new int[1];
+        LocalDateTime next = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime earliest = null;
+            boolean declined = false;
+            for (EmiRetry retry : emiRetryRepository.findByAccountNumberForUpdate(accountNumber)) {
+                EMISchedule schedule = retry.getSchedule();
+                if (!"OVERDUE".equals(schedule.getStatus())) {
+                    emiRetryRepository.delete(retry); // Settled some other way
+                    continue;
+                }
+                // Once one debit is declined the rest would be too; they only back off
+                if (!declined) {
+                    EMIPlan emiPlan = schedule.getEmiPlan();
+                    declined = accountService.tryWithdraw(accountNumber, schedule.getTotalInstallmentAmount(), "EMI_PAYMENT",
+                            "EMI Payment for plan " + emiPlan.getId() + ", Installment " + schedule.getInstallmentNumber()
+                                    + " (retry " + (retry.getAttempts() + 1) + ")").isEmpty();
+                    if (!declined) {
+                        schedule.setStatus("PAID");
+                        emiPlan.setRemainingInstallments(emiPlan.getRemainingInstallments() - 1);
+                        if (emiPlan.getRemainingInstallments() == 0) {
+                            emiPlan.setStatus("COMPLETED");
+                        }
+                        emiRetryRepository.delete(retry);
+                        collected[0]++;
+                        continue;
+                    }
+                }
+                retry.setAttempts(retry.getAttempts() + 1);
+                retry.setLastAttemptAt(now);
+                retry.setNextAttemptAt(now.plusSeconds(backoffSeconds(retry.getAttempts())));
+                if (earliest == null || retry.getNextAttemptAt().isBefore(earliest)) {
+                    earliest = retry.getNextAttemptAt();
+                }
+            }
+            return earliest;
+        });
+        if (next != null) {
+            wheel.schedule(accountNumber, toMillis(next));
+        }
+        if (collected[0] > 0) {
+            log.info("Collected {} overdue EMI installments from account {}", collected[0], accountNumber);
+        }
+        return collected[0];
+    }
+
+    private long backoffSeconds(int attempts) {
+        int doublings = Math.min(attempts, 30);
+        return Math.min(initialDelaySeconds << doublings, maxDelaySeconds);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Derives EMI installments from a plan's amortization terms instead of storing them. An amortization
+ * schedule scales linearly with the principal, so one schedule per (rate, tenure) is computed for a
+ * principal of 1 and cached; an installment is its factors times the plan's principal.
+ */
+@Component
+public class EmiScheduleCalculator {
+
+    private record Terms(double annualRate, int tenureMonths) {
+    }
+
+    // Per unit of principal: the monthly installment and its principal/interest split per installment
+    public record Amortization(double installmentFactor, double[] principalFactors, double[] interestFactors) {
+    }
+
+    private final Map<Terms, Amortization> amortizations = new ConcurrentHashMap<>();
+
+    public Amortization amortization(double annualRate, int tenureMonths) {
+        return amortizations.computeIfAbsent(new Terms(annualRate, tenureMonths), EmiScheduleCalculator::amortize);
+    }
+
+    public double monthlyInstallment(double principal, double annualRate, int tenureMonths) {
+        return principal * amortization(annualRate, tenureMonths).installmentFactor();
+    }
+
+    // Installment 1 falls due one month after the plan starts
+    public EMISchedule installment(EMIPlan plan, int installmentNumber) {
+        Amortization amortization = amortization(plan.getInterestRate(), plan.getTenureMonths());
+        EMISchedule schedule = new EMISchedule();
+        schedule.setEmiPlan(plan);
+        schedule.setInstallmentNumber(installmentNumber);
+        schedule.setPrincipalAmount(plan.getPrincipalAmount() * amortization.principalFactors()[installmentNumber - 1]);
+        schedule.setInterestAmount(plan.getPrincipalAmount() * amortization.interestFactors()[installmentNumber - 1]);
+        schedule.setTotalInstallmentAmount(plan.getMonthlyInstallmentAmount());
+        schedule.setDueDate(plan.getStartDate().plusMonths(installmentNumber));
+        schedule.setStatus(installmentNumber <= plan.getInstallmentCursor() ? "PAID" : "PENDING");
+        return schedule;
+    }
+
+    // Full schedule of a compacted plan; materialized exception rows replace the computed installment
+    public List<EMISchedule> schedule(EMIPlan plan, Collection<EMISchedule> exceptions) {
+        Map<Integer, EMISchedule> byNumber = exceptions.stream()
+                .collect(Collectors.toMap(EMISchedule::getInstallmentNumber, Function.identity()));
+        List<EMISchedule> schedule = new ArrayList<>(plan.getTenureMonths());
+        for (int i = 1; i <= plan.getTenureMonths(); i++) {
+            EMISchedule exception = byNumber.get(i);
+            schedule.add(exception != null ? exception : installment(plan, i));
+        }
+        return schedule;
+    }
+
+    private static Amortization amortize(Terms terms) {
+        double monthlyRate = terms.annualRate() / 12;
+        int tenure = terms.tenureMonths();
+        double installmentFactor = monthlyRate / (1 - Math.pow(1 + monthlyRate, -tenure));
+        double[] principalFactors = new double[tenure];
+        double[] interestFactors = new double[tenure];
+        double remaining = 1;
+        for (int i = 0; i < tenure; i++) {
+            interestFactors[i] = remaining * monthlyRate;
+            principalFactors[i] = installmentFactor - interestFactors[i];
+            remaining -= principalFactors[i];
+        }
+        return new Amortization(installmentFactor, principalFactors, interestFactors);
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import com.bank.account.repository.EMIPlanRepository;
+import com.bank.account.repository.EMIScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converts EMI plans created with one stored schedule row per installment to the computed form: the plan
+ * gets its principal, installment cursor and next due date, and every row except OVERDUE exceptions is
+ * deleted. Runs at startup and ahead of each installment run until no such plans are left.
+ */
+@Component
+public class EmiScheduleCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EmiScheduleCompactionJob.class);
+
+    @Autowired
+    private EMIPlanRepository emiPlanRepository;
+
+    @Autowired
+    private EMIScheduleRepository emiScheduleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${emi.compaction.chunk-size:500}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::compact);
+    }
+
+    // Synchronized so an installment run waits for a compaction already in progress
+    public synchronized int compact() {
+        long lastId = 0;
+        int compacted = 0;
+        List<Long> chunk;
+        do {
+            chunk = emiPlanRepository.findUncompactedPlanIds(lastId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Long> planIds = chunk;
+            compacted += transactionTemplate.execute(status -> compactChunk(planIds));
+            lastId = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == chunkSize);
+
+        if (compacted > 0) {
+            log.info("Compacted the stored schedules of {} EMI plans", compacted);
+        }
+        return compacted;
+    }
+
+    private int compactChunk(List<Long> planIds) {
+        Map<Long, List<EMISchedule>> rowsByPlan = emiScheduleRepository.findByEmiPlan_IdIn(planIds).stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getEmiPlan().getId()));
+        List<EMIPlan> plans = emiPlanRepository.findAllById(planIds);
+        for (EMIPlan plan : plans) {
+            List<EMISchedule> rows = rowsByPlan.getOrDefault(plan.getId(), List.of());
+            // Installments fall due in order, so everything up to the last non-PENDING row has been handled
+            int cursor = rows.stream()
+                    .filter(row -> !"PENDING".equals(row.getStatus()))
+                    .mapToInt(EMISchedule::getInstallmentNumber)
+                    .max().orElse(0);
+            long paid = rows.stream().filter(row -> "PAID".equals(row.getStatus())).count();
+
+            plan.setPrincipalAmount(plan.getOriginalAmount() * (1 + plan.getProcessingFeePercentage()));
+            plan.setInstallmentCursor(cursor);
+            plan.setNextDueDate(cursor < plan.getTenureMonths() ? plan.getStartDate().plusMonths(cursor + 1) : null);
+            if (plan.getRemainingInstallments() == null) {
+                plan.setRemainingInstallments((int) (plan.getTenureMonths() - paid));
+            }
+        }
+        emiScheduleRepository.deleteComputedRows(planIds);
+        return plans.size();
+    }
+}
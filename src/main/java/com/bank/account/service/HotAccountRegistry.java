@@ -0,0 +1,45 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.Account;
+import com.bank.account.repository.AccountRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory lookup of accounts whose balance is striped across {@code AccountBalanceStripe} rows,
+ * so the credit path can route postings without reading the account first.
+ */
+@Component
+public class HotAccountRegistry {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final Map<String, HotAccount> hotAccounts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Account account : accountRepository.findByBalanceStripesGreaterThan(0)) {
+            register(account);
+        }
+    }
+
+    public HotAccount get(String accountNumber) {
+        return hotAccounts.get(accountNumber);
+    }
+
+    public void register(Account account) {
+        if (account.getBalanceStripes() > 0) {
+            hotAccounts.put(account.getAccountNumber(), new HotAccount(account.getId(), account.getBalanceStripes()));
+        } else {
+            hotAccounts.remove(account.getAccountNumber());
+        }
+    }
+
+    public record HotAccount(Long accountId, int stripes) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.NeftBatchStats;
+import com.bank.account.entity.NeftInstruction;
+
+public interface NeftSettlementService {
+
+    NeftInstruction queueTransfer(String fromAccountNumber, String toAccountNumber, double amount, double fee, String remarks);
+    NeftInstruction getInstruction(String referenceNumber);
+    NeftBatchStats settlePendingBatch(); // Scheduled task, runs every clearing window
+    NeftBatchStats getBatchStats();
+}
@@ -0,0 +1,194 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.NeftBatchStats;
+import com.bank.account.dto.NeftStatus;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.NeftInstruction;
+import com.bank.account.entity.Transaction;
+import com.bank.account.exception.AccountFrozenException;
+import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.NeftInstructionRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class NeftSettlementServiceImpl implements NeftSettlementService {
+
+    private static final Logger log = LoggerFactory.getLogger(NeftSettlementServiceImpl.class);
+    private static final DateTimeFormatter BATCH_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    @Autowired
+    private NeftInstructionRepository neftInstructionRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${neft.settlement.chunk-size:500}")
+    private int chunkSize;
+
+    private final AtomicLong totalSettled = new AtomicLong();
+    private final AtomicLong totalReturned = new AtomicLong();
+    private volatile NeftBatchStats lastBatch = new NeftBatchStats();
+
+    @Override
+    @Transactional
+    public NeftInstruction queueTransfer(String fromAccountNumber, String toAccountNumber, double amount, double fee, String remarks) {
+        NeftInstruction instruction = new NeftInstruction();
+        instruction.setReferenceNumber("NEFT" + transactionIdGenerator.nextId());
+        instruction.setFromAccountNumber(fromAccountNumber);
+        instruction.setToAccountNumber(toAccountNumber);
+        instruction.setAmount(amount);
+        instruction.setFee(fee);
+        instruction.setRemarks(remarks);
+        instruction.setStatus(NeftStatus.PENDING);
+        instruction.setCreatedAt(LocalDateTime.now());
+        return neftInstructionRepository.save(instruction);
+    }
+
+    @Override
+    public NeftInstruction getInstruction(String referenceNumber) {
+        return neftInstructionRepository.findByReferenceNumber(referenceNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("NEFT instruction not found with reference: " + referenceNumber));
+    }
+
+    @Scheduled(cron = "${neft.settlement.cron:0 0/30 * * * *}")
+    public void runClearingBatch() {
+        settlePendingBatch();
+    }
+
+    @Override
+    public NeftBatchStats settlePendingBatch() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        String batchId = "NEFT-" + startedAt.format(BATCH_ID_FORMAT);
+        long start = System.nanoTime();
+        int settled = 0;
+        int returned = 0;
+
+        // Only instructions accepted before the batch cut-off belong to this clearing window
+        long lastId = 0;
+        List<NeftInstruction> chunk;
+        do {
+            chunk = neftInstructionRepository.findByStatusAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(
+                    NeftStatus.PENDING, startedAt, lastId, Limit.of(chunkSize));
+            for (NeftInstruction instruction : chunk) {
+                lastId = instruction.getId();
+                NeftStatus outcome = settle(instruction, batchId);
+                if (outcome == NeftStatus.SETTLED) {
+                    settled++;
+                } else if (outcome == NeftStatus.RETURNED) {
+                    returned++;
+                }
+            }
+        } while (chunk.size() == chunkSize);
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        totalSettled.addAndGet(settled);
+        totalReturned.addAndGet(returned);
+
+        NeftBatchStats stats = new NeftBatchStats();
+        stats.setLastBatchId(batchId);
+        stats.setLastBatchStartedAt(startedAt);
+        stats.setLastBatchProcessed(settled + returned);
+        stats.setLastBatchSettled(settled);
+        stats.setLastBatchReturned(returned);
+        stats.setLastBatchDurationMillis(durationMillis);
+        stats.setLastBatchThroughputPerSecond(durationMillis == 0 ? settled + returned : (settled + returned) * 1000.0 / durationMillis);
+        lastBatch = stats;
+
+        if (settled + returned > 0) {
+            log.info("NEFT batch {} settled {} and returned {} instructions in {} ms", batchId, settled, returned, durationMillis);
+        }
+        return getBatchStats();
+    }
+
+    @Override
+    public NeftBatchStats getBatchStats() {
+        NeftBatchStats last = lastBatch;
+        NeftBatchStats stats = new NeftBatchStats();
+        stats.setLastBatchId(last.getLastBatchId());
+        stats.setLastBatchStartedAt(last.getLastBatchStartedAt());
+        stats.setLastBatchProcessed(last.getLastBatchProcessed());
+        stats.setLastBatchSettled(last.getLastBatchSettled());
+        stats.setLastBatchReturned(last.getLastBatchReturned());
+        stats.setLastBatchDurationMillis(last.getLastBatchDurationMillis());
+        stats.setLastBatchThroughputPerSecond(last.getLastBatchThroughputPerSecond());
+        stats.setPendingInstructions(neftInstructionRepository.countByStatus(NeftStatus.PENDING));
+        stats.setTotalSettled(totalSettled.get());
+        stats.setTotalReturned(totalReturned.get());
+        return stats;
+    }
+
+    // Each instruction settles in its own transaction so one bad beneficiary cannot roll back the batch
+    private NeftStatus settle(NeftInstruction instruction, String batchId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (neftInstructionRepository.markProcessed(instruction.getId(), NeftStatus.SETTLED, batchId, LocalDateTime.now(), null) == 0) {
+                    return null; // Already processed by another batch
+                }
+                Account toAccount = accountService.deposit(instruction.getToAccountNumber(), instruction.getAmount());
+                transactionRepository.save(createTransaction(toAccount, instruction.getAmount(), "NEFT_CREDIT",
+                        "Transfer from " + instruction.getFromAccountNumber() + " (" + instruction.getRemarks() + ") ref " + instruction.getReferenceNumber()));
+                return NeftStatus.SETTLED;
+            });
+        } catch (ResourceNotFoundException | AccountFrozenException e) {
+            return returnToSender(instruction, batchId, e.getMessage());
+        } catch (RuntimeException e) {
+            // Transient failure: leave the instruction PENDING for the next clearing window
+            log.error("Failed to settle NEFT instruction {}: {}", instruction.getReferenceNumber(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Beneficiary could not be credited (missing or frozen account): refund the sender the transfer amount.
+    // The fee is not refunded; it was credited to the fee account when the instruction was queued and stays there.
+    private NeftStatus returnToSender(NeftInstruction instruction, String batchId, String reason) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (neftInstructionRepository.markProcessed(instruction.getId(), NeftStatus.RETURNED, batchId, LocalDateTime.now(), reason) == 0) {
+                    return null;
+                }
+                double refund = instruction.getAmount();
+                Account fromAccount = accountService.deposit(instruction.getFromAccountNumber(), refund);
+                transactionRepository.save(createTransaction(fromAccount, refund, "NEFT_RETURN",
+                        "Returned transfer to " + instruction.getToAccountNumber() + " ref " + instruction.getReferenceNumber() + ": " + reason));
+                return NeftStatus.RETURNED;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to return NEFT instruction {}: {}", instruction.getReferenceNumber(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Transaction createTransaction(Account account, double amount, String type, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setAccount(account);
+        transaction.setAmount(amount);
+        transaction.setTransactionType(type);
+        transaction.setDate(LocalDateTime.now());
+        transaction.setDescription(description);
+        return transaction;
+    }
+}
@@ -3,6 +3,7 @@ package com.bank.account.service;
 import com.bank.account.dto.FundTransferRequest;
 import com.bank.account.dto.TransferType;
 import com.bank.account.entity.Account;
+import com.bank.account.entity.NeftInstruction;
 import com.bank.account.entity.Transaction;
 import com.bank.account.exception.InvalidInputException;
 import com.bank.account.exception.InvalidTransferAmountException;
@@ -10,13 +11,13 @@ import com.bank.account.exception.ResourceNotFoundException;
 import com.bank.account.repository.AccountRepository;
 import com.bank.account.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class PaymentServiceImpl implements PaymentService {
@@ -30,6 +31,15 @@ public class PaymentServiceImpl implements PaymentService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private NeftSettlementService neftSettlementService;
+
+    @Value("${payments.fee-account-number:}")
+    private String feeAccountNumber; // Bank fee income account credited with transfer fees, if configured
+
     private static final double NEFT_FEE = 2.50;
     private static final double RTGS_FEE = 25.00;
     private static final double IMPS_FEE = 5.00;
@@ -83,6 +93,21 @@ public class PaymentServiceImpl implements PaymentService {
 
         // Perform withdrawal from sender's account (includes fee)
         accountService.withdraw(fromAccount.getAccountNumber(), totalDebitAmount);
+
+        // Every transfer credits the fee account, so it should be configured with balance stripes
+        if (fee > 0 && !feeAccountNumber.isBlank()) {
+            accountService.deposit(feeAccountNumber, fee);
+        }
+
+        if (request.getTransferType() == TransferType.NEFT) {
+            // NEFT is accepted as a PENDING instruction; the credit leg posts in the next half-hourly clearing batch
+            NeftInstruction instruction = neftSettlementService.queueTransfer(fromAccount.getAccountNumber(), toAccount.getAccountNumber(), transferAmount, fee, request.getRemarks());
+            generatedTransactions.add(createTransaction(fromAccount, -totalDebitAmount, transactionType + "_DEBIT", "Transfer to " + toAccount.getAccountNumber() + " (" + request.getRemarks() + ") ref " + instruction.getReferenceNumber()));
+            generatedTransactions.add(createTransaction(fromAccount, -fee, "FEE", request.getTransferType().name() + " Transfer Fee"));
+            transactionRepository.saveAll(generatedTransactions);
+            return generatedTransactions;
+        }
+
         generatedTransactions.add(createTransaction(fromAccount, -totalDebitAmount, transactionType + "_DEBIT", "Transfer to " + toAccount.getAccountNumber() + " (" + request.getRemarks() + ")"));
 
         // Record fee transaction
@@ -94,23 +119,13 @@ public class PaymentServiceImpl implements PaymentService {
         accountService.deposit(toAccount.getAccountNumber(), transferAmount);
         generatedTransactions.add(createTransaction(toAccount, transferAmount, transactionType + "_CREDIT", "Transfer from " + fromAccount.getAccountNumber() + " (" + request.getRemarks() + ")"));
 
-        // Simulate NEFT delay (optional)
-        if (request.getTransferType() == TransferType.NEFT) {
-            try {
-                Thread.sleep(3600000); // 1 hour delay
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("NEFT transfer interrupted", e); // Keep as RuntimeException for unexpected system issues
-            }
-        }
-
         transactionRepository.saveAll(generatedTransactions);
         return generatedTransactions;
     }
 
     private Transaction createTransaction(Account account, double amount, String type, String description) {
         Transaction transaction = new Transaction();
-        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setTransactionId(transactionIdGenerator.nextId());
         transaction.setAccount(account);
         transaction.setAmount(Math.abs(amount)); // Store absolute amount
         transaction.setTransactionType(type);
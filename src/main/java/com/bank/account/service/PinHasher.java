@@ -0,0 +1,69 @@
+package com.bank.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 PIN hashes stored as {@code pbkdf2$<iterations>$<salt>$<hash>}. Deliberately slow,
+ * so callers run it on {@link PinVerifier}'s pool rather than on request threads. Values without the
+ * prefix are legacy plaintext PINs that have not been migrated yet.
+ */
+@Component
+public class PinHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${card.pin.hash-iterations:310000}")
+    private int iterations;
+
+    public String hash(String pin) {
+        byte[] salt = new byte[SALT_BYTES];
+        secureRandom.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derive(pin, salt, iterations));
+    }
+
+    public boolean matches(String pin, String stored) {
+        if (stored == null || pin == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), pin.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[3]);
+        return MessageDigest.isEqual(expected, derive(pin, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+    }
+
+    public boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private byte[] derive(String pin, byte[] salt, int rounds) {
+        PBEKeySpec spec = new PBEKeySpec(pin.toCharArray(), salt, rounds, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PIN hashing unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
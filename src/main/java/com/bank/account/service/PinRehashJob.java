@@ -0,0 +1,97 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.Card;
+import com.bank.account.repository.CardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One-off migration that replaces plaintext PINs with PBKDF2 hashes. Cards are read in id-order chunks,
+ * hashed in parallel on the PIN pool and written back with a guarded update, so a PIN changed by the
+ * customer in the meantime is left alone and the job can be re-run safely.
+ */
+@Component
+public class PinRehashJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PinRehashJob.class);
+    private static final String HASHED_PIN_PATTERN = "pbkdf2$%";
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private PinVerifier pinVerifier;
+
+    @Autowired
+    private CardStateTable cardStateTable;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${card.pin.rehash.enabled:true}")
+    private boolean enabled;
+
+    @Value("${card.pin.rehash.chunk-size:32}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            taskExecutor.execute(() -> {
+                try {
+                    rehash();
+                } catch (RuntimeException e) {
+                    log.error("PIN re-hash migration stopped, it resumes on the next start: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    public int rehash() {
+        long lastId = 0;
+        int migrated = 0;
+        List<Card> chunk;
+        do {
+            chunk = cardRepository.findByIdGreaterThanAndPinNotLikeOrderByIdAsc(lastId, HASHED_PIN_PATTERN, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+
+            List<CompletableFuture<String>> hashes = chunk.stream().map(card -> pinVerifier.hash(card.getPin())).toList();
+            CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+
+            List<Card> cards = chunk;
+            Integer updated = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (int i = 0; i < cards.size(); i++) {
+                    count += cardRepository.replacePin(cards.get(i).getId(), cards.get(i).getPin(), hashes.get(i).join());
+                }
+                return count;
+            });
+            migrated += updated == null ? 0 : updated;
+            cards.forEach(card -> cardStateTable.refresh(card.getId()));
+        } while (chunk.size() == chunkSize);
+
+        if (migrated > 0) {
+            log.info("Re-hashed {} plaintext card PINs", migrated);
+        }
+        return migrated;
+    }
+}
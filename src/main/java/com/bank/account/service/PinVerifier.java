@@ -0,0 +1,118 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardStatus;
+import com.bank.account.exception.PinServiceUnavailableException;
+import com.bank.account.repository.CardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs PIN hashing and verification on a dedicated, bounded pool so a burst of verifications queues here
+ * instead of tying up web threads; when the queue is full callers get a 503 straight away. Failed
+ * attempts are counted per card and the card is blocked once they reach the configured maximum.
+ */
+@Component
+public class PinVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PinVerifier.class);
+
+    @Autowired
+    private PinHasher pinHasher;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${card.pin.workers:4}")
+    private int workers;
+
+    @Value("${card.pin.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${card.pin.max-attempts:3}")
+    private int maxAttempts;
+
+    private final ConcurrentHashMap<String, AtomicInteger> failedAttempts = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pin-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> hash(String pin) {
+        return submit(() -> pinHasher.hash(pin));
+    }
+
+    public CompletableFuture<Boolean> verify(String cardNumber, String storedPin, String pin) {
+        if (isLocked(cardNumber)) {
+            return CompletableFuture.completedFuture(false); // No point spending a hash on a locked card
+        }
+        return submit(() -> pinHasher.matches(pin, storedPin)).thenApply(valid -> {
+            if (valid) {
+                failedAttempts.remove(cardNumber);
+            } else {
+                recordFailure(cardNumber);
+            }
+            return valid;
+        });
+    }
+
+    public boolean isLocked(String cardNumber) {
+        AtomicInteger attempts = failedAttempts.get(cardNumber);
+        return attempts != null && attempts.get() >= maxAttempts;
+    }
+
+    public void resetFailures(String cardNumber) {
+        failedAttempts.remove(cardNumber);
+    }
+
+    private void recordFailure(String cardNumber) {
+        int attempts = failedAttempts.computeIfAbsent(cardNumber, number -> new AtomicInteger()).incrementAndGet();
+        if (attempts == maxAttempts) {
+            transactionTemplate.executeWithoutResult(status -> cardRepository.findByCardNumber(cardNumber).ifPresent(card -> {
+                card.setStatus(CardStatus.BLOCKED);
+                cardRepository.save(card);
+            }));
+            log.warn("Card {} blocked after {} failed PIN attempts", cardNumber, attempts);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new PinServiceUnavailableException("PIN service is busy, please retry"));
+        }
+    }
+}
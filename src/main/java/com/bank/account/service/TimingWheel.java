@@ -0,0 +1,85 @@
+package com.bank.account.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel holding at most one deadline per key. A key sits in the slot of its deadline's tick
+ * and is handed out by {@link #advance} once that tick has passed; deadlines further out than one turn of
+ * the wheel simply survive the slot visits before theirs. Scheduling and advancing cost O(1) per key
+ * rather than a scan of everything pending.
+ */
+public class TimingWheel<K> {
+
+    private final List<Set<K>> slots;
+    private final long tickMillis;
+    private final Map<K, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    private record Entry(long deadlineMillis, int slot) {
+    }
+
+    public TimingWheel(int slotCount, long tickMillis, long nowMillis) {
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    // Keeps the earlier deadline if the key is already scheduled
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Entry existing = entries.get(key);
+        if (existing != null && existing.deadlineMillis() <= deadlineMillis) {
+            return;
+        }
+        // A deadline already passed goes in the current slot, which the next advance visits first
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick);
+        Entry entry = new Entry(deadlineMillis, (int) (tick % slots.size()));
+        entries.put(key, entry);
+        slots.get(entry.slot()).add(key);
+    }
+
+    // Brings an already scheduled key forward; unknown keys are ignored
+    public synchronized boolean expedite(K key, long deadlineMillis) {
+        if (!entries.containsKey(key)) {
+            return false;
+        }
+        schedule(key, deadlineMillis);
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Removes and returns every key whose deadline is at or before now
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        // After a pause longer than one turn every slot is visited once
+        long from = Math.max(currentTick, nowTick - slots.size() + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            int slotIndex = (int) (tick % slots.size());
+            for (Iterator<K> it = slots.get(slotIndex).iterator(); it.hasNext(); ) {
+                K key = it.next();
+                Entry entry = entries.get(key);
+                if (entry == null || entry.slot() != slotIndex) {
+                    it.remove(); // Left behind when the key was brought forward to another slot
+                } else if (entry.deadlineMillis() <= nowMillis) {
+                    it.remove();
+                    entries.remove(key);
+                    due.add(key);
+                }
+            }
+        }
+        currentTick = nowTick;
+        return due;
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.account.service;
+
+/**
+ * Source of {@code Transaction.transactionId} values. The active implementation is chosen with
+ * {@code transaction.id.generator} ({@code snowflake} by default, or {@code uuid}).
+ */
+public interface TransactionIdGenerator {
+
+    String nextId();
+}
@@ -1,10 +1,16 @@
 package com.bank.account.service;
 
 import com.bank.account.dto.DepositRequest;
+import com.bank.account.dto.ExportFormat;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.dto.TransactionView;
 import com.bank.account.dto.TransferRequest;
 import com.bank.account.dto.WithdrawRequest;
 import com.bank.account.entity.Transaction;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +22,11 @@ public interface TransactionService {
 
     List<Transaction> transfer(TransferRequest request);
 
-    List<Transaction> getAllTransactions();
+    TransactionPage getTransactions(String cursor, Integer size); // All accounts, newest first; use the export for bulk reads
 
-    Optional<Transaction> getTransactionById(Long id);
+    Optional<TransactionView> getTransactionById(Long id);
 
-    List<Transaction> getTransactionsForAccount(String accountNumber);
+    void exportTransactions(String accountNumber, LocalDate from, LocalDate to, String transactionType, ExportFormat format, OutputStream out) throws IOException;
+
+    TransactionPage getTransactionsForAccount(String accountNumber, LocalDate from, LocalDate to, String cursor, Integer size);
 }
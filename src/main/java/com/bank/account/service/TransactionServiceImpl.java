@@ -1,117 +1,222 @@
 package com.bank.account.service;
 
-import com.bank.account.dto.AccountStatus;
 import com.bank.account.dto.DepositRequest;
+import com.bank.account.dto.ExportFormat;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.dto.TransactionView;
 import com.bank.account.dto.TransferRequest;
 import com.bank.account.dto.WithdrawRequest;
 import com.bank.account.entity.Account;
 import com.bank.account.entity.Transaction;
+import com.bank.account.exception.InvalidInputException;
+import com.bank.account.exception.ResourceNotFoundException;
 import com.bank.account.repository.AccountRepository;
 import com.bank.account.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
     @Autowired
     private AccountRepository accountRepository;
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Postings go through AccountService so hot accounts keep their striped credits and errors map to 4xx
     @Override
     @Transactional
     public Transaction deposit(DepositRequest request) {
-        Account account = getAccount(request.getAccountNumber());
-        checkIfFrozen(account);
-        account.setBalance(account.getBalance() + request.getAmount());
-
-        Transaction transaction = createTransaction(account, request.getAmount(), "DEPOSIT", "Deposit of " + request.getAmount());
-        accountRepository.save(account);
-        return transactionRepository.save(transaction);
+        return accountService.credit(request.getAccountNumber(), request.getAmount(), "DEPOSIT", "Deposit of " + request.getAmount());
     }
 
     @Override
     @Transactional
     public Transaction withdraw(WithdrawRequest request) {
-        Account account = getAccount(request.getAccountNumber());
-        checkIfFrozen(account);
-        if (account.getBalance() < request.getAmount()) {
-            throw new RuntimeException("Insufficient funds");
-        }
-        account.setBalance(account.getBalance() - request.getAmount());
-
-        Transaction transaction = createTransaction(account, request.getAmount(), "WITHDRAWAL", "Withdrawal of " + request.getAmount());
-        accountRepository.save(account);
-        return transactionRepository.save(transaction);
+        return accountService.debit(request.getAccountNumber(), request.getAmount(), "WITHDRAWAL", "Withdrawal of " + request.getAmount());
     }
 
     @Override
     @Transactional
     public List<Transaction> transfer(TransferRequest request) {
-        Account fromAccount = getAccount(request.getFromAccountNumber());
-        Account toAccount = getAccount(request.getToAccountNumber());
-
-        checkIfFrozen(fromAccount);
-        checkIfFrozen(toAccount);
-
-        if (fromAccount.getBalance() < request.getAmount()) {
-            throw new RuntimeException("Insufficient funds");
+        String from = request.getFromAccountNumber();
+        String to = request.getToAccountNumber();
+        double amount = request.getAmount();
+
+        // Post both legs in account-number order so opposite transfers cannot deadlock on row locks
+        if (from.compareTo(to) < 0) {
+            Transaction debit = accountService.debit(from, amount, "TRANSFER", "Transfer to " + to);
+            Transaction credit = accountService.credit(to, amount, "TRANSFER", "Transfer from " + from);
+            return List.of(debit, credit);
         }
+        Transaction credit = accountService.credit(to, amount, "TRANSFER", "Transfer from " + from);
+        Transaction debit = accountService.debit(from, amount, "TRANSFER", "Transfer to " + to);
+        return List.of(debit, credit);
+    }
 
-        fromAccount.setBalance(fromAccount.getBalance() - request.getAmount());
-        toAccount.setBalance(toAccount.getBalance() + request.getAmount());
-
-        Transaction fromTransaction = createTransaction(fromAccount, request.getAmount(), "TRANSFER", "Transfer to " + request.getToAccountNumber());
-        Transaction toTransaction = createTransaction(toAccount, request.getAmount(), "TRANSFER", "Transfer from " + request.getFromAccountNumber());
+    @Override
+    public TransactionPage getTransactions(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            beforeId = decodeIdCursor(cursor);
+        }
 
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        // Fetch one extra row to learn whether another page exists
+        List<TransactionView> rows = transactionRepository.findPageBeforeId(beforeId, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionView> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
 
-        return transactionRepository.saveAll(List.of(fromTransaction, toTransaction));
+        TransactionPage page = new TransactionPage();
+        page.setTransactions(pageRows);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            page.setNextCursor(encodeIdCursor(pageRows.get(pageRows.size() - 1).getId()));
+        }
+        return page;
     }
 
     @Override
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+    public Optional<TransactionView> getTransactionById(Long id) {
+        return transactionRepository.findViewById(id);
     }
 
     @Override
-    public Optional<Transaction> getTransactionById(Long id) {
-        return transactionRepository.findById(id);
+    @Transactional(readOnly = true)
+    public void exportTransactions(String accountNumber, LocalDate from, LocalDate to, String transactionType, ExportFormat format, OutputStream out) throws IOException {
+        LocalDateTime fromTime = from == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : from.atStartOfDay();
+        LocalDateTime toTime = to == null ? LocalDateTime.now().plusDays(1) : to.plusDays(1).atStartOfDay();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("id,transactionId,accountNumber,amount,transactionType,date,description,emiConverted\n");
+        }
+
+        try (Stream<TransactionView> rows = transactionRepository.streamForExport(accountNumber, fromTime, toTime, transactionType)) {
+            Iterator<TransactionView> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                TransactionView row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writer.write(toCsvLine(row));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+                // Push each chunk to the client so the response buffer stays bounded
+                if (++written % EXPORT_FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
     }
 
     @Override
-    public List<Transaction> getTransactionsForAccount(String accountNumber) {
-        return transactionRepository.findByAccount_AccountNumber(accountNumber);
+    public TransactionPage getTransactionsForAccount(String accountNumber, LocalDate from, LocalDate to, String cursor, Integer size) {
+        Account account = getAccount(accountNumber);
+        int pageSize = pageSize(size);
+
+        LocalDateTime fromTime = from == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : from.atStartOfDay();
+        LocalDateTime beforeDate = to == null ? LocalDateTime.now().plusDays(1) : to.plusDays(1).atStartOfDay();
+        long beforeId = 0; // With the exclusive end date as cursor, id 0 admits only rows strictly before it
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            beforeDate = LocalDateTime.parse(parts[0]);
+            beforeId = Long.parseLong(parts[1]);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<TransactionView> rows = transactionRepository.findPageByAccountId(account.getId(), fromTime, beforeDate, beforeId, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionView> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        TransactionPage page = new TransactionPage();
+        page.setTransactions(pageRows);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            TransactionView last = pageRows.get(pageRows.size() - 1);
+            page.setNextCursor(encodeCursor(last.getDate(), last.getId()));
+        }
+        return page;
     }
 
-    private Account getAccount(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+    private int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private String toCsvLine(TransactionView row) {
+        return row.getId() + "," + csv(row.getTransactionId()) + "," + csv(row.getAccountNumber()) + "," + row.getAmount() + ","
+                + csv(row.getTransactionType()) + "," + row.getDate() + "," + csv(row.getDescription()) + "," + row.isEmiConverted();
     }
 
-    private void checkIfFrozen(Account account) {
-        if (account.getStatus() == AccountStatus.FROZEN) {
-            throw new RuntimeException("Account is frozen: " + account.getAccountNumber());
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
         }
+        return value;
     }
 
-    private Transaction createTransaction(Account account, double amount, String type, String description) {
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(UUID.randomUUID().toString());
-        transaction.setAccount(account);
-        transaction.setAmount(amount);
-        transaction.setTransactionType(type);
-        transaction.setDate(LocalDateTime.now());
-        transaction.setDescription(description);
-        return transaction;
+    private String encodeCursor(LocalDateTime date, Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new InvalidInputException("Invalid transaction page cursor: " + cursor);
+        }
+    }
+
+    private String encodeIdCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeIdCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new InvalidInputException("Invalid transaction page cursor: " + cursor);
+        }
+    }
+
+    private Account getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with number: " + accountNumber));
     }
 }
@@ -0,0 +1,17 @@
+package com.bank.account.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Previous random UUID scheme, kept selectable for comparison and rollback
+@Component
+@ConditionalOnProperty(name = "transaction.id.generator", havingValue = "uuid")
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,25 @@
+-- Sequences behind the pooled @SequenceGenerator ids (INCREMENT BY must match allocationSize = 50).
+-- Runs on every start before Hibernate. Tables created while ids were IDENTITY columns already hold rows,
+-- so each sequence is moved past MAX(id); it is never moved backwards.
+DO $$
+DECLARE
+    tbl TEXT;
+    max_id BIGINT;
+    last_id BIGINT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['account', 'account_balance_stripe', 'audit_log', 'card', 'credit_card_bill', 'customer',
+                               'emiplan', 'emischedule', 'money_request', 'neft_instruction', 'transaction',
+                               'batch_job_checkpoint', 'card_bin_range',
+                               'billing_cycle_accumulator', 'credit_card_bill_line_item', 'bill_accrual', 'emi_retry']
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', tbl || '_seq');
+        IF to_regclass(quote_ident(tbl)) IS NOT NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', tbl) INTO max_id;
+            EXECUTE format('SELECT last_value FROM %I', tbl || '_seq') INTO last_id;
+            IF max_id >= last_id THEN
+                PERFORM setval(tbl || '_seq', max_id);
+            END IF;
+        END IF;
+    END LOOP;
+END
+$$^;
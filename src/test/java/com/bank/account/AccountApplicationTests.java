@@ -3,8 +3,8 @@ package com.bank.account;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class AccountApplicationTests {
+@SpringBootTest(properties = "query-budget.enforce=true")
+class AccountApplicationTests extends PostgresIntegrationTest {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,85 @@
+package com.bank.account;
+
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Customer;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Base for tests that need the real schema: guarded UPDATEs, ON CONFLICT upserts and row locks are Postgres behaviour.
+// One container serves the whole run so Spring's cached contexts keep a live database between test classes.
+@SpringBootTest
+public abstract class PostgresIntegrationTest {
+
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    // Tests share one database, so every fixture gets numbers no other test uses
+    private static final AtomicLong FIXTURE_SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000_000L);
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    protected CustomerRepository customerRepository;
+
+    @Autowired
+    protected AccountRepository accountRepository;
+
+    @Autowired
+    protected CardRepository cardRepository;
+
+    protected Customer newCustomer() {
+        long n = FIXTURE_SEQUENCE.incrementAndGet();
+        Customer customer = new Customer();
+        customer.setName("Test Customer " + n);
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress("1 Test Street");
+        customer.setMobileNumber(String.format("9%09d", n % 1_000_000_000L));
+        customer.setKycCompleted(true);
+        return customerRepository.save(customer);
+    }
+
+    protected Account newAccount(double balance) {
+        Account account = new Account();
+        account.setCustomer(newCustomer());
+        account.setAccountNumber(String.format("10%010d", FIXTURE_SEQUENCE.incrementAndGet() % 10_000_000_000L));
+        account.setAccountType("SAVINGS");
+        account.setIfscCode("TEST0000001");
+        account.setBranch("Test Branch");
+        account.setBalance(balance);
+        return accountRepository.save(account);
+    }
+
+    protected Card newCreditCard(Account account, double creditLimit, int billGenerationDay) {
+        Card card = new Card();
+        card.setAccount(account);
+        card.setCustomer(account.getCustomer());
+        card.setCardNumber(String.format("5312%012d", FIXTURE_SEQUENCE.incrementAndGet() % 1_000_000_000_000L));
+        card.setCardType(CardType.CREDIT);
+        card.setPin("not-a-hash");
+        card.setIssueDate(LocalDate.now().minusYears(1));
+        card.setExpiryDate(LocalDate.now().plusYears(4));
+        card.setCvv("123");
+        card.setCreditLimit(creditLimit);
+        card.setBillGenerationDay(billGenerationDay);
+        return cardRepository.save(card);
+    }
+}
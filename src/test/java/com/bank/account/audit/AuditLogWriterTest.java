@@ -0,0 +1,175 @@
+package com.bank.account.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Each test stalls the first insert so the ring (capacity 4, one entry per batch) fills up and the policy decides
+class AuditLogWriterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path tempDir;
+
+    private final List<AuditLog> saved = new CopyOnWriteArrayList<>();
+    private final CountDownLatch insertStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseInsert = new CountDownLatch(1);
+    private final List<AuditLogWriter> writers = new ArrayList<>();
+
+    @AfterEach
+    void stopWriters() throws InterruptedException {
+        releaseInsert.countDown();
+        for (AuditLogWriter writer : writers) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void blockPolicyHoldsTheCallerUntilASlotFreesAndKeepsEveryEntry() throws Exception {
+        AuditLogWriter writer = startWriter(AuditOverflowPolicy.BLOCK, stalledRepository());
+        writer.publish(entry(0));
+        assertThat(insertStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> caller = CompletableFuture.runAsync(() -> {
+            for (int i = 1; i < 20; i++) {
+                writer.publish(entry(i));
+            }
+        });
+        // Four entries fill the ring; the fifth publish has to wait for the stalled insert
+        await().atMost(TIMEOUT).until(() -> writer.getMetrics().getQueueDepth() == 4);
+        Thread.sleep(200);
+        assertThat(caller).isNotDone();
+
+        releaseInsert.countDown();
+        caller.get(10, TimeUnit.SECONDS);
+        await().atMost(TIMEOUT).until(() -> saved.size() == 20);
+
+        AuditWriterMetrics metrics = writer.getMetrics();
+        assertThat(metrics.getPublished()).isEqualTo(20);
+        assertThat(metrics.getWritten()).isEqualTo(20);
+        assertThat(metrics.getDropped()).isZero();
+        assertThat(saved).extracting(AuditLog::getDetails).containsExactlyElementsOf(details(0, 20));
+    }
+
+    @Test
+    void dropPolicyDiscardsAndCountsWhatDoesNotFit() throws Exception {
+        AuditLogWriter writer = startWriter(AuditOverflowPolicy.DROP, stalledRepository());
+        writer.publish(entry(0));
+        assertThat(insertStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Returns at once: one entry is in the stalled insert, four fit the ring, the other fifteen are dropped
+        for (int i = 1; i < 20; i++) {
+            writer.publish(entry(i));
+        }
+        assertThat(writer.getMetrics().getDropped()).isEqualTo(15);
+
+        releaseInsert.countDown();
+        await().atMost(TIMEOUT).until(() -> saved.size() == 5);
+
+        AuditWriterMetrics metrics = writer.getMetrics();
+        assertThat(metrics.getPublished()).isEqualTo(20);
+        assertThat(metrics.getWritten()).isEqualTo(5);
+        assertThat(metrics.getWritten() + metrics.getDropped()).isEqualTo(metrics.getPublished());
+        assertThat(saved).extracting(AuditLog::getDetails).containsExactlyElementsOf(details(0, 5));
+    }
+
+    @Test
+    void spillPolicyWritesOverflowToTheFileAndTheNextStartReplaysIt() throws Exception {
+        Path spillFile = tempDir.resolve("audit-spill.ndjson");
+        AuditLogWriter writer = startWriter(AuditOverflowPolicy.SPILL, stalledRepository(), spillFile);
+        writer.publish(entry(0));
+        assertThat(insertStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 1; i < 20; i++) {
+            writer.publish(entry(i));
+        }
+        assertThat(writer.getMetrics().getSpilled()).isEqualTo(15);
+        assertThat(Files.readAllLines(spillFile)).hasSize(15);
+
+        releaseInsert.countDown();
+        await().atMost(TIMEOUT).until(() -> saved.size() == 5);
+        writer.stop();
+
+        // A restart replays the spilled entries before taking new ones, then removes the file
+        AuditLogWriter restarted = startWriter(AuditOverflowPolicy.SPILL, stalledRepository(), spillFile);
+        await().atMost(TIMEOUT).until(() -> saved.size() == 20);
+
+        assertThat(restarted.getMetrics().getWritten()).isEqualTo(15);
+        assertThat(saved).extracting(AuditLog::getDetails).containsExactlyElementsOf(details(0, 20));
+        assertThat(saved.subList(5, 20)).allSatisfy(replayed -> assertThat(replayed.getTimestamp()).isNotNull());
+        assertThat(spillFile).doesNotExist();
+        assertThat(tempDir.resolve("audit-spill.ndjson.replaying")).doesNotExist();
+    }
+
+    // Records every inserted entry; the first insert waits until the test releases it
+    private AuditLogRepository stalledRepository() {
+        AuditLogRepository repository = mock(AuditLogRepository.class);
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            insertStarted.countDown();
+            assertThat(releaseInsert.await(10, TimeUnit.SECONDS)).isTrue();
+            List<AuditLog> batch = new ArrayList<>();
+            invocation.<Iterable<AuditLog>>getArgument(0).forEach(batch::add);
+            saved.addAll(batch);
+            return batch;
+        });
+        return repository;
+    }
+
+    private AuditLogWriter startWriter(AuditOverflowPolicy policy, AuditLogRepository repository) {
+        return startWriter(policy, repository, tempDir.resolve("unused-spill.ndjson"));
+    }
+
+    private AuditLogWriter startWriter(AuditOverflowPolicy policy, AuditLogRepository repository, Path spillFile) {
+        AuditLogWriter writer = new AuditLogWriter();
+        ReflectionTestUtils.setField(writer, "auditLogRepository", repository);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(writer, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(writer, "capacity", 4);
+        ReflectionTestUtils.setField(writer, "batchSize", 1);
+        ReflectionTestUtils.setField(writer, "flushIntervalMillis", 10L);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "spillFile", spillFile.toString());
+        writer.start();
+        writers.add(writer);
+        return writer;
+    }
+
+    private AuditLog entry(int i) {
+        AuditLog entry = new AuditLog();
+        entry.setUsername("auditor");
+        entry.setAction("TEST");
+        entry.setDetails("entry-" + i);
+        entry.setTimestamp(LocalDateTime.now());
+        return entry;
+    }
+
+    private List<String> details(int from, int to) {
+        List<String> details = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            details.add("entry-" + i);
+        }
+        return details;
+    }
+}
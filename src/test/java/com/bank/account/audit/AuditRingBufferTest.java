@@ -0,0 +1,101 @@
+package com.bank.account.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new AuditRingBuffer<String>(1).capacity()).isEqualTo(2);
+        assertThat(new AuditRingBuffer<String>(8).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer<String>(9).capacity()).isEqualTo(16);
+    }
+
+    @Test
+    void fullBufferRefusesUntilTheConsumerFreesASlot() {
+        AuditRingBuffer<String> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer("e" + i)).isTrue();
+        }
+
+        assertThat(buffer.offer("e4")).isFalse();
+        assertThat(buffer.poll()).isEqualTo("e0");
+        assertThat(buffer.offer("e4")).isTrue();
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    void entriesComeOutInOrderAcrossManyLaps() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 100; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            assertThat(buffer.poll()).isEqualTo(i);
+        }
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+        int producers = 8;
+        int perProducer = 100_000;
+        // Small against the volume, so producers keep hitting a full ring and racing for freed slots
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            // Single consumer, as in the writer; each producer's entries must also keep their order
+            int total = producers * perProducer;
+            int[] seen = new int[total];
+            int[] lastByProducer = new int[producers];
+            Arrays.fill(lastByProducer, -1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            for (int received = 0; received < total; ) {
+                Integer entry = buffer.poll();
+                if (entry == null) {
+                    assertThat(System.nanoTime()).as("consumer stalled").isLessThan(deadline);
+                    Thread.onSpinWait();
+                    continue;
+                }
+                seen[entry]++;
+                assertThat(entry).isGreaterThan(lastByProducer[entry / perProducer]);
+                lastByProducer[entry / perProducer] = entry;
+                received++;
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            assertThat(seen).containsOnly(1);
+            assertThat(buffer.poll()).isNull();
+            assertThat(buffer.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
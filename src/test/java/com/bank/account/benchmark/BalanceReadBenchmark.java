@@ -0,0 +1,94 @@
+package com.bank.account.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Secondary to HotAccountCreditBenchmark, which measures the write path striping exists for: what stripes cost
+// balance reads. Main row then stripe sum (two round trips) versus the single statement behind
+// AccountRepository.findTotalBalanceByAccountNumber.
+// Run: mvn test-compile, then java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main BalanceReadBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceReadBenchmark {
+
+    private static final String ACCOUNT_NUMBER = "100000000001";
+
+    @Param({"0", "16", "64"})
+    public int stripes;
+
+    private PostgresBenchmarkDatabase database;
+    private PreparedStatement mainRow;
+    private PreparedStatement stripeSum;
+    private PreparedStatement total;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        database.execute(
+                "DROP TABLE IF EXISTS bench_stripe",
+                "DROP TABLE IF EXISTS bench_account",
+                "CREATE TABLE bench_account (id BIGINT PRIMARY KEY, account_number VARCHAR(18) UNIQUE NOT NULL, balance FLOAT8 NOT NULL)",
+                "CREATE TABLE bench_stripe (id BIGSERIAL PRIMARY KEY, account_id BIGINT NOT NULL, stripe_index INT NOT NULL, " +
+                        "balance FLOAT8 NOT NULL, UNIQUE (account_id, stripe_index))",
+                "INSERT INTO bench_account SELECT g, (100000000000 + g)::text, 1000 FROM generate_series(1, 10000) g",
+                "INSERT INTO bench_stripe (account_id, stripe_index, balance) SELECT 1, g, 10 FROM generate_series(0, " + (stripes - 1) + ") g",
+                "ANALYZE bench_account",
+                "ANALYZE bench_stripe");
+        mainRow = database.connection().prepareStatement("SELECT id, balance FROM bench_account WHERE account_number = ?");
+        stripeSum = database.connection().prepareStatement("SELECT COALESCE(SUM(balance), 0) FROM bench_stripe WHERE account_id = ?");
+        total = database.connection().prepareStatement(
+                "SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM bench_stripe s WHERE s.account_id = a.id), 0) " +
+                "FROM bench_account a WHERE a.account_number = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public double twoStatements() throws SQLException {
+        mainRow.setString(1, ACCOUNT_NUMBER);
+        long id;
+        double balance;
+        try (ResultSet rs = mainRow.executeQuery()) {
+            rs.next();
+            id = rs.getLong(1);
+            balance = rs.getDouble(2);
+        }
+        stripeSum.setLong(1, id);
+        try (ResultSet rs = stripeSum.executeQuery()) {
+            rs.next();
+            return balance + rs.getDouble(1);
+        }
+    }
+
+    @Benchmark
+    public double oneStatement() throws SQLException {
+        total.setString(1, ACCOUNT_NUMBER);
+        try (ResultSet rs = total.executeQuery()) {
+            rs.next();
+            return rs.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.AccountApplication;
+import com.bank.account.dto.AuthorizationRequest;
+import com.bank.account.dto.AuthorizationResponse;
+import com.bank.account.dto.AuthorizationStatus;
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Customer;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CustomerRepository;
+import com.bank.account.service.CardAuthorizationService;
+import com.bank.account.service.PinHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latency distribution of card authorization (SampleTime reports p50/p90/p99/p99.9) with the application
+// booted against Postgres: PIN check on the PIN pool plus the in-memory hold, then release.
+// 16 caller threads against card.pin.workers=4 shows the queueing the PIN pool adds at the tail.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main CardAuthorizationLatencyBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(16)
+public class CardAuthorizationLatencyBenchmark {
+
+    private static final String PIN = "4321";
+
+    @Param({"310000", "600000"})
+    public int pinHashIterations;
+
+    private PostgresBenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private CardAuthorizationService authorizations;
+    private String cardNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        List<String> args = new ArrayList<>(List.of(database.springDatasourceArgs()));
+        args.add("--server.port=0");
+        args.add("--logging.level.com.bank.account=WARN");
+        args.add("--logging.level.org.hibernate.SQL=WARN");
+        args.add("--card.pin.hash-iterations=" + pinHashIterations);
+        context = new SpringApplicationBuilder(AccountApplication.class).run(args.toArray(String[]::new));
+        authorizations = context.getBean(CardAuthorizationService.class);
+        cardNumber = createCreditCard();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public AuthorizationResponse authorizeAndRelease() {
+        AuthorizationRequest request = new AuthorizationRequest();
+        request.setAmount(10);
+        request.setPin(PIN);
+        request.setMerchant("bench");
+        AuthorizationResponse response = authorizations.authorize(cardNumber, request).join();
+        if (response.getStatus() != AuthorizationStatus.APPROVED) {
+            throw new IllegalStateException("Authorization declined: " + response.getDeclineReason());
+        }
+        return authorizations.release(response.getAuthorizationId());
+    }
+
+    private String createCreditCard() {
+        Customer customer = new Customer();
+        customer.setName("Bench Customer");
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress("1 Bench Street");
+        customer.setMobileNumber("9000000001");
+        customer = context.getBean(CustomerRepository.class).save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountNumber("100000000001");
+        account.setAccountType("SAVINGS");
+        account.setIfscCode("BNCH0000001");
+        account.setBranch("Bench");
+        account = context.getBean(AccountRepository.class).save(account);
+
+        Card card = new Card();
+        card.setCustomer(customer);
+        card.setAccount(account);
+        card.setCardNumber("5312340000000013");
+        card.setCardType(CardType.CREDIT);
+        card.setPin(context.getBean(PinHasher.class).hash(PIN));
+        card.setIssueDate(LocalDate.now());
+        card.setExpiryDate(LocalDate.now().plusYears(4));
+        card.setCvv("123");
+        card.setCreditLimit(1_000_000_000);
+        return context.getBean(CardRepository.class).save(card).getCardNumber();
+    }
+}
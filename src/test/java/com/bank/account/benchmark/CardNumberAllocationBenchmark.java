@@ -0,0 +1,95 @@
+package com.bank.account.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost per issued card number: the old random number + existsByCardNumber loop against a block reserved from
+// the BIN range row with one locked UPDATE and served from memory (CardNumberAllocator's scheme).
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main CardNumberAllocationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardNumberAllocationBenchmark {
+
+    @Param({"1000000"})
+    public int existingCards;
+
+    @Param({"1000"})
+    public int blockSize;
+
+    private PostgresBenchmarkDatabase database;
+    private PreparedStatement exists;
+    private PreparedStatement reserve;
+    private long next;
+    private long end;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        database.execute(
+                "DROP TABLE IF EXISTS bench_card",
+                "DROP TABLE IF EXISTS bench_bin_range",
+                "CREATE TABLE bench_card (id BIGSERIAL PRIMARY KEY, card_number VARCHAR(16) UNIQUE NOT NULL)",
+                "INSERT INTO bench_card (card_number) SELECT lpad((random() * 1e16)::bigint::text, 16, '0') " +
+                        "FROM generate_series(1, " + existingCards + ") ON CONFLICT DO NOTHING",
+                "CREATE TABLE bench_bin_range (bin VARCHAR(6) PRIMARY KEY, next_sequence BIGINT NOT NULL)",
+                "INSERT INTO bench_bin_range VALUES ('531234', 0)",
+                "ANALYZE bench_card");
+        exists = database.connection().prepareStatement("SELECT 1 FROM bench_card WHERE card_number = ?");
+        reserve = database.connection().prepareStatement(
+                "UPDATE bench_bin_range SET next_sequence = next_sequence + ? WHERE bin = '531234' RETURNING next_sequence");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public String randomWithExistsCheck() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            String candidate = String.format("%04d%04d%04d%04d",
+                    random.nextInt(10000), random.nextInt(10000), random.nextInt(10000), random.nextInt(10000));
+            exists.setString(1, candidate);
+            try (ResultSet rs = exists.executeQuery()) {
+                if (!rs.next()) {
+                    return candidate;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public long reservedBlock() throws SQLException {
+        if (next == end) {
+            reserve.setLong(1, blockSize);
+            try (ResultSet rs = reserve.executeQuery()) {
+                rs.next();
+                end = rs.getLong(1);
+                next = end - blockSize;
+            }
+        }
+        return next++;
+    }
+}
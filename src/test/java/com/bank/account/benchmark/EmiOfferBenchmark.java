@@ -0,0 +1,143 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.AccountApplication;
+import com.bank.account.dto.CardType;
+import com.bank.account.dto.EMIOfferResponse;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Customer;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CustomerRepository;
+import com.bank.account.repository.TransactionRepository;
+import com.bank.account.service.EMIService;
+import com.bank.account.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// EMI offers for a card's purchases with the application booted against Postgres: one lookup per transaction
+// versus the bulk offer paths, which read every candidate in one query and price all tenures in one pass.
+// EmiOfferCardBenchmark takes the by-card path to 10000 candidates.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main EmiOfferBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmiOfferBenchmark {
+
+    @Param({"10", "100"})
+    public int purchases;
+
+    private PostgresBenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private EMIService emiService;
+    private String cardNumber;
+    private List<Long> transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        List<String> args = new ArrayList<>(List.of(database.springDatasourceArgs()));
+        args.add("--server.port=0");
+        args.add("--logging.level.com.bank.account=WARN");
+        args.add("--logging.level.org.hibernate.SQL=WARN");
+        context = new SpringApplicationBuilder(AccountApplication.class).run(args.toArray(String[]::new));
+        emiService = context.getBean(EMIService.class);
+        createPurchases();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<EMIOfferResponse> perTransaction() {
+        List<EMIOfferResponse> offers = new ArrayList<>(transactionIds.size());
+        for (Long transactionId : transactionIds) {
+            offers.add(emiService.getEmiOffers(transactionId));
+        }
+        return offers;
+    }
+
+    @Benchmark
+    public List<EMIOfferResponse> byTransactionIds() {
+        return emiService.getEmiOffers(transactionIds);
+    }
+
+    @Benchmark
+    public List<EMIOfferResponse> byCard() {
+        return emiService.getEmiOffersForCard(cardNumber);
+    }
+
+    private void createPurchases() {
+        Customer customer = new Customer();
+        customer.setName("Bench Customer");
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress("1 Bench Street");
+        customer.setMobileNumber("9000000002");
+        customer = context.getBean(CustomerRepository.class).save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountNumber("100000000002");
+        account.setAccountType("SAVINGS");
+        account.setIfscCode("BNCH0000001");
+        account.setBranch("Bench");
+        account = context.getBean(AccountRepository.class).save(account);
+
+        Card card = new Card();
+        card.setCustomer(customer);
+        card.setAccount(account);
+        card.setCardNumber("5312340000000021");
+        card.setCardType(CardType.CREDIT);
+        card.setPin("not-a-hash");
+        card.setIssueDate(LocalDate.now());
+        card.setExpiryDate(LocalDate.now().plusYears(4));
+        card.setCvv("123");
+        card.setCreditLimit(1_000_000_000);
+        card = context.getBean(CardRepository.class).save(card);
+        cardNumber = card.getCardNumber();
+
+        TransactionIdGenerator transactionIdGenerator = context.getBean(TransactionIdGenerator.class);
+        List<Transaction> transactions = new ArrayList<>(purchases);
+        for (int i = 0; i < purchases; i++) {
+            Transaction purchase = new Transaction();
+            purchase.setTransactionId(transactionIdGenerator.nextId());
+            purchase.setAccount(account);
+            purchase.setCard(card);
+            purchase.setAmount(2_000 + 100 * i);
+            purchase.setTransactionType("DEBIT");
+            purchase.setDate(LocalDateTime.now().minusMinutes(i));
+            purchase.setDescription("Bench purchase " + i);
+            transactions.add(purchase);
+        }
+        transactionIds = context.getBean(TransactionRepository.class).saveAll(transactions).stream()
+                .map(Transaction::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.AccountApplication;
+import com.bank.account.dto.CardType;
+import com.bank.account.dto.EMIOfferResponse;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Customer;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CustomerRepository;
+import com.bank.account.repository.TransactionRepository;
+import com.bank.account.service.EMIService;
+import com.bank.account.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The by-card offer path at cohort sizes EmiOfferBenchmark cannot reach: the per-transaction baseline would be
+// 10k round trips per operation and the by-ids endpoint is capped at 1000 ids. One candidate query, then every
+// candidate priced in EMIServiceImpl.buildOffers; the 1000 and 10000 cases show how both scale with candidates.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main EmiOfferCardBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmiOfferCardBenchmark {
+
+    @Param({"1000", "10000"})
+    public int candidates;
+
+    private PostgresBenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private EMIService emiService;
+    private String cardNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        List<String> args = new ArrayList<>(List.of(database.springDatasourceArgs()));
+        args.add("--server.port=0");
+        args.add("--logging.level.com.bank.account=WARN");
+        args.add("--logging.level.org.hibernate.SQL=WARN");
+        context = new SpringApplicationBuilder(AccountApplication.class).run(args.toArray(String[]::new));
+        emiService = context.getBean(EMIService.class);
+        createPurchases();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public List<EMIOfferResponse> byCard() {
+        return emiService.getEmiOffersForCard(cardNumber);
+    }
+
+    private void createPurchases() {
+        Customer customer = new Customer();
+        customer.setName("Bench Customer");
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress("1 Bench Street");
+        customer.setMobileNumber("9000000004");
+        customer = context.getBean(CustomerRepository.class).save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountNumber("100000000004");
+        account.setAccountType("SAVINGS");
+        account.setIfscCode("BNCH0000001");
+        account.setBranch("Bench");
+        account = context.getBean(AccountRepository.class).save(account);
+
+        Card card = new Card();
+        card.setCustomer(customer);
+        card.setAccount(account);
+        card.setCardNumber("5312340000000047");
+        card.setCardType(CardType.CREDIT);
+        card.setPin("not-a-hash");
+        card.setIssueDate(LocalDate.now());
+        card.setExpiryDate(LocalDate.now().plusYears(4));
+        card.setCvv("123");
+        card.setCreditLimit(1_000_000_000);
+        card = context.getBean(CardRepository.class).save(card);
+        cardNumber = card.getCardNumber();
+
+        // Inserted in slices so no single persistence context holds the whole cohort
+        TransactionIdGenerator transactionIdGenerator = context.getBean(TransactionIdGenerator.class);
+        TransactionRepository transactionRepository = context.getBean(TransactionRepository.class);
+        for (int from = 0; from < candidates; from += 1_000) {
+            List<Transaction> slice = new ArrayList<>(1_000);
+            for (int i = from; i < Math.min(from + 1_000, candidates); i++) {
+                Transaction purchase = new Transaction();
+                purchase.setTransactionId(transactionIdGenerator.nextId());
+                purchase.setAccount(account);
+                purchase.setCard(card);
+                purchase.setAmount(2_000 + i % 500 * 100);
+                purchase.setTransactionType("DEBIT");
+                purchase.setDate(LocalDateTime.now().minusMinutes(i));
+                purchase.setDescription("Bench purchase " + i);
+                slice.add(purchase);
+            }
+            transactionRepository.saveAll(slice);
+        }
+    }
+}
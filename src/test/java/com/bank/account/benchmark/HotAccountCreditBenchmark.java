@@ -0,0 +1,97 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.AccountApplication;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Customer;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.CustomerRepository;
+import com.bank.account.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of concurrent credits to one hot account (the fee account's write pattern) with the application
+// booted against Postgres. With 1 stripe every credit queues on the same row lock, as an unstriped account
+// would; more stripes spread the 32 callers across rows. BalanceReadBenchmark covers what striping costs reads.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main HotAccountCreditBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(32)
+public class HotAccountCreditBenchmark {
+
+    private static final String ACCOUNT_NUMBER = "100000000003";
+
+    @Param({"1", "8", "32"})
+    public int stripes;
+
+    private PostgresBenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        List<String> args = new ArrayList<>(List.of(database.springDatasourceArgs()));
+        args.add("--server.port=0");
+        args.add("--logging.level.com.bank.account=WARN");
+        args.add("--logging.level.org.hibernate.SQL=WARN");
+        // One connection per caller, so the row lock rather than the pool is what the callers queue on
+        args.add("--spring.datasource.hikari.maximum-pool-size=40");
+        context = new SpringApplicationBuilder(AccountApplication.class).run(args.toArray(String[]::new));
+        accountService = context.getBean(AccountService.class);
+        createHotAccount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public Transaction credit() {
+        return accountService.credit(ACCOUNT_NUMBER, 2.50, "FEE", "Bench transfer fee");
+    }
+
+    private void createHotAccount() {
+        Customer customer = new Customer();
+        customer.setName("Bench Customer");
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress("1 Bench Street");
+        customer.setMobileNumber("9000000003");
+        customer = context.getBean(CustomerRepository.class).save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountNumber(ACCOUNT_NUMBER);
+        account.setAccountType("CURRENT");
+        account.setIfscCode("BNCH0000001");
+        account.setBranch("Bench");
+        context.getBean(AccountRepository.class).save(account);
+        accountService.configureBalanceStripes(ACCOUNT_NUMBER, stripes);
+    }
+}
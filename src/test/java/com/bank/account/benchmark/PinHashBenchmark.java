@@ -0,0 +1,46 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.service.PinHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// One PBKDF2-HMAC-SHA256 PIN hash per iteration count, for tuning card.pin.hash-iterations to the 50-200 ms budget.
+// A verification waits for every hash queued ahead of it, so pick a count whose single hash leaves room for one.
+// PinStormLatencyBenchmark checks that other requests stay fast while those hashes saturate the PIN pool.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main PinHashBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PinHashBenchmark {
+
+    @Param({"100000", "210000", "310000", "600000"})
+    public int iterations;
+
+    private PinHasher pinHasher;
+
+    @Setup
+    public void setUp() {
+        pinHasher = new PinHasher();
+        ReflectionTestUtils.setField(pinHasher, "iterations", iterations);
+    }
+
+    @Benchmark
+    public String hash() {
+        return pinHasher.hash("4321");
+    }
+}
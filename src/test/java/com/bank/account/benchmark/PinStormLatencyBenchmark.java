@@ -0,0 +1,142 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.AccountApplication;
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Customer;
+import com.bank.account.repository.AccountRepository;
+import com.bank.account.repository.CardRepository;
+import com.bank.account.repository.CustomerRepository;
+import com.bank.account.service.PinHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latency of an unrelated request (account balance) over HTTP while a PIN-verification storm saturates the PIN
+// pool: 16 callers authorizing against card.pin.workers=4, with only 8 Tomcat threads. If verification held web
+// threads, the balance request would queue behind the hashes; it runs on the PIN pool, so "pinStorm:balance"
+// should stay close to "balanceIdle". Authorizations rejected with 503 (PIN queue full) still count as storm load.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main PinStormLatencyBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PinStormLatencyBenchmark {
+
+    private static final String PIN = "4321";
+
+    private PostgresBenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest authorize;
+    private HttpRequest balance;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new PostgresBenchmarkDatabase();
+        List<String> args = new ArrayList<>(List.of(database.springDatasourceArgs()));
+        args.add("--server.port=0");
+        args.add("--server.tomcat.threads.max=8");
+        args.add("--card.pin.workers=4");
+        args.add("--logging.level.com.bank.account=WARN");
+        args.add("--logging.level.org.hibernate.SQL=WARN");
+        context = new SpringApplicationBuilder(AccountApplication.class).run(args.toArray(String[]::new));
+        Card card = createCreditCard();
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        authorize = HttpRequest.newBuilder(URI.create(baseUrl + "/api/cards/" + card.getCardNumber() + "/authorize"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1,\"pin\":\"" + PIN + "\",\"merchant\":\"bench\"}"))
+                .build();
+        balance = HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + card.getAccount().getAccountNumber() + "/balance"))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public int balanceIdle() throws IOException, InterruptedException {
+        return send(balance);
+    }
+
+    @Benchmark
+    @Group("pinStorm")
+    @GroupThreads(16)
+    public int authorize() throws IOException, InterruptedException {
+        return send(authorize);
+    }
+
+    @Benchmark
+    @Group("pinStorm")
+    @GroupThreads(1)
+    public int balance() throws IOException, InterruptedException {
+        return send(balance);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Card createCreditCard() {
+        Customer customer = new Customer();
+        customer.setName("Bench Customer");
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress("1 Bench Street");
+        customer.setMobileNumber("9000000005");
+        customer = context.getBean(CustomerRepository.class).save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountNumber("100000000005");
+        account.setAccountType("SAVINGS");
+        account.setIfscCode("BNCH0000001");
+        account.setBranch("Bench");
+        account.setBalance(1_000);
+        account = context.getBean(AccountRepository.class).save(account);
+
+        Card card = new Card();
+        card.setCustomer(customer);
+        card.setAccount(account);
+        card.setCardNumber("5312340000000054");
+        card.setCardType(CardType.CREDIT);
+        card.setPin(context.getBean(PinHasher.class).hash(PIN));
+        card.setIssueDate(LocalDate.now());
+        card.setExpiryDate(LocalDate.now().plusYears(4));
+        card.setCvv("123");
+        card.setCreditLimit(1_000_000_000); // Holds are never released; the limit outlasts any run
+        return context.getBean(CardRepository.class).save(card);
+    }
+}
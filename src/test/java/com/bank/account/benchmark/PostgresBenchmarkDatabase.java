@@ -0,0 +1,62 @@
+package com.bank.account.benchmark;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Database for the JDBC benchmarks: -Dbench.jdbc.url (plus .user/.password) points at an existing Postgres,
+// otherwise a throwaway container is started. Round trips are what these benchmarks compare, so run them
+// against a database on another host when the absolute numbers matter.
+final class PostgresBenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Connection connection;
+
+    PostgresBenchmarkDatabase() throws SQLException {
+        if (System.getProperty("bench.jdbc.url") == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        } else {
+            container = null;
+            url = System.getProperty("bench.jdbc.url");
+            username = System.getProperty("bench.jdbc.user", "postgres");
+            password = System.getProperty("bench.jdbc.password", "");
+        }
+        connection = DriverManager.getConnection(url, username, password);
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    // Command-line style properties for benchmarks that boot the application against this database
+    String[] springDatasourceArgs() {
+        return new String[]{"--spring.datasource.url=" + url, "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password};
+    }
+
+    void execute(String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
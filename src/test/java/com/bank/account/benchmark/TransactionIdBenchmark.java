@@ -0,0 +1,46 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.service.SnowflakeTransactionIdGenerator;
+import com.bank.account.service.TransactionIdGenerator;
+import com.bank.account.service.UuidTransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Id generation cost under contention: the Snowflake CAS loop against UUID.randomUUID (SecureRandom).
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main TransactionIdBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TransactionIdBenchmark {
+
+    @Param({"snowflake", "uuid"})
+    public String generator;
+
+    private TransactionIdGenerator ids;
+
+    @Setup
+    public void setUp() {
+        ids = generator.equals("snowflake") ? new SnowflakeTransactionIdGenerator(1) : new UuidTransactionIdGenerator();
+    }
+
+    @Benchmark
+    public String nextId() {
+        return ids.nextId();
+    }
+}
@@ -0,0 +1,76 @@
+package com.bank.account.benchmark;
+
+import com.bank.account.service.SnowflakeTransactionIdGenerator;
+import com.bank.account.service.TransactionIdGenerator;
+import com.bank.account.service.UuidTransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Batched inserts into a table with a unique index on transaction_id, preloaded with 2M rows so the index
+// no longer fits the hot pages: time-ordered ids append to the right edge, random UUIDs touch pages all over.
+// Run: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main TransactionIdIndexBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TransactionIdIndexBenchmark {
+
+    private static final int BATCH = 500;
+
+    @Param({"snowflake", "uuid"})
+    public String generator;
+
+    @Param({"2000000"})
+    public int preloadRows;
+
+    private TransactionIdGenerator ids;
+    private PostgresBenchmarkDatabase database;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ids = generator.equals("snowflake") ? new SnowflakeTransactionIdGenerator(1) : new UuidTransactionIdGenerator();
+        database = new PostgresBenchmarkDatabase();
+        database.execute(
+                "DROP TABLE IF EXISTS bench_transaction",
+                "CREATE TABLE bench_transaction (id BIGSERIAL PRIMARY KEY, transaction_id VARCHAR(64) NOT NULL, amount FLOAT8 NOT NULL)",
+                "CREATE UNIQUE INDEX uk_bench_transaction_transaction_id ON bench_transaction (transaction_id)");
+        insert = database.connection().prepareStatement("INSERT INTO bench_transaction (transaction_id, amount) VALUES (?, ?)");
+        for (int loaded = 0; loaded < preloadRows; loaded += BATCH) {
+            insertBatch();
+        }
+        database.execute("VACUUM ANALYZE bench_transaction");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, ids.nextId());
+            insert.setDouble(2, i);
+            insert.addBatch();
+        }
+        return insert.executeBatch();
+    }
+}
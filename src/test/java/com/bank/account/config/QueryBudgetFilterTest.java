@@ -0,0 +1,89 @@
+package com.bank.account.config;
+
+import com.bank.account.exception.QueryBudgetExceededException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetFilterTest {
+
+    private final QueryBudgetFilter filter = new QueryBudgetFilter();
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/things");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void enforce() {
+        ReflectionTestUtils.setField(filter, "defaultBudget", 20);
+        ReflectionTestUtils.setField(filter, "enforce", true);
+    }
+
+    @Test
+    void bodyWithinBudgetIsSent() throws Exception {
+        filter.doFilter(request, response, handledBy("budgeted", 2));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+    }
+
+    @Test
+    void overBudgetRequestFailsBeforeAnythingIsSent() {
+        assertThatThrownBy(() -> filter.doFilter(request, response, handledBy("budgeted", 3)))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("issued 3 SQL statements, over its budget of 2");
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void streamedBodyIsWrittenAsItGoesAndNotChecked() throws Exception {
+        filter.doFilter(request, response, handledBy("streamed", 50));
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+        assertThat(response.isCommitted()).isTrue();
+    }
+
+    // Runs the interceptor for the given handler, issues the statements and writes the body, then flushes
+    private MockFilterChain handledBy(String handlerMethodName, int statements) throws NoSuchMethodException {
+        HandlerMethod handler = new HandlerMethod(new Handlers(), Handlers.class.getMethod(handlerMethodName));
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                filter.preHandle(req, res, handler);
+                for (int i = 0; i < statements; i++) {
+                    counter.inspect("select 1");
+                }
+                res.setContentType("application/json");
+                res.getWriter().write("{\"ok\":true}");
+                res.flushBuffer();
+            }
+        });
+    }
+
+    static class Handlers {
+
+        @QueryBudget(2)
+        public String budgeted() {
+            return "";
+        }
+
+        public StreamingResponseBody streamed() {
+            return out -> {
+            };
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.account.controller;
+
+import com.bank.account.dto.CardType;
+import com.bank.account.exception.PinServiceUnavailableException;
+import com.bank.account.service.CardAuthorizationService;
+import com.bank.account.service.CardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CardController.class)
+class CardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CardService cardService;
+
+    @MockitoBean
+    private CardAuthorizationService cardAuthorizationService;
+
+    @Test
+    void issueCardAnswers503WhenThePinPoolIsFull() throws Exception {
+        when(cardService.issueCard(anyLong(), anyLong(), any(CardType.class), anyDouble()))
+                .thenReturn(CompletableFuture.failedFuture(new PinServiceUnavailableException("PIN service is busy, please retry")));
+
+        MvcResult result = mockMvc.perform(post("/api/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":1,\"accountId\":2,\"cardType\":\"DEBIT\",\"limit\":500}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("PIN service is busy, please retry"));
+    }
+}
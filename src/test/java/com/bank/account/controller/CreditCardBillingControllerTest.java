@@ -0,0 +1,65 @@
+package com.bank.account.controller;
+
+import com.bank.account.dto.CreditCardBillView;
+import com.bank.account.dto.PaymentStatus;
+import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.service.CreditCardBillingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CreditCardBillingController.class)
+class CreditCardBillingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CreditCardBillingService creditCardBillingService;
+
+    @Test
+    void unknownBillLineItemsAre404AndNotCached() throws Exception {
+        when(creditCardBillingService.getBillLineItems(42L))
+                .thenThrow(new ResourceNotFoundException("Credit Card Bill not found with ID: 42"));
+
+        mockMvc.perform(get("/api/credit-card-bills/bill/42/line-items"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void statementEtagChangesWithTheBillVersion() throws Exception {
+        when(creditCardBillingService.getBillLineItems(7L)).thenReturn(List.of());
+        when(creditCardBillingService.getBillDetails(7L)).thenReturn(bill(7L, 1_000, 3));
+        String etag = mockMvc.perform(get("/api/credit-card-bills/bill/7/statement"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/credit-card-bills/bill/7/statement").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Same outstanding after a payment and an accrual cancel out; only the version tells the bills apart
+        when(creditCardBillingService.getBillDetails(7L)).thenReturn(bill(7L, 1_000, 5));
+        String changed = mockMvc.perform(get("/api/credit-card-bills/bill/7/statement").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    private static CreditCardBillView bill(Long id, double outstanding, long version) {
+        return new CreditCardBillView(id, "5312000000000001", LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 25),
+                outstanding, 50, outstanding, 0, 0, PaymentStatus.PARTIAL, version);
+    }
+}
@@ -0,0 +1,145 @@
+package com.bank.account.controller;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.config.SqlStatementCounter;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.CreditCardBill;
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.Transaction;
+import com.bank.account.dto.EMIConversionRequest;
+import com.bank.account.repository.TransactionRepository;
+import com.bank.account.service.BillingCycle;
+import com.bank.account.service.CreditCardBillingService;
+import com.bank.account.service.EMIService;
+import com.bank.account.service.TransactionIdGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every @QueryBudget endpoint against realistic data, with the filter enforcing. The filter resets the counter
+// per request on the calling thread, so after perform() it holds the request's statement count.
+@SpringBootTest(properties = "query-budget.enforce=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetEndpointTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EMIService emiService;
+
+    @Autowired
+    private CreditCardBillingService creditCardBillingService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    private Account account;
+    private Card card;
+    private Transaction purchase;
+    private Transaction unconverted;
+    private EMIPlan plan;
+    private CreditCardBill bill;
+
+    @BeforeAll
+    void createData() {
+        account = newAccount(50_000);
+        card = newCreditCard(account, 100_000, 20);
+        // Purchases in the last closed cycle, so the bill snapshots them as line items
+        LocalDateTime inCycle = BillingCycle.closedOn(20, LocalDate.now().minusDays(1)).billingDate().atTime(12, 0);
+        purchase = newPurchase(6_000, inCycle);
+        newPurchase(2_500, inCycle);
+        unconverted = newPurchase(4_000, LocalDateTime.now());
+        EMIConversionRequest request = new EMIConversionRequest();
+        request.setTransactionId(purchase.getId());
+        request.setTenureMonths(6);
+        plan = emiService.convertToEmi(request);
+        bill = creditCardBillingService.generateBill(card.getCardNumber());
+    }
+
+    @Test
+    void customerAndAccountEndpoints() throws Exception {
+        String accountNumber = account.getAccountNumber();
+        Long customerId = account.getCustomer().getId();
+        assertStatements(get("/api/customers"), 1);
+        assertStatements(get("/api/customers/{id}", customerId), 1);
+        assertStatements(get("/api/customers/{id}/accounts", customerId), 1);
+        assertStatements(get("/api/accounts"), 1);
+        assertStatements(get("/api/accounts/{accountNumber}", accountNumber), 1);
+        assertStatements(get("/api/accounts/{accountNumber}/cards", accountNumber), 1);
+        assertStatements(get("/api/accounts/{accountNumber}/transactions", accountNumber), 3);
+    }
+
+    @Test
+    void transactionAndCardEndpoints() throws Exception {
+        String cardNumber = card.getCardNumber();
+        assertStatements(get("/api/transactions"), 1);
+        assertStatements(get("/api/transactions/{id}", unconverted.getId()), 1);
+        assertStatements(get("/api/cards/{cardNumber}", cardNumber), 1);
+        assertStatements(get("/api/cards/{cardNumber}/transactions", cardNumber), 2);
+        assertStatements(get("/api/cards/{cardNumber}/transactions/monthly", cardNumber)
+                .param("year", String.valueOf(LocalDate.now().getYear()))
+                .param("month", String.valueOf(LocalDate.now().getMonthValue())), 2);
+    }
+
+    @Test
+    void emiEndpoints() throws Exception {
+        assertStatements(get("/api/emi/offers/{transactionId}", unconverted.getId()), 1);
+        assertStatements(get("/api/emi/offers/card/{cardNumber}", card.getCardNumber()), 2);
+        assertStatements(post("/api/emi/offers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"transactionIds\":[" + purchase.getId() + "," + unconverted.getId() + "]}"), 1);
+        assertStatements(get("/api/emi/plan/{emiPlanId}", plan.getId()), 1);
+        assertStatements(get("/api/emi/plan/{emiPlanId}/schedule", plan.getId()), 2);
+        // Includes the transaction UPDATE and plan INSERT
+        assertStatements(post("/api/emi/convert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"transactionId\":" + unconverted.getId() + ",\"tenureMonths\":3}"), 6);
+    }
+
+    @Test
+    void billEndpoints() throws Exception {
+        assertStatements(get("/api/credit-card-bills/bill/{billId}", bill.getId()), 1);
+        assertStatements(get("/api/credit-card-bills/bill/{billId}/statement", bill.getId()), 3);
+        assertStatements(get("/api/credit-card-bills/bill/{billId}/line-items", bill.getId()), 2);
+        assertStatements(get("/api/credit-card-bills/bill/{billId}/accruals", bill.getId()), 1);
+        assertStatements(get("/api/credit-card-bills/{cardNumber}/history", card.getCardNumber()), 1);
+    }
+
+    // The budget is the endpoint's @QueryBudget; with enforcement on, an overrun already fails perform()
+    private void assertStatements(RequestBuilder request, int budget) throws Exception {
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        assertThat(SqlStatementCounter.count()).isPositive().isLessThanOrEqualTo(budget);
+    }
+
+    private Transaction newPurchase(double amount, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setAccount(account);
+        transaction.setCard(card);
+        transaction.setAmount(amount);
+        transaction.setTransactionType("DEBIT");
+        transaction.setDate(date);
+        transaction.setDescription("Purchase with card " + card.getCardNumber());
+        return transactionRepository.save(transaction);
+    }
+}
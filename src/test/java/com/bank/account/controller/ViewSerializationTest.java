@@ -0,0 +1,116 @@
+package com.bank.account.controller;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import com.bank.account.service.TransactionIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// With open-session-in-view off nothing can lazy-load while Jackson writes the body, so every response has to be a
+// view built from loaded state: associations appear as ids or keys, never as nested entities.
+@AutoConfigureMockMvc
+class ViewSerializationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Test
+    void openSessionInViewIsOff() {
+        assertThat(applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void customerAndAccountReadsCarryIdsInsteadOfNestedEntities() throws Exception {
+        Account account = newAccount(1_000);
+        Long customerId = account.getCustomer().getId();
+
+        mockMvc.perform(get("/api/customers/{id}", customerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(customerId))
+                .andExpect(jsonPath("$.accounts").doesNotExist());
+        mockMvc.perform(get("/api/customers/{id}/accounts", customerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value(account.getAccountNumber()))
+                .andExpect(jsonPath("$[0].customerId").value(customerId))
+                .andExpect(jsonPath("$[0].customer").doesNotExist())
+                .andExpect(jsonPath("$[0].cards").doesNotExist());
+    }
+
+    @Test
+    void cardReadsLeaveOutSecretsAndTheOwningAccount() throws Exception {
+        Account account = newAccount(1_000);
+        Card card = newCreditCard(account, 50_000, 20);
+
+        mockMvc.perform(get("/api/cards/{cardNumber}", card.getCardNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardNumber").value(card.getCardNumber()))
+                .andExpect(jsonPath("$.accountId").value(account.getId()))
+                .andExpect(jsonPath("$.cvv").doesNotExist())
+                .andExpect(jsonPath("$.pin").doesNotExist())
+                .andExpect(jsonPath("$.account").doesNotExist());
+        mockMvc.perform(get("/api/accounts/{accountNumber}/cards", account.getAccountNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cardNumber").value(card.getCardNumber()))
+                .andExpect(jsonPath("$[0].cvv").doesNotExist());
+    }
+
+    @Test
+    void writeEndpointsMapTheSavedEntityAfterItsTransactionHasEnded() throws Exception {
+        Account account = newAccount(1_000);
+        Card card = newCreditCard(account, 50_000, 20);
+        Transaction purchase = new Transaction();
+        purchase.setTransactionId(transactionIdGenerator.nextId());
+        purchase.setAccount(account);
+        purchase.setCard(card);
+        purchase.setAmount(6_000);
+        purchase.setTransactionType("DEBIT");
+        purchase.setDate(LocalDateTime.now());
+        purchase.setDescription("Purchase");
+        purchase = transactionRepository.save(purchase);
+
+        // Lazy associations of the returned entity are only read for their ids
+        mockMvc.perform(patch("/api/accounts/{accountNumber}/status", account.getAccountNumber())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"active\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(account.getCustomer().getId()));
+        mockMvc.perform(post("/api/emi/convert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactionId\":" + purchase.getId() + ",\"tenureMonths\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.originalTransactionId").value(purchase.getId()))
+                .andExpect(jsonPath("$.cardNumber").value(card.getCardNumber()))
+                .andExpect(jsonPath("$.originalTransaction").doesNotExist())
+                .andExpect(jsonPath("$.card").doesNotExist());
+        mockMvc.perform(patch("/api/cards/{cardNumber}/block", card.getCardNumber()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BLOCKED"))
+                .andExpect(jsonPath("$.accountId").value(account.getId()));
+    }
+}
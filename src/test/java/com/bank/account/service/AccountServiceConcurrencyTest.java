@@ -0,0 +1,105 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.entity.Account;
+import com.bank.account.exception.InsufficientFundsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountServiceConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void concurrentDepositsAndWithdrawalsLoseNoUpdate() throws Exception {
+        Account account = newAccount(10_000);
+        String accountNumber = account.getAccountNumber();
+        int perThread = 25;
+
+        runConcurrently(i -> {
+            for (int n = 0; n < perThread; n++) {
+                if (i % 2 == 0) {
+                    accountService.deposit(accountNumber, 3);
+                } else {
+                    accountService.withdraw(accountNumber, 1);
+                }
+            }
+        });
+
+        double expected = 10_000 + (THREADS / 2) * perThread * 3 - (THREADS / 2) * perThread;
+        assertThat(accountService.getBalance(accountNumber)).isEqualTo(expected);
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverOverdraw() throws Exception {
+        Account account = newAccount(1_000);
+        String accountNumber = account.getAccountNumber();
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+
+        runConcurrently(i -> {
+            for (int n = 0; n < 5; n++) {
+                try {
+                    accountService.withdraw(accountNumber, 100);
+                    approved.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    declined.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(approved.get()).isEqualTo(10);
+        assertThat(declined.get()).isEqualTo(THREADS * 5 - 10);
+        assertThat(accountService.getBalance(accountNumber)).isZero();
+    }
+
+    @Test
+    void postingReturnsTheBalanceAfterThePosting() {
+        Account account = newAccount(500);
+
+        Account posted = accountService.withdraw(account.getAccountNumber(), 120);
+
+        assertThat(posted.getBalance()).isEqualTo(380);
+    }
+
+    private void runConcurrently(Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    worker.run(index);
+                    return null;
+                };
+                futures.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface Worker {
+        void run(int threadIndex) throws Exception;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.CardCycleTotals;
+import com.bank.account.entity.Card;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BillingCycleAccumulatorServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BillingCycleAccumulatorService billingCycleAccumulatorService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void postingToABilledCycleIsCarriedIntoTheNextCycle() {
+        Card card = newCreditCard(newAccount(0), 100_000, 10);
+        LocalDate postedOn = LocalDate.of(2022, 5, 10);
+        BillingCycle cycle = BillingCycle.openOn(10, postedOn);
+        BillingCycle nextCycle = BillingCycle.openOn(10, cycle.billingDate().plusDays(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            billingCycleAccumulatorService.recordCharge(card, 100, postedOn);
+            billingCycleAccumulatorService.closeCycle(card.getId(), cycle);
+            billingCycleAccumulatorService.recordCharge(card, 40, postedOn);
+            billingCycleAccumulatorService.recordPayment(card, 25, postedOn);
+        });
+
+        assertThat(billingCycleAccumulatorService.getTotals(card.getId(), cycle)).get()
+                .extracting(CardCycleTotals::getCharges, CardCycleTotals::getPayments).containsExactly(100.0, 0.0);
+        assertThat(billingCycleAccumulatorService.getTotals(card.getId(), nextCycle)).get()
+                .extracting(CardCycleTotals::getCharges, CardCycleTotals::getPayments).containsExactly(40.0, 25.0);
+    }
+}
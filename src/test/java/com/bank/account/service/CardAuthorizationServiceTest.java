@@ -0,0 +1,122 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.AuthorizationRequest;
+import com.bank.account.dto.AuthorizationResponse;
+import com.bank.account.dto.AuthorizationStatus;
+import com.bank.account.dto.CardType;
+import com.bank.account.dto.PaymentOption;
+import com.bank.account.dto.PaymentStatus;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.CreditCardBill;
+import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.CreditCardBillRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "card.pin.hash-iterations=1000")
+class CardAuthorizationServiceTest extends PostgresIntegrationTest {
+
+    private static final String PIN = "1234";
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
+    @Autowired
+    private CardStateTable cardStateTable;
+
+    @Autowired
+    private DailySpendTracker dailySpendTracker;
+
+    @Autowired
+    private PinHasher pinHasher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CreditCardBillingService creditCardBillingService;
+
+    @Autowired
+    private CreditCardBillRepository creditCardBillRepository;
+
+    @Test
+    void captureIsDeclinedWhenTheLimitWasUsedElsewhereAndTheHoldIsReleased() {
+        Card card = newCreditCard(newAccount(0), 100, 20);
+        card.setPin(pinHasher.hash(PIN));
+        card = cardRepository.save(card);
+        AuthorizationResponse authorized = authorize(card.getCardNumber(), 80);
+        assertThat(authorized.getStatus()).isEqualTo(AuthorizationStatus.APPROVED);
+
+        // Another instance posted against the same card; this instance's table does not know yet
+        Long cardId = card.getId();
+        transactionTemplate.executeWithoutResult(status -> cardRepository.addCreditUsed(cardId, 50));
+
+        AuthorizationResponse captured = cardAuthorizationService.capture(authorized.getAuthorizationId());
+
+        assertThat(captured.getStatus()).isEqualTo(AuthorizationStatus.DECLINED);
+        assertThat(captured.getDeclineReason()).isEqualTo("Credit limit exceeded at clearing");
+        assertThat(cardRepository.findById(cardId).orElseThrow().getCurrentCreditUsed()).isEqualTo(50);
+        assertThat(cardStateTable.get(card.getCardNumber()).availableMinor()).isEqualTo(100_00);
+    }
+
+    @Test
+    void billPaymentFreesCreditForAuthorizations() {
+        Card card = newCreditCard(newAccount(1_000), 100, 20);
+        card.setPin(pinHasher.hash(PIN));
+        card = cardRepository.save(card);
+        AuthorizationResponse purchase = authorize(card.getCardNumber(), 80);
+        assertThat(cardAuthorizationService.capture(purchase.getAuthorizationId()).getStatus()).isEqualTo(AuthorizationStatus.CAPTURED);
+        assertThat(cardStateTable.get(card.getCardNumber()).availableMinor()).isEqualTo(20_00);
+
+        CreditCardBill bill = new CreditCardBill();
+        bill.setCard(card);
+        bill.setBillingDate(LocalDate.now().minusDays(5));
+        bill.setDueDate(LocalDate.now().plusDays(10));
+        bill.setTotalAmountDue(80);
+        bill.setMinimumAmountDue(10);
+        bill.setCurrentOutstanding(80);
+        bill.setPaymentStatus(PaymentStatus.UNPAID);
+        creditCardBillRepository.save(bill);
+        creditCardBillingService.payBill(card.getCardNumber(), PaymentOption.OTHER_AMOUNT, 60);
+
+        assertThat(cardRepository.findById(card.getId()).orElseThrow().getCurrentCreditUsed()).isEqualTo(20);
+        assertThat(cardStateTable.get(card.getCardNumber()).availableMinor()).isEqualTo(80_00);
+        assertThat(authorize(card.getCardNumber(), 70).getStatus()).isEqualTo(AuthorizationStatus.APPROVED);
+    }
+
+    @Test
+    void captureOfARemovedCardReleasesItsHoldAndDailySpend() {
+        Account account = newAccount(1_000);
+        Card card = newCreditCard(account, 0, 20);
+        card.setCardType(CardType.DEBIT);
+        card.setDailyWithdrawalLimit(500);
+        card.setPin(pinHasher.hash(PIN));
+        card = cardRepository.save(card);
+        AuthorizationResponse authorized = authorize(card.getCardNumber(), 200);
+        assertThat(dailySpendTracker.getSpentToday(card.getId())).isEqualTo(200);
+
+        cardRepository.deleteById(card.getId());
+
+        assertThatThrownBy(() -> cardAuthorizationService.capture(authorized.getAuthorizationId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(dailySpendTracker.getSpentToday(card.getId())).isZero();
+        assertThat(cardAuthorizationService.getMetrics().getActiveHolds()).isZero();
+    }
+
+    private AuthorizationResponse authorize(String cardNumber, double amount) {
+        AuthorizationRequest request = new AuthorizationRequest();
+        request.setAmount(amount);
+        request.setPin(PIN);
+        request.setMerchant("test");
+        return cardAuthorizationService.authorize(cardNumber, request).join();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.CardType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// BINs no other test issues under, so the first reservation really creates the range row
+@SpringBootTest(properties = {"card.bin.debit=499901", "card.bin.credit=599901", "card.number.block-size=10"})
+class CardNumberAllocatorTest extends PostgresIntegrationTest {
+
+    private static final int INSTANCES = 4;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void instancesCreatingTheFirstRangeTogetherGetDisjointBlocks() throws Exception {
+        // Each allocator stands in for one application instance with its own in-memory blocks
+        List<CardNumberAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            allocators.add(beanFactory.createBean(CardNumberAllocator.class));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(INSTANCES);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (CardNumberAllocator allocator : allocators) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    List<String> numbers = new ArrayList<>();
+                    for (int n = 0; n < 25; n++) {
+                        numbers.add(allocator.nextCardNumber(CardType.DEBIT));
+                    }
+                    return numbers;
+                }));
+            }
+            start.countDown();
+
+            Set<String> issued = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                for (String number : result.get()) {
+                    assertThat(number).hasSize(16).startsWith("499901");
+                    assertThat(issued.add(number)).as("duplicate card number %s", number).isTrue();
+                }
+            }
+            assertThat(issued).hasSize(INSTANCES * 25);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void issuedNumbersCarryAValidLuhnCheckDigit() {
+        String number = CardNumberAllocator.format("531234", 42);
+
+        assertThat(number).isEqualTo("531234000000042" + CardNumberAllocator.luhnCheckDigit("531234000000042"));
+        assertThat(CardNumberAllocator.luhnCheckDigit("7992739871")).isEqualTo(3);
+    }
+
+    @Test
+    void binThatDoesNotFitTheSixteenDigitLayoutIsRejected() {
+        CardNumberAllocator allocator = new CardNumberAllocator();
+        ReflectionTestUtils.setField(allocator, "debitBin", "42123");
+        ReflectionTestUtils.setField(allocator, "creditBin", "531234");
+
+        assertThatThrownBy(allocator::init).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("42123");
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardType;
+import com.bank.account.entity.Card;
+import com.bank.account.exception.PinServiceUnavailableException;
+import com.bank.account.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CardServiceImplTest {
+
+    @Mock
+    private PinVerifier pinVerifier;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private CardServiceImpl cardService;
+
+    @Test
+    void fullPinQueueFailsIssuanceBeforeAnyTransactionOpens() {
+        when(pinVerifier.hash(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new PinServiceUnavailableException("PIN service is busy, please retry")));
+
+        CompletableFuture<Card> issued = cardService.issueCard(1L, 2L, CardType.DEBIT, 500);
+
+        assertThat(issued).failsWithin(Duration.ZERO)
+                .withThrowableThat().havingRootCause().isInstanceOf(PinServiceUnavailableException.class);
+        verifyNoInteractions(transactionTemplate, customerRepository);
+    }
+}
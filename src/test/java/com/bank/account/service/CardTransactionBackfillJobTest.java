@@ -0,0 +1,55 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.BatchJobStatus;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.BatchJobCheckpointRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "card.transaction-backfill.enabled=false")
+class CardTransactionBackfillJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CardTransactionBackfillJob backfillJob;
+
+    @Autowired
+    private BatchJobCheckpointRepository batchJobCheckpointRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Test
+    void finishedBackfillIsRecordedAndNotRunAgain() {
+        backfillJob.backfill();
+
+        assertThat(batchJobCheckpointRepository.findByJobNameAndRunDate(CardTransactionBackfillJob.JOB_NAME, CardTransactionBackfillJob.RUN_DATE))
+                .get().extracting("status").isEqualTo(BatchJobStatus.COMPLETED);
+
+        // A legacy-shaped row written after completion is left alone: the job no longer scans
+        Account account = newAccount(0);
+        Card card = newCreditCard(account, 10_000, 20);
+        Transaction legacy = new Transaction();
+        legacy.setTransactionId(transactionIdGenerator.nextId());
+        legacy.setAccount(account);
+        legacy.setAmount(10);
+        legacy.setTransactionType("CREDIT_CARD_PURCHASE");
+        legacy.setDate(LocalDateTime.now());
+        legacy.setDescription("Purchase with card " + card.getCardNumber());
+        legacy = transactionRepository.save(legacy);
+
+        assertThat(backfillJob.backfill()).isZero();
+        assertThat(transactionRepository.findById(legacy.getId()).orElseThrow().getCard()).isNull();
+    }
+}
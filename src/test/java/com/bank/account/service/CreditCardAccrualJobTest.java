@@ -0,0 +1,71 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.PaymentStatus;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.CreditCardBill;
+import com.bank.account.exception.InvalidInputException;
+import com.bank.account.repository.CreditCardBillRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class CreditCardAccrualJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CreditCardAccrualJob creditCardAccrualJob;
+
+    @Autowired
+    private CreditCardBillingService creditCardBillingService;
+
+    @Autowired
+    private CreditCardBillRepository creditCardBillRepository;
+
+    @Test
+    void overdueBillAccruesInterestAndOneLateFeeOncePerDate() {
+        CreditCardBill bill = newOverdueBill(10_000);
+        LocalDate today = LocalDate.now();
+
+        creditCardAccrualJob.accrue(today);
+        creditCardAccrualJob.accrue(today);
+
+        // 10,000 at 42% a year for one day, rounded to cents, plus the one-time fee of 500
+        CreditCardBill accrued = creditCardBillRepository.findById(bill.getId()).orElseThrow();
+        assertThat(accrued.getAccruedInterest()).isCloseTo(11.51, within(0.001));
+        assertThat(accrued.getLateFeesCharged()).isEqualTo(500);
+        assertThat(accrued.getCurrentOutstanding()).isCloseTo(10_511.51, within(0.001));
+        assertThat(accrued.getVersion()).isEqualTo(bill.getVersion() + 1);
+        assertThat(creditCardBillingService.getBillAccruals(bill.getId())).hasSize(1);
+    }
+
+    @Test
+    void accrualsCannotBeRunForAFutureDate() {
+        assertThatThrownBy(() -> creditCardBillingService.runAccruals(LocalDate.now().plusDays(1)))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void partitionsMustLeaveAPooledConnectionForRequests() {
+        assertThatNoException().isThrownBy(() -> CreditCardAccrualJob.checkPoolSize(4, 10));
+        assertThatThrownBy(() -> CreditCardAccrualJob.checkPoolSize(5, 10)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private CreditCardBill newOverdueBill(double outstanding) {
+        Card card = newCreditCard(newAccount(0), 100_000, 20);
+        CreditCardBill bill = new CreditCardBill();
+        bill.setCard(card);
+        bill.setBillingDate(LocalDate.now().minusDays(30));
+        bill.setDueDate(LocalDate.now().minusDays(15));
+        bill.setTotalAmountDue(outstanding);
+        bill.setMinimumAmountDue(outstanding * 0.05);
+        bill.setCurrentOutstanding(outstanding);
+        bill.setPaymentStatus(PaymentStatus.UNPAID);
+        return creditCardBillRepository.save(bill);
+    }
+}
@@ -0,0 +1,131 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.config.SqlStatementCounter;
+import com.bank.account.dto.BatchJobStatus;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.BatchJobCheckpoint;
+import com.bank.account.entity.Card;
+import com.bank.account.repository.BatchJobCheckpointRepository;
+import com.bank.account.repository.CreditCardBillRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Two workers with two-card chunks, so six cards make a full wave of four plus a second wave
+@SpringBootTest(properties = {"billing.job.workers=2", "billing.job.chunk-size=2"})
+class CreditCardBillingJobTest extends PostgresIntegrationTest {
+
+    // Each test bills its own day of the month, so no other card lands in its chunks
+    private static final int FAILING_CHUNK_BILL_DAY = 7;
+    private static final int STALE_INDEX_BILL_DAY = 9;
+    private static final int SYNCED_BILL_DAY = 11;
+
+    @Autowired
+    private CreditCardBillingJob creditCardBillingJob;
+
+    @Autowired
+    private BillingDayIndex billingDayIndex;
+
+    @Autowired
+    private CreditCardBillRepository creditCardBillRepository;
+
+    @Autowired
+    private BatchJobCheckpointRepository batchJobCheckpointRepository;
+
+    @MockitoSpyBean
+    private CreditCardStatementCalculator creditCardStatementCalculator;
+
+    @Test
+    void failedChunkKeepsTheRunOpenAndIsBilledWhenTheRunResumes() {
+        List<Long> cardIds = newCards(6, FAILING_CHUNK_BILL_DAY);
+        Long failingCardId = cardIds.get(2); // First card of the second chunk
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            Card card = invocation.getArgument(0);
+            if (card.getId().equals(failingCardId) && failOnce.compareAndSet(true, false)) {
+                throw new IllegalStateException("Simulated billing failure");
+            }
+            return invocation.callRealMethod();
+        }).when(creditCardStatementCalculator).calculate(any(), any());
+        LocalDate billingDate = LocalDate.of(2021, 3, FAILING_CHUNK_BILL_DAY);
+
+        creditCardBillingJob.generateBills(billingDate);
+
+        assertThat(creditCardBillRepository.findBilledCardIds(billingDate, cardIds))
+                .containsExactlyInAnyOrder(cardIds.get(0), cardIds.get(1), cardIds.get(4), cardIds.get(5));
+        BatchJobCheckpoint checkpoint = batchJobCheckpointRepository
+                .findByJobNameAndRunDate(CreditCardBillingJob.JOB_NAME, billingDate).orElseThrow();
+        assertThat(checkpoint.getStatus()).isEqualTo(BatchJobStatus.RUNNING);
+        assertThat(checkpoint.getLastProcessedId()).isEqualTo(cardIds.get(1));
+        assertThat(checkpoint.getFailedCount()).isEqualTo(2);
+
+        creditCardBillingJob.generateBills(billingDate);
+
+        assertThat(creditCardBillRepository.findBilledCardIds(billingDate, cardIds)).containsExactlyInAnyOrderElementsOf(cardIds);
+        assertThat(batchJobCheckpointRepository.findByJobNameAndRunDate(CreditCardBillingJob.JOB_NAME, billingDate))
+                .get().extracting("status").isEqualTo(BatchJobStatus.COMPLETED);
+    }
+
+    @Test
+    void cardMovedToAnotherBillDayIsNotBilledFromAStaleIndexEntry() {
+        List<Long> cardIds = newCards(2, STALE_INDEX_BILL_DAY);
+        // Moved without going through this instance, as a change made on another node would be
+        Card moved = cardRepository.findById(cardIds.get(1)).orElseThrow();
+        moved.setBillGenerationDay(STALE_INDEX_BILL_DAY + 1);
+        cardRepository.save(moved);
+        LocalDate billingDate = LocalDate.of(2021, 4, STALE_INDEX_BILL_DAY);
+
+        creditCardBillingJob.generateBills(billingDate);
+
+        assertThat(creditCardBillRepository.findBilledCardIds(billingDate, cardIds)).containsExactly(cardIds.get(0));
+    }
+
+    @Test
+    void syncAppliesOnlyTheCardsIssuedOrMovedElsewhereSinceTheLastSync() {
+        List<Long> cardIds = newCards(2, SYNCED_BILL_DAY);
+        billingDayIndex.sync();
+        // Moved on another instance: the row is stamped but this index is not told
+        Card moved = cardRepository.findById(cardIds.get(1)).orElseThrow();
+        moved.setBillGenerationDay(SYNCED_BILL_DAY + 1);
+        moved.setBillingDayChangedAt(LocalDateTime.now());
+        cardRepository.save(moved);
+        Card unstamped = cardRepository.findById(cardIds.get(0)).orElseThrow();
+        unstamped.setBillGenerationDay(SYNCED_BILL_DAY + 1);
+        cardRepository.save(unstamped);
+
+        SqlStatementCounter.reset();
+        billingDayIndex.sync();
+
+        // One indexed query for the changes, not a scan of the card table
+        assertThat(SqlStatementCounter.count()).isEqualTo(1);
+        assertThat(billingDayIndex.findCardIds(List.of(SYNCED_BILL_DAY + 1), cardIds.get(0) - 1, 1_000))
+                .contains(moved.getId())
+                .doesNotContain(unstamped.getId());
+        assertThat(billingDayIndex.findCardIds(List.of(SYNCED_BILL_DAY), cardIds.get(0) - 1, 1_000))
+                .contains(unstamped.getId())
+                .doesNotContain(moved.getId());
+    }
+
+    private List<Long> newCards(int count, int billDay) {
+        Account account = newAccount(0);
+        List<Long> cardIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Card card = newCreditCard(account, 100_000, billDay);
+            billingDayIndex.assign(card.getId(), billDay); // Fixtures bypass card issuance, which keeps the index current
+            cardIds.add(card.getId());
+        }
+        return cardIds;
+    }
+}
@@ -0,0 +1,160 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.CardSpendTotal;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailySpendTrackerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+    private static final Long CARD = 7L;
+    private static final long LIMIT = 100_00;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private DailySpendTracker tracker;
+
+    @Test
+    void spendIsAcceptedUpToTheLimitAndRefusedBeyondIt() {
+        assertThat(tracker.tryAdd(CARD, 60_00, LIMIT, DAY)).isTrue();
+        assertThat(tracker.tryAdd(CARD, 40_00, LIMIT, DAY)).isTrue();
+        assertThat(tracker.tryAdd(CARD, 1, LIMIT, DAY)).isFalse();
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(100);
+    }
+
+    @Test
+    void refusedSpendIsNotCounted() {
+        assertThat(tracker.tryAdd(CARD, 70_00, LIMIT, DAY)).isTrue();
+        assertThat(tracker.tryAdd(CARD, 50_00, LIMIT, DAY)).isFalse();
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(70);
+        assertThat(tracker.tryAdd(CARD, 30_00, LIMIT, DAY)).isTrue();
+    }
+
+    @Test
+    void zeroLimitCountsSpendWithoutCapping() {
+        assertThat(tracker.tryAdd(CARD, 1_000_000_00L, 0, DAY)).isTrue();
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void releasedHoldGivesItsSpendBack() {
+        tracker.tryAdd(CARD, 80_00, LIMIT, DAY);
+
+        tracker.subtract(CARD, DAY, 30_00);
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(50);
+        assertThat(tracker.tryAdd(CARD, 50_00, LIMIT, DAY)).isTrue();
+    }
+
+    @Test
+    void releaseOfAHoldFromAnotherDayLeavesTodayAlone() {
+        tracker.tryAdd(CARD, 80_00, LIMIT, DAY);
+
+        tracker.subtract(CARD, DAY.minusDays(1), 30_00);
+        tracker.subtract(8L, DAY, 30_00);
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(80);
+    }
+
+    @Test
+    void firstSpendAfterMidnightStartsAFreshDay() {
+        tracker.tryAdd(CARD, 90_00, LIMIT, DAY);
+
+        assertThat(tracker.tryAdd(CARD, 90_00, LIMIT, DAY.plusDays(1))).isTrue();
+        assertThat(tracker.getSpentOn(CARD, DAY.plusDays(1))).isEqualTo(90);
+        // A hold from yesterday released after the roll must not eat into today's spend
+        tracker.subtract(CARD, DAY, 90_00);
+        assertThat(tracker.getSpentOn(CARD, DAY.plusDays(1))).isEqualTo(90);
+    }
+
+    @Test
+    void callerThatReadTheClockBeforeMidnightCountsTowardsTheNewDay() {
+        tracker.tryAdd(CARD, 90_00, LIMIT, DAY.plusDays(1));
+
+        assertThat(tracker.tryAdd(CARD, 20_00, LIMIT, DAY)).isFalse();
+        assertThat(tracker.getSpentOn(CARD, DAY.plusDays(1))).isEqualTo(90);
+    }
+
+    @Test
+    void evictionDropsOnlyPreviousDays() {
+        tracker.tryAdd(CARD, 10_00, LIMIT, DAY);
+        tracker.tryAdd(8L, 20_00, LIMIT, DAY.plusDays(1));
+
+        tracker.evictPreviousDays(DAY.plusDays(1));
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isZero();
+        assertThat(tracker.getSpentOn(8L, DAY.plusDays(1))).isEqualTo(20);
+    }
+
+    @Test
+    void seedLoadsTodaysPostingsAndKeepsSpendThatRacedIt() {
+        when(transactionRepository.sumCardSpendSince(DAY.atStartOfDay(), DailySpendTracker.CARD_DEBIT_TRANSACTION_TYPES))
+                .thenReturn(List.of(new CardSpendTotal(CARD, 60.0), new CardSpendTotal(8L, 12.5)));
+        // Authorized between startup and the seed query
+        tracker.tryAdd(CARD, 15_00, LIMIT, DAY);
+
+        tracker.seed(DAY);
+
+        assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(75);
+        assertThat(tracker.getSpentOn(8L, DAY)).isEqualTo(12.5);
+        assertThat(tracker.tryAdd(CARD, 25_01, LIMIT, DAY)).isFalse();
+        assertThat(tracker.tryAdd(CARD, 25_00, LIMIT, DAY)).isTrue();
+    }
+
+    @Test
+    void concurrentSpendNeverOvershootsTheLimit() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 50;
+        // 3.00 does not divide 100.00, so the last accepted spend lands just under the boundary
+        long amount = 3_00;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int accepted = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (tracker.tryAdd(CARD, amount, LIMIT, DAY)) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<Integer> future : futures) {
+                accepted += future.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(accepted).isEqualTo(33);
+            assertThat(tracker.getSpentOn(CARD, DAY)).isEqualTo(99);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
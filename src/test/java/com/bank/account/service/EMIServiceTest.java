@@ -0,0 +1,55 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.EMIOfferResponse;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EMIServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EMIService emiService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Test
+    void bulkOffersCoverOnlyEligiblePurchases() {
+        Account account = newAccount(0);
+        Card card = newCreditCard(account, 100_000, 20);
+        Transaction purchase = newCardTransaction(account, card, "DEBIT", 5_000);
+        Transaction refund = newCardTransaction(account, card, "CREDIT", 5_000);
+        Transaction small = newCardTransaction(account, card, "DEBIT", 100);
+
+        List<EMIOfferResponse> byIds = emiService.getEmiOffers(List.of(purchase.getId(), refund.getId(), small.getId()));
+        List<EMIOfferResponse> byCard = emiService.getEmiOffersForCard(card.getCardNumber());
+
+        assertThat(byIds).extracting(EMIOfferResponse::getTransactionId).containsExactly(purchase.getId());
+        assertThat(byCard).extracting(EMIOfferResponse::getTransactionId).containsExactly(purchase.getId());
+        assertThat(byIds.get(0).getEmiOptions()).isNotEmpty();
+    }
+
+    private Transaction newCardTransaction(Account account, Card card, String transactionType, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setAccount(account);
+        transaction.setCard(card);
+        transaction.setAmount(amount);
+        transaction.setTransactionType(transactionType);
+        transaction.setDate(LocalDateTime.now());
+        transaction.setDescription(transactionType + " with card " + card.getCardNumber());
+        return transactionRepository.save(transaction);
+    }
+}
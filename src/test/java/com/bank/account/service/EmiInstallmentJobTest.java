@@ -0,0 +1,131 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.BatchJobStatus;
+import com.bank.account.dto.EMIConversionRequest;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.BatchJobCheckpointRepository;
+import com.bank.account.repository.EMIPlanRepository;
+import com.bank.account.repository.EMIScheduleRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Small chunks on four workers, so plans of one account are spread over chunks that run in parallel
+@SpringBootTest(properties = {"emi.processing.workers=4", "emi.processing.chunk-size=3"})
+class EmiInstallmentJobTest extends PostgresIntegrationTest {
+
+    // Every test processes its own business date: checkpoints are keyed on it
+    private static final AtomicInteger RUN_DAY = new AtomicInteger();
+
+    @Autowired
+    private EmiInstallmentJob emiInstallmentJob;
+
+    @Autowired
+    private EMIService emiService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EMIPlanRepository emiPlanRepository;
+
+    @Autowired
+    private EMIScheduleRepository emiScheduleRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BatchJobCheckpointRepository batchJobCheckpointRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Test
+    void collectsDueInstallmentsAndAdvancesThePlanCursor() {
+        Account account = newAccount(50_000);
+        EMIPlan plan = newPlan(account, 3_000, 3);
+        LocalDate runDate = nextRunDate();
+
+        emiInstallmentJob.process(runDate);
+
+        EMIPlan collected = emiPlanRepository.findById(plan.getId()).orElseThrow();
+        assertThat(collected.getInstallmentCursor()).isEqualTo(1);
+        assertThat(collected.getRemainingInstallments()).isEqualTo(2);
+        assertThat(collected.getNextDueDate()).isEqualTo(plan.getStartDate().plusMonths(2));
+        assertThat(accountService.getBalance(account.getAccountNumber()))
+                .isEqualTo(50_000 - plan.getMonthlyInstallmentAmount());
+        assertThat(batchJobCheckpointRepository.findByJobNameAndRunDate(EmiInstallmentJob.JOB_NAME, runDate))
+                .get().extracting("status").isEqualTo(BatchJobStatus.COMPLETED);
+    }
+
+    @Test
+    void declinedDebitIsStoredAsOverdueAndTheRunIsNotRepeated() {
+        Account account = newAccount(0);
+        EMIPlan plan = newPlan(account, 3_000, 3);
+        LocalDate runDate = nextRunDate();
+
+        emiInstallmentJob.process(runDate);
+        emiInstallmentJob.process(runDate);
+
+        assertThat(emiScheduleRepository.findByEmiPlan_IdOrderByInstallmentNumberAsc(plan.getId()))
+                .singleElement().extracting("status").isEqualTo("OVERDUE");
+        assertThat(emiPlanRepository.findById(plan.getId()).orElseThrow().getInstallmentCursor()).isEqualTo(1);
+    }
+
+    @Test
+    void parallelChunksDebitingSharedAccountsAllCommit() {
+        // Two accounts with interleaved plan ids: without a lock order, chunks would take the rows crosswise
+        Account first = newAccount(1_000_000);
+        Account second = newAccount(1_000_000);
+        List<EMIPlan> plans = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            plans.add(newPlan(i % 2 == 0 ? first : second, 3_000, 3));
+        }
+
+        emiInstallmentJob.process(nextRunDate());
+
+        double installment = plans.get(0).getMonthlyInstallmentAmount();
+        assertThat(emiPlanRepository.findAllById(plans.stream().map(EMIPlan::getId).toList()))
+                .allSatisfy(plan -> assertThat(plan.getInstallmentCursor()).isEqualTo(1));
+        assertThat(accountService.getBalance(first.getAccountNumber())).isCloseTo(1_000_000 - 12 * installment, within(0.01));
+        assertThat(accountService.getBalance(second.getAccountNumber())).isCloseTo(1_000_000 - 12 * installment, within(0.01));
+    }
+
+    private LocalDate nextRunDate() {
+        return LocalDate.now().plusMonths(1).plusDays(RUN_DAY.incrementAndGet());
+    }
+
+    private EMIPlan newPlan(Account account, double amount, int tenureMonths) {
+        if (cardRepository.findCreditCardsForCustomer(account.getCustomer().getId(), Limit.of(1)).isEmpty()) {
+            newCreditCard(account, 1_000_000, 20);
+        }
+        Transaction purchase = new Transaction();
+        purchase.setTransactionId(transactionIdGenerator.nextId());
+        purchase.setAccount(account);
+        purchase.setAmount(amount);
+        purchase.setTransactionType("DEBIT");
+        purchase.setDate(LocalDateTime.now());
+        purchase.setDescription("Purchase");
+        purchase = transactionRepository.save(purchase);
+
+        EMIConversionRequest request = new EMIConversionRequest();
+        request.setTransactionId(purchase.getId());
+        request.setTenureMonths(tenureMonths);
+        return emiService.convertToEmi(request);
+    }
+}
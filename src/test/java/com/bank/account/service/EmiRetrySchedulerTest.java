@@ -0,0 +1,128 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.EMIConversionRequest;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import com.bank.account.entity.EmiRetry;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.EMIPlanRepository;
+import com.bank.account.repository.EMIScheduleRepository;
+import com.bank.account.repository.EmiRetryRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+
+// A one-hour initial delay, so only a credit to the account can bring a retry forward within the test
+@SpringBootTest(properties = {"emi.retry.initial-delay-seconds=3600", "emi.retry.tick-ms=50"})
+class EmiRetrySchedulerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EmiRetryScheduler emiRetryScheduler;
+
+    @Autowired
+    private EmiScheduleCalculator emiScheduleCalculator;
+
+    @Autowired
+    private EMIService emiService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EMIPlanRepository emiPlanRepository;
+
+    @Autowired
+    private EMIScheduleRepository emiScheduleRepository;
+
+    @Autowired
+    private EmiRetryRepository emiRetryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void declinedRetryBacksOffAndCountsTheAttempt() {
+        Account account = newAccount(0);
+        EMISchedule overdue = newOverdueInstallment(account);
+        LocalDateTime before = LocalDateTime.now();
+
+        assertThat(emiRetryScheduler.retryAccount(account.getAccountNumber())).isZero();
+
+        EmiRetry retry = retries(account).get(0);
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        // Second attempt waits twice the initial delay
+        assertThat(retry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(7_200));
+        assertThat(emiScheduleRepository.findById(overdue.getId()).orElseThrow().getStatus()).isEqualTo("OVERDUE");
+    }
+
+    @Test
+    void creditToTheAccountCollectsTheOverdueInstallmentWithoutWaitingForTheBackoff() {
+        Account account = newAccount(0);
+        EMISchedule overdue = newOverdueInstallment(account);
+        int remaining = overdue.getEmiPlan().getRemainingInstallments();
+
+        accountService.deposit(account.getAccountNumber(), 50_000);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(emiScheduleRepository.findById(overdue.getId()).orElseThrow().getStatus()).isEqualTo("PAID"));
+        assertThat(retries(account)).isEmpty();
+        assertThat(emiPlanRepository.findById(overdue.getEmiPlan().getId()).orElseThrow().getRemainingInstallments())
+                .isEqualTo(remaining - 1);
+        assertThat(accountService.getBalance(account.getAccountNumber()))
+                .isCloseTo(50_000 - overdue.getTotalInstallmentAmount(), within(0.001));
+    }
+
+    // What the installment job records when the first installment's debit is declined
+    private EMISchedule newOverdueInstallment(Account account) {
+        EMIPlan plan = newPlan(account);
+        return transactionTemplate.execute(status -> {
+            EMIPlan managed = emiPlanRepository.findById(plan.getId()).orElseThrow();
+            EMISchedule installment = emiScheduleCalculator.installment(managed, 1);
+            installment.setStatus("OVERDUE");
+            EMISchedule saved = emiScheduleRepository.save(installment);
+            managed.setInstallmentCursor(1);
+            managed.setNextDueDate(managed.getStartDate().plusMonths(2));
+            emiRetryScheduler.scheduleRetry(saved, account.getAccountNumber());
+            return saved;
+        });
+    }
+
+    private EMIPlan newPlan(Account account) {
+        newCreditCard(account, 1_000_000, 20);
+        Transaction purchase = new Transaction();
+        purchase.setTransactionId(transactionIdGenerator.nextId());
+        purchase.setAccount(account);
+        purchase.setAmount(6_000);
+        purchase.setTransactionType("DEBIT");
+        purchase.setDate(LocalDateTime.now());
+        purchase.setDescription("Purchase");
+        purchase = transactionRepository.save(purchase);
+
+        EMIConversionRequest request = new EMIConversionRequest();
+        request.setTransactionId(purchase.getId());
+        request.setTenureMonths(3);
+        return emiService.convertToEmi(request);
+    }
+
+    private List<EmiRetry> retries(Account account) {
+        return transactionTemplate.execute(status -> emiRetryRepository.findByAccountNumberForUpdate(account.getAccountNumber()));
+    }
+}
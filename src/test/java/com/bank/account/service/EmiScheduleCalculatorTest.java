@@ -0,0 +1,77 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EmiScheduleCalculatorTest {
+
+    private final EmiScheduleCalculator calculator = new EmiScheduleCalculator();
+
+    @Test
+    void monthlyInstallmentFollowsTheAmortizationFormula() {
+        // 100,000 at 12% a year over 12 months
+        assertThat(calculator.monthlyInstallment(100_000, 0.12, 12)).isCloseTo(8_884.88, within(0.01));
+    }
+
+    @Test
+    void amortizationRepaysExactlyThePrincipal() {
+        EmiScheduleCalculator.Amortization amortization = calculator.amortization(0.16, 24);
+
+        assertThat(Arrays.stream(amortization.principalFactors()).sum()).isCloseTo(1, within(1e-9));
+        for (int i = 0; i < 24; i++) {
+            assertThat(amortization.principalFactors()[i] + amortization.interestFactors()[i])
+                    .isCloseTo(amortization.installmentFactor(), within(1e-12));
+        }
+        // Interest is charged on the remaining principal, so it shrinks every month
+        assertThat(amortization.interestFactors()[23]).isLessThan(amortization.interestFactors()[0]);
+        assertThat(calculator.amortization(0.16, 24)).isSameAs(amortization);
+    }
+
+    @Test
+    void installmentsScaleWithThePrincipalAndFollowTheCursor() {
+        EMIPlan plan = plan(24_600, 0.16, 6, 2);
+
+        EMISchedule third = calculator.installment(plan, 3);
+
+        EmiScheduleCalculator.Amortization amortization = calculator.amortization(0.16, 6);
+        assertThat(third.getPrincipalAmount()).isCloseTo(24_600 * amortization.principalFactors()[2], within(1e-9));
+        assertThat(third.getInterestAmount()).isCloseTo(24_600 * amortization.interestFactors()[2], within(1e-9));
+        assertThat(third.getTotalInstallmentAmount()).isEqualTo(plan.getMonthlyInstallmentAmount());
+        assertThat(third.getDueDate()).isEqualTo(plan.getStartDate().plusMonths(3));
+        assertThat(third.getStatus()).isEqualTo("PENDING");
+        assertThat(calculator.installment(plan, 2).getStatus()).isEqualTo("PAID");
+    }
+
+    @Test
+    void storedExceptionRowReplacesTheComputedInstallment() {
+        EMIPlan plan = plan(24_600, 0.16, 6, 3);
+        EMISchedule overdue = calculator.installment(plan, 2);
+        overdue.setStatus("OVERDUE");
+
+        List<EMISchedule> schedule = calculator.schedule(plan, List.of(overdue));
+
+        assertThat(schedule).extracting(EMISchedule::getInstallmentNumber).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(schedule).extracting(EMISchedule::getStatus)
+                .containsExactly("PAID", "OVERDUE", "PAID", "PENDING", "PENDING", "PENDING");
+        assertThat(schedule.get(1)).isSameAs(overdue);
+    }
+
+    private EMIPlan plan(double principal, double annualRate, int tenureMonths, int installmentCursor) {
+        EMIPlan plan = new EMIPlan();
+        plan.setPrincipalAmount(principal);
+        plan.setInterestRate(annualRate);
+        plan.setTenureMonths(tenureMonths);
+        plan.setMonthlyInstallmentAmount(calculator.monthlyInstallment(principal, annualRate, tenureMonths));
+        plan.setStartDate(LocalDate.of(2024, 1, 15));
+        plan.setInstallmentCursor(installmentCursor);
+        return plan;
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.EmiScheduleView;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.EMIPlan;
+import com.bank.account.entity.EMISchedule;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.EMIPlanRepository;
+import com.bank.account.repository.EMIScheduleRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EmiScheduleCompactionJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EmiScheduleCompactionJob emiScheduleCompactionJob;
+
+    @Autowired
+    private EMIService emiService;
+
+    @Autowired
+    private EMIPlanRepository emiPlanRepository;
+
+    @Autowired
+    private EMIScheduleRepository emiScheduleRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Test
+    void legacyPlanKeepsOnlyItsExceptionRowsAndComputesTheRest() {
+        EMIPlan plan = newLegacyPlan("PAID", "OVERDUE", "PENDING");
+
+        emiScheduleCompactionJob.compact();
+
+        EMIPlan compacted = emiPlanRepository.findById(plan.getId()).orElseThrow();
+        assertThat(compacted.getPrincipalAmount()).isCloseTo(30_600, within(0.001));
+        assertThat(compacted.getInstallmentCursor()).isEqualTo(2);
+        assertThat(compacted.getRemainingInstallments()).isEqualTo(2);
+        assertThat(compacted.getNextDueDate()).isEqualTo(plan.getStartDate().plusMonths(3));
+        assertThat(emiScheduleRepository.findByEmiPlan_IdOrderByInstallmentNumberAsc(plan.getId()))
+                .singleElement().extracting(EMISchedule::getStatus).isEqualTo("OVERDUE");
+        assertThat(emiService.getEmiSchedule(plan.getId()))
+                .extracting(EmiScheduleView::getStatus).containsExactly("PAID", "OVERDUE", "PENDING");
+    }
+
+    // A plan as conversion stored it before schedules were computed: no principal or cursor, one row per installment
+    private EMIPlan newLegacyPlan(String... rowStatuses) {
+        Account account = newAccount(0);
+        Transaction purchase = new Transaction();
+        purchase.setTransactionId(transactionIdGenerator.nextId());
+        purchase.setAccount(account);
+        purchase.setAmount(30_000);
+        purchase.setTransactionType("DEBIT");
+        purchase.setDate(LocalDateTime.now());
+        purchase.setDescription("Purchase");
+        purchase.setEmiConverted(true);
+        purchase = transactionRepository.save(purchase);
+
+        EMIPlan plan = new EMIPlan();
+        plan.setOriginalTransaction(purchase);
+        plan.setCard(newCreditCard(account, 100_000, 20));
+        plan.setOriginalAmount(30_000);
+        plan.setTenureMonths(rowStatuses.length);
+        plan.setInterestRate(0.16);
+        plan.setProcessingFeePercentage(0.02);
+        plan.setMonthlyInstallmentAmount(10_400);
+        plan.setTotalPayableAmount(10_400 * rowStatuses.length);
+        plan.setStartDate(LocalDate.now().minusMonths(2).minusDays(1));
+        plan.setEndDate(plan.getStartDate().plusMonths(rowStatuses.length));
+        plan.setStatus("ACTIVE");
+        plan = emiPlanRepository.save(plan);
+
+        for (int i = 0; i < rowStatuses.length; i++) {
+            EMISchedule row = new EMISchedule();
+            row.setEmiPlan(plan);
+            row.setInstallmentNumber(i + 1);
+            row.setPrincipalAmount(10_000);
+            row.setInterestAmount(400);
+            row.setTotalInstallmentAmount(10_400);
+            row.setDueDate(plan.getStartDate().plusMonths(i + 1));
+            row.setStatus(rowStatuses[i]);
+            emiScheduleRepository.save(row);
+        }
+        return plan;
+    }
+}
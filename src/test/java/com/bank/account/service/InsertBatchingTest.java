@@ -0,0 +1,164 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.config.SqlStatementCounter;
+import com.bank.account.dto.AuthorizationRequest;
+import com.bank.account.dto.AuthorizationResponse;
+import com.bank.account.dto.AuthorizationStatus;
+import com.bank.account.dto.CardType;
+import com.bank.account.dto.EMIConversionRequest;
+import com.bank.account.dto.FundTransferRequest;
+import com.bank.account.dto.PaymentOption;
+import com.bank.account.dto.PaymentStatus;
+import com.bank.account.dto.TransferType;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Card;
+import com.bank.account.entity.CreditCardBill;
+import com.bank.account.entity.Transaction;
+import com.bank.account.repository.CreditCardBillRepository;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement counts for the write paths that post several rows per request. Inserts are flushed at commit as
+// one JDBC batch per table; "+ 1" allows for the pooled sequence fetching its next block of 50 ids.
+@SpringBootTest(properties = {"payments.fee-account-number=", "card.pin.hash-iterations=1000"})
+class InsertBatchingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private EMIService emiService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CreditCardBillingService creditCardBillingService;
+
+    @Autowired
+    private CreditCardBillRepository creditCardBillRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private CardAuthorizationService cardAuthorizationService;
+
+    @Autowired
+    private PinHasher pinHasher;
+
+    @Test
+    void impsTransferInsertsItsFiveTransactionsInOneBatch() {
+        Account from = newAccount(10_000);
+        Account to = newAccount(0);
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(1_000);
+        request.setTransferType(TransferType.IMPS);
+        request.setRemarks("rent");
+
+        SqlStatementCounter.reset();
+        List<Transaction> transactions = paymentService.initiateFundTransfer(request);
+        int statements = SqlStatementCounter.count();
+
+        // IMPS_DEBIT, FEE and IMPS_CREDIT returned; WITHDRAWAL and DEPOSIT recorded by the account postings
+        assertThat(transactions).hasSize(3);
+        assertThat(transactionService.getTransactionsForAccount(from.getAccountNumber(), null, null, null, 50).getTransactions()).hasSize(3);
+        // 2 account loads, 2 x (guarded UPDATE ... RETURNING + refresh of the loaded account), 1 insert batch
+        assertThat(statements).isLessThanOrEqualTo(7 + 1);
+    }
+
+    @Test
+    void emiConversionIsAFixedNumberOfStatements() {
+        Account account = newAccount(0);
+        newCreditCard(account, 100_000, 20);
+        Transaction purchase = new Transaction();
+        purchase.setTransactionId(transactionIdGenerator.nextId());
+        purchase.setAccount(account);
+        purchase.setAmount(24_000);
+        purchase.setTransactionType("DEBIT");
+        purchase.setDate(LocalDateTime.now());
+        purchase.setDescription("Purchase");
+        purchase = transactionRepository.save(purchase);
+
+        EMIConversionRequest request = new EMIConversionRequest();
+        request.setTransactionId(purchase.getId());
+        request.setTenureMonths(24);
+
+        SqlStatementCounter.reset();
+        emiService.convertToEmi(request);
+        int statements = SqlStatementCounter.count();
+
+        // Transaction with account, the customer's credit card, then the transaction UPDATE and plan INSERT at commit;
+        // the 24-month schedule is computed, not inserted
+        assertThat(statements).isLessThanOrEqualTo(4 + 1);
+    }
+
+    @Test
+    void creditCardRepaymentIsOneLinkedDebit() {
+        Account account = newAccount(10_000);
+        Card card = newCreditCard(account, 100_000, 20);
+        CreditCardBill bill = new CreditCardBill();
+        bill.setCard(card);
+        bill.setBillingDate(LocalDate.now().minusDays(5));
+        bill.setDueDate(LocalDate.now().plusDays(10));
+        bill.setTotalAmountDue(2_000);
+        bill.setMinimumAmountDue(100);
+        bill.setCurrentOutstanding(2_000);
+        bill.setPaymentStatus(PaymentStatus.UNPAID);
+        creditCardBillRepository.save(bill);
+
+        SqlStatementCounter.reset();
+        CreditCardBill paid = creditCardBillingService.payBill(card.getCardNumber(), PaymentOption.OTHER_AMOUNT, 500);
+        int statements = SqlStatementCounter.count();
+
+        assertThat(paid.getPaymentStatus()).isEqualTo(PaymentStatus.PARTIAL);
+        assertThat(transactionService.getTransactionsForAccount(account.getAccountNumber(), null, null, null, 50).getTransactions())
+                .singleElement().extracting("transactionType").isEqualTo("CARD_PAYMENT");
+        // Inserted already linked to the card, so no follow-up UPDATE of the transaction row
+        assertThat(transactionRepository.findViewsByCardId(card.getId()))
+                .singleElement().extracting("transactionType").isEqualTo("CARD_PAYMENT");
+        // Card, locked bill, linked account; guarded UPDATE ... RETURNING + refresh; credit-used UPDATE; accumulator upsert;
+        // transaction INSERT and bill UPDATE
+        assertThat(statements).isLessThanOrEqualTo(9 + 1);
+    }
+
+    @Test
+    void debitCardCaptureInsertsItsPurchaseAlreadyLinked() {
+        Account account = newAccount(1_000);
+        Card card = newCreditCard(account, 0, 20);
+        card.setCardType(CardType.DEBIT);
+        card.setPin(pinHasher.hash("1234"));
+        card = cardRepository.save(card);
+        AuthorizationRequest request = new AuthorizationRequest();
+        request.setAmount(250);
+        request.setPin("1234");
+        request.setMerchant("test");
+        AuthorizationResponse authorized = cardAuthorizationService.authorize(card.getCardNumber(), request).join();
+        assertThat(authorized.getStatus()).isEqualTo(AuthorizationStatus.APPROVED);
+
+        SqlStatementCounter.reset();
+        AuthorizationResponse captured = cardAuthorizationService.capture(authorized.getAuthorizationId());
+        int statements = SqlStatementCounter.count();
+
+        assertThat(captured.getStatus()).isEqualTo(AuthorizationStatus.CAPTURED);
+        assertThat(transactionRepository.findViewsByCardId(card.getId()))
+                .singleElement().extracting("transactionType").isEqualTo("CARD_PURCHASE");
+        // Card, its account; guarded UPDATE ... RETURNING + refresh of the loaded account; transaction INSERT,
+        // with no follow-up UPDATE to link the card
+        assertThat(statements).isLessThanOrEqualTo(5 + 1);
+    }
+}
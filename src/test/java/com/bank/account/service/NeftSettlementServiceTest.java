@@ -0,0 +1,92 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.AccountStatus;
+import com.bank.account.dto.FundTransferRequest;
+import com.bank.account.dto.NeftStatus;
+import com.bank.account.dto.TransferType;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = "payments.fee-account-number=" + NeftSettlementServiceTest.FEE_ACCOUNT)
+class NeftSettlementServiceTest extends PostgresIntegrationTest {
+
+    static final String FEE_ACCOUNT = "9900000000001";
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private NeftSettlementService neftSettlementService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @BeforeEach
+    void feeAccount() {
+        if (accountRepository.findByAccountNumber(FEE_ACCOUNT).isEmpty()) {
+            Account account = newAccount(0);
+            account.setAccountNumber(FEE_ACCOUNT);
+            accountRepository.save(account);
+        }
+    }
+
+    @Test
+    void returnedTransferRefundsTheAmountAndKeepsTheLedgerBalanced() {
+        Account from = newAccount(10_000);
+        Account to = newAccount(0);
+        double before = ledger(from, to);
+        double feesBefore = accountService.getBalance(FEE_ACCOUNT);
+
+        List<Transaction> queued = paymentService.initiateFundTransfer(neft(from, to, 1_000));
+        String reference = queued.get(0).getDescription().replaceAll(".* ref ", "");
+        // Beneficiary frozen before the clearing window, so the credit leg is returned
+        accountService.updateAccountStatus(to.getAccountNumber(), AccountStatus.FROZEN);
+        neftSettlementService.settlePendingBatch();
+
+        assertThat(neftSettlementService.getInstruction(reference).getStatus()).isEqualTo(NeftStatus.RETURNED);
+        double fee = accountService.getBalance(FEE_ACCOUNT) - feesBefore;
+        assertThat(fee).isPositive();
+        assertThat(accountService.getBalance(from.getAccountNumber())).isCloseTo(10_000 - fee, within(0.001));
+        assertThat(accountService.getBalance(to.getAccountNumber())).isZero();
+        // No money created or destroyed across sender, beneficiary and fee income
+        assertThat(ledger(from, to)).isCloseTo(before, within(0.001));
+    }
+
+    @Test
+    void settledTransferMovesTheAmountAndTheFee() {
+        Account from = newAccount(10_000);
+        Account to = newAccount(0);
+        double before = ledger(from, to);
+
+        paymentService.initiateFundTransfer(neft(from, to, 1_000));
+        neftSettlementService.settlePendingBatch();
+
+        assertThat(accountService.getBalance(to.getAccountNumber())).isEqualTo(1_000);
+        assertThat(ledger(from, to)).isCloseTo(before, within(0.001));
+    }
+
+    private double ledger(Account from, Account to) {
+        return accountService.getBalance(from.getAccountNumber()) + accountService.getBalance(to.getAccountNumber())
+                + accountService.getBalance(FEE_ACCOUNT);
+    }
+
+    private FundTransferRequest neft(Account from, Account to, double amount) {
+        FundTransferRequest request = new FundTransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(amount);
+        request.setTransferType(TransferType.NEFT);
+        request.setRemarks("rent");
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    // 8 slots of 10 ms: one turn of the wheel is 80 ms
+    private final TimingWheel<String> wheel = new TimingWheel<>(8, 10, 1_000);
+
+    @Test
+    void keyIsHandedOutOnceItsDeadlineHasPassed() {
+        wheel.schedule("a", 1_035);
+
+        assertThat(wheel.advance(1_030)).isEmpty();
+        assertThat(wheel.advance(1_040)).containsExactly("a");
+        assertThat(wheel.advance(1_050)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineSeveralTurnsAheadSurvivesTheSlotVisitsBeforeIt() {
+        wheel.schedule("far", 1_200);
+
+        for (long now = 1_010; now < 1_200; now += 10) {
+            assertThat(wheel.advance(now)).isEmpty();
+        }
+        assertThat(wheel.advance(1_200)).containsExactly("far");
+    }
+
+    @Test
+    void reschedulingKeepsTheEarlierDeadline() {
+        wheel.schedule("a", 1_020);
+        wheel.schedule("a", 1_500);
+
+        assertThat(wheel.advance(1_020)).containsExactly("a");
+    }
+
+    @Test
+    void expediteBringsAScheduledKeyForwardAndIgnoresUnknownKeys() {
+        wheel.schedule("a", 1_500);
+
+        assertThat(wheel.expedite("a", 1_010)).isTrue();
+        assertThat(wheel.expedite("unknown", 1_010)).isFalse();
+
+        assertThat(wheel.advance(1_010)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        // The slot the key moved out of no longer hands it out
+        assertThat(wheel.advance(1_500)).isEmpty();
+    }
+
+    @Test
+    void pastDeadlineIsDueOnTheNextAdvance() {
+        wheel.advance(1_100);
+        wheel.schedule("late", 1_050);
+
+        assertThat(wheel.advance(1_100)).containsExactly("late");
+    }
+
+    @Test
+    void pauseLongerThanATurnHandsOutEverythingDue() {
+        wheel.schedule("a", 1_010);
+        wheel.schedule("b", 1_075);
+        wheel.schedule("c", 1_330);
+        wheel.schedule("d", 5_000);
+
+        assertThat(wheel.advance(2_000)).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+}
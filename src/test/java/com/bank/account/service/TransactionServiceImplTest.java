@@ -0,0 +1,72 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.ExportFormat;
+import com.bank.account.dto.TransactionView;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+// The export holds a server-side cursor for as long as its stream is open, so it must be closed on every exit
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceImplTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private TransactionServiceImpl transactionService;
+
+    @Test
+    void exportClosesTheCursorAfterTheLastRow() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        exportStream(3, closed);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionService.exportTransactions("100000000099", null, null, null, ExportFormat.CSV, out);
+
+        assertThat(out.toString().lines()).hasSize(4);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void exportClosesTheCursorWhenTheClientGoesAway() {
+        AtomicBoolean closed = new AtomicBoolean();
+        exportStream(5_000, closed);
+        // Fails on the first flush, as a disconnected client would
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> transactionService.exportTransactions("100000000099", null, null, null, ExportFormat.CSV, disconnected))
+                .isInstanceOf(IOException.class);
+        assertThat(closed).isTrue();
+    }
+
+    private void exportStream(int rows, AtomicBoolean closed) {
+        Stream<TransactionView> stream = IntStream.range(0, rows)
+                .mapToObj(i -> new TransactionView((long) i + 1, "TXN" + i, "100000000099", 10, "DEPOSIT", LocalDateTime.now(), "Row " + i, false))
+                .onClose(() -> closed.set(true));
+        when(transactionRepository.streamForExport(eq("100000000099"), any(), any(), isNull())).thenReturn(stream);
+    }
+}
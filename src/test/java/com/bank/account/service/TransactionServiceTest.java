@@ -0,0 +1,206 @@
+package com.bank.account.service;
+
+import com.bank.account.PostgresIntegrationTest;
+import com.bank.account.dto.DepositRequest;
+import com.bank.account.dto.ExportFormat;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.dto.TransactionView;
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.dto.WithdrawRequest;
+import com.bank.account.entity.Account;
+import com.bank.account.entity.Transaction;
+import com.bank.account.exception.InsufficientFundsException;
+import com.bank.account.exception.InvalidInputException;
+import com.bank.account.exception.ResourceNotFoundException;
+import com.bank.account.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void depositsToHotAccountLandOnStripesAndCountInTheBalance() {
+        Account account = newAccount(100);
+        accountService.configureBalanceStripes(account.getAccountNumber(), 4);
+
+        for (int i = 0; i < 20; i++) {
+            transactionService.deposit(deposit(account.getAccountNumber(), 10));
+        }
+
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(100);
+        assertThat(accountService.getBalance(account.getAccountNumber())).isEqualTo(300);
+    }
+
+    @Test
+    void withdrawalSweepsStripesBeforeDeclining() {
+        Account account = newAccount(0);
+        accountService.configureBalanceStripes(account.getAccountNumber(), 2);
+        transactionService.deposit(deposit(account.getAccountNumber(), 50));
+
+        transactionService.withdraw(withdraw(account.getAccountNumber(), 40));
+
+        assertThat(accountService.getBalance(account.getAccountNumber())).isEqualTo(10);
+        assertThatThrownBy(() -> transactionService.withdraw(withdraw(account.getAccountNumber(), 11)))
+                .isInstanceOf(InsufficientFundsException.class);
+    }
+
+    @Test
+    void transferToUnknownAccountIsNotFound() {
+        Account from = newAccount(100);
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber("999999999999");
+        request.setAmount(10);
+
+        assertThatThrownBy(() -> transactionService.transfer(request)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(accountService.getBalance(from.getAccountNumber())).isEqualTo(100);
+    }
+
+    @Test
+    void keysetPagesReturnEveryRowOnceAcrossEqualTimestamps() {
+        Account account = newAccount(0);
+        LocalDateTime base = LocalDate.now().minusDays(3).atTime(10, 0);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(transactionIdGenerator.nextId());
+            transaction.setAccount(account);
+            transaction.setAmount(i + 1);
+            transaction.setTransactionType("DEPOSIT");
+            transaction.setDate(base.plusMinutes(i / 5)); // five rows share each timestamp
+            transaction.setDescription("Row " + i);
+            rows.add(transaction);
+        }
+        transactionRepository.saveAll(rows);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getTransactionsForAccount(account.getAccountNumber(), null, null, cursor, 7);
+            page.getTransactions().stream().map(TransactionView::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(rows.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void allTransactionsPageNewestFirstByIdCursor() {
+        Account account = newAccount(0);
+        List<Long> ids = saveDeposits(account, 5, LocalDateTime.now()).stream().map(Transaction::getId).toList();
+
+        TransactionPage first = transactionService.getTransactions(null, 3);
+        TransactionPage second = transactionService.getTransactions(first.getNextCursor(), 2);
+
+        List<Long> seen = new ArrayList<>();
+        first.getTransactions().stream().map(TransactionView::getId).forEach(seen::add);
+        second.getTransactions().stream().map(TransactionView::getId).forEach(seen::add);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(seen).isSortedAccordingTo((a, b) -> Long.compare(b, a)).doesNotHaveDuplicates();
+        // Nothing else is written while the test runs, so the two pages are exactly the newest five rows
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void malformedTransactionCursorIsRejected() {
+        assertThatThrownBy(() -> transactionService.getTransactions("not a cursor!", 10))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void csvExportWritesAHeaderAndEveryRowInIdOrder() throws Exception {
+        Account account = newAccount(0);
+        // Dates run backwards, so id order and date order disagree
+        List<Transaction> rows = saveDeposits(account, 25, LocalDate.now().minusDays(2).atTime(12, 0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionService.exportTransactions(account.getAccountNumber(), null, null, null, ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(26);
+        assertThat(lines.get(0)).isEqualTo("id,transactionId,accountNumber,amount,transactionType,date,description,emiConverted");
+        List<Long> exported = lines.subList(1, lines.size()).stream()
+                .map(line -> Long.parseLong(line.substring(0, line.indexOf(','))))
+                .toList();
+        assertThat(exported).isEqualTo(rows.stream().map(Transaction::getId).sorted().toList());
+    }
+
+    @Test
+    void ndjsonExportWritesOneViewPerLineInIdOrder() throws Exception {
+        Account account = newAccount(0);
+        List<Transaction> rows = saveDeposits(account, 12, LocalDate.now().minusDays(2).atTime(12, 0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionService.exportTransactions(account.getAccountNumber(), null, null, "DEPOSIT", ExportFormat.NDJSON, out);
+
+        List<TransactionView> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            exported.add(objectMapper.readValue(line, TransactionView.class));
+        }
+        assertThat(exported).extracting(TransactionView::getId)
+                .isEqualTo(rows.stream().map(Transaction::getId).sorted().toList());
+        assertThat(exported).allSatisfy(view -> assertThat(view.getAccountNumber()).isEqualTo(account.getAccountNumber()));
+    }
+
+    @Test
+    void pageForUnknownAccountIsNotFound() {
+        assertThatThrownBy(() -> transactionService.getTransactionsForAccount("999999999998", null, null, null, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private List<Transaction> saveDeposits(Account account, int count, LocalDateTime newest) {
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(transactionIdGenerator.nextId());
+            transaction.setAccount(account);
+            transaction.setAmount(i + 1);
+            transaction.setTransactionType("DEPOSIT");
+            transaction.setDate(newest.minusMinutes(i));
+            transaction.setDescription("Row " + i);
+            rows.add(transaction);
+        }
+        return transactionRepository.saveAll(rows);
+    }
+
+    private DepositRequest deposit(String accountNumber, double amount) {
+        DepositRequest request = new DepositRequest();
+        request.setAccountNumber(accountNumber);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private WithdrawRequest withdraw(String accountNumber, double amount) {
+        WithdrawRequest request = new WithdrawRequest();
+        request.setAccountNumber(accountNumber);
+        request.setAmount(amount);
+        return request;
+    }
+}